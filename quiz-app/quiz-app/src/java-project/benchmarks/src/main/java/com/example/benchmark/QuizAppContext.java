@@ -0,0 +1,57 @@
+package com.example.benchmark;
+
+import com.example.BenchmarkData;
+import com.example.QuizAppApplication;
+import com.example.service.QuestionService;
+import com.example.service.QuizStatisticsAggregator;
+import com.example.service.ResultIdAllocator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application without a web server on a private in-memory database
+ * and seeds it through BenchmarkData from the application's test jar
+ */
+public final class QuizAppContext {
+
+    private QuizAppContext() {}
+
+    /**
+     * Start the application; properties are "key=value" overrides of application.properties
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>();
+        args.add("--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        args.add("--spring.main.banner-mode=off");
+        args.add("--logging.level.root=WARN");
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        SpringApplication application = new SpringApplication(QuizAppApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        return application.run(args.toArray(new String[0]));
+    }
+
+    /**
+     * Replace the question bank with the given number of synthetic questions and rebuild the question index
+     */
+    public static void seedQuestions(ConfigurableApplicationContext context, int count) {
+        BenchmarkData.seedQuestions(context.getBean(JdbcTemplate.class), count);
+        context.getBean(QuestionService.class).rebuildIndex();
+    }
+
+    /**
+     * Insert graded results for the given number of students and bring the statistics aggregate up to date
+     */
+    public static void seedResults(ConfigurableApplicationContext context, int count, int students) {
+        BenchmarkData.seedResults(context.getBean(JdbcTemplate.class), context.getBean(QuestionService.class),
+                                  context.getBean(ResultIdAllocator.class), count, students);
+        context.getBean(QuizStatisticsAggregator.class).reconcile();
+    }
+}
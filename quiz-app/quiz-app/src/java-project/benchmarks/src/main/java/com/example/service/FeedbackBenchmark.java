@@ -0,0 +1,57 @@
+package com.example.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuizService.generateFeedback over a spread of scores and times, so every feedback branch is taken.
+ * Needs no application context: feedback depends only on its arguments.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedbackBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    private final QuizService quizService = new QuizService();
+
+    private final int[] correctAnswers = new int[INPUTS];
+
+    private final int[] totalQuestions = new int[INPUTS];
+
+    private final long[] timesTaken = new long[INPUTS];
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < INPUTS; i++) {
+            totalQuestions[i] = 5 + random.nextInt(46);
+            correctAnswers[i] = random.nextInt(totalQuestions[i] + 1);
+            timesTaken[i] = 30 + random.nextInt(3_600);
+        }
+    }
+
+    @Benchmark
+    public String generateFeedback() {
+        int i = index = (index + 1) & (INPUTS - 1);
+        double score = (double) correctAnswers[i] / totalQuestions[i] * 100;
+        return quizService.generateFeedback(score, correctAnswers[i], totalQuestions[i], timesTaken[i]);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.service;
+
+import com.example.BenchmarkData;
+import com.example.benchmark.QuizAppContext;
+import com.example.model.QuizAttempt;
+import com.example.model.QuizResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading of submitted attempts by question bank size: gradeAttempt alone, and
+ * calculateAndSaveResult with feedback, item analysis and the write-behind save
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class GradingBenchmark {
+
+    private static final int ATTEMPTS = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    public int questions;
+
+    private ConfigurableApplicationContext context;
+
+    private QuizService quizService;
+
+    private QuizAttempt[] attempts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = QuizAppContext.start();
+        QuizAppContext.seedQuestions(context, questions);
+        quizService = context.getBean(QuizService.class);
+        QuestionService questionService = context.getBean(QuestionService.class);
+
+        // Completed attempts that were never registered for a deadline, so every submit is graded
+        SplittableRandom random = new SplittableRandom(42);
+        long now = System.currentTimeMillis();
+        attempts = new QuizAttempt[ATTEMPTS];
+        for (int i = 0; i < ATTEMPTS; i++) {
+            long[] ids = questionService.sampleQuestionIds(null, null, BenchmarkData.QUESTIONS_PER_ATTEMPT);
+            attempts[i] = new QuizAttempt(i + 1, "Student " + i, BenchmarkData.studentEmail(i), "All", ids,
+                                          BenchmarkData.randomAnswers(random, ids.length), ids.length,
+                                          now, Long.MAX_VALUE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public GradingEngine.Grade gradeAttempt(Cursor cursor) {
+        return quizService.gradeAttempt(cursor.next(attempts));
+    }
+
+    @Benchmark
+    public QuizResult calculateAndSaveResult(Cursor cursor) {
+        return quizService.calculateAndSaveResult(cursor.next(attempts), 600);
+    }
+
+    /**
+     * Walks the attempt pool per benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index;
+
+        QuizAttempt next(QuizAttempt[] attempts) {
+            index = (index + 1) & (attempts.length - 1);
+            return attempts[index];
+        }
+    }
+}
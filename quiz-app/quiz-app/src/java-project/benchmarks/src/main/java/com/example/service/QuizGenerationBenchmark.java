@@ -0,0 +1,68 @@
+package com.example.service;
+
+import com.example.benchmark.QuizAppContext;
+import com.example.model.Question;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuizService.generateQuiz for every filter combination of the setup form, by question bank size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class QuizGenerationBenchmark {
+
+    private static final int QUIZ_SIZE = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    public int questions;
+
+    @Param({"all", "category", "difficulty", "category+difficulty"})
+    public String filter;
+
+    private ConfigurableApplicationContext context;
+
+    private QuizService quizService;
+
+    private String category;
+
+    private String difficulty;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = QuizAppContext.start();
+        QuizAppContext.seedQuestions(context, questions);
+        quizService = context.getBean(QuizService.class);
+        category = filter.startsWith("category") ? "Algorithms" : "All";
+        difficulty = filter.endsWith("difficulty") ? "Hard" : "All";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Question> generateQuiz() {
+        return quizService.generateQuiz(category, difficulty, QUIZ_SIZE);
+    }
+}
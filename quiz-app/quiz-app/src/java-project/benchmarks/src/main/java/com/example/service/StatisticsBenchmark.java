@@ -0,0 +1,100 @@
+package com.example.service;
+
+import com.example.BenchmarkData;
+import com.example.benchmark.QuizAppContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getQuizStatistics and getStudentStatistics by number of saved results (20 per student).
+ * With studentCache=miss the summary cache holds a single student, so nearly every
+ * getStudentStatistics call rebuilds the summary from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class StatisticsBenchmark {
+
+    private static final int QUESTIONS = 1_000;
+
+    private static final int RESULTS_PER_STUDENT = 20;
+
+    private static final int EMAILS = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    public int results;
+
+    @Param({"hit", "miss"})
+    public String studentCache;
+
+    private ConfigurableApplicationContext context;
+
+    private QuizService quizService;
+
+    private String[] emails;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = studentCache.equals("miss")
+                ? QuizAppContext.start("quiz.student-summary.cache-size=1")
+                : QuizAppContext.start();
+        QuizAppContext.seedQuestions(context, QUESTIONS);
+        int students = Math.max(1, results / RESULTS_PER_STUDENT);
+        QuizAppContext.seedResults(context, results, students);
+        quizService = context.getBean(QuizService.class);
+
+        SplittableRandom random = new SplittableRandom(42);
+        emails = new String[EMAILS];
+        for (int i = 0; i < EMAILS; i++) {
+            emails[i] = BenchmarkData.studentEmail(random.nextInt(students));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> quizStatistics() {
+        return quizService.getQuizStatistics();
+    }
+
+    @Benchmark
+    public Map<String, Object> studentStatistics(Cursor cursor) {
+        return quizService.getStudentStatistics(cursor.next(emails));
+    }
+
+    /**
+     * Walks the student pool per benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index;
+
+        String next(String[] emails) {
+            index = (index + 1) & (emails.length - 1);
+            return emails[index];
+        }
+    }
+}
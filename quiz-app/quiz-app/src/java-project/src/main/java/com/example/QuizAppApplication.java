@@ -2,12 +2,14 @@ package com.example;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot application class for the Computer Science Engineering Quiz App
  * This class serves as the entry point for the application
  */
 @SpringBootApplication
+@EnableScheduling
 public class QuizAppApplication {
 
     public static void main(String[] args) {
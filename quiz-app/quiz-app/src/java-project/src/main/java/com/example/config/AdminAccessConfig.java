@@ -0,0 +1,22 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * One access check in front of every /admin endpoint (question bank, regrades, item analysis,
+ * scheduled exams, admission statistics, flight recordings)
+ */
+@Configuration
+public class AdminAccessConfig implements WebMvcConfigurer {
+
+    @Value("${quiz.admin.token:}")
+    private String adminToken;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdminAccessInterceptor(adminToken)).addPathPatterns("/admin/**");
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards the /admin endpoints: callers must send quiz.admin.token in X-Admin-Token, and without a
+ * configured token only loopback clients are served. Behind a reverse proxy every request can look
+ * local, so configure a token there. Runs before the handler, so a refused request body is never read.
+ */
+class AdminAccessInterceptor implements HandlerInterceptor {
+
+    static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private final byte[] token;
+
+    AdminAccessInterceptor(String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (isAllowed(request)) {
+            return true;
+        }
+        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Admin endpoints are not available to this client\"}");
+        return false;
+    }
+
+    private boolean isAllowed(HttpServletRequest request) {
+        if (token.length > 0) {
+            String sent = request.getHeader(TOKEN_HEADER);
+            return sent != null && MessageDigest.isEqual(sent.getBytes(StandardCharsets.UTF_8), token);
+        }
+        try {
+            // The remote address is an IP literal, so this does not resolve anything
+            return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.config;
+
+import com.example.jfr.QuizRequestRecorder;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Metrics wiring: @Timed service methods and template rendering time, plus the JFR events that
+ * wrap each quiz request. Request latency per endpoint (http.server.requests) and repository calls
+ * (spring.data.repository.invocations) are timed by Spring Boot itself.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ViewRenderTimer(meterRegistry));
+        registry.addInterceptor(new QuizRequestRecorder()).addPathPatterns("/quiz/**", "/api/quiz/**");
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times template rendering (quiz.view.render, tagged with the view name): the time between the
+ * handler returning a view and the request completing. Redirects and responses written by the
+ * handler itself are not timed.
+ */
+class ViewRenderTimer implements HandlerInterceptor {
+
+    private static final String VIEW = ViewRenderTimer.class.getName() + ".view";
+
+    private static final String START = ViewRenderTimer.class.getName() + ".start";
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    ViewRenderTimer(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null
+                || modelAndView.getViewName().startsWith("redirect:")) {
+            return;
+        }
+        request.setAttribute(VIEW, modelAndView.getViewName());
+        request.setAttribute(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object view = request.getAttribute(VIEW);
+        if (view == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - (Long) request.getAttribute(START);
+        timers.computeIfAbsent((String) view, name -> Timer.builder("quiz.view.render")
+                        .description("Template rendering time")
+                        .tag("view", name)
+                        .register(registry))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.controller;
+
+import com.example.dto.AdmissionStats;
+import com.example.service.QuizAdmissionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Administrative JSON endpoints for the quiz-start admission control
+ */
+@RestController
+@RequestMapping("/admin/admission")
+public class AdmissionAdminController {
+
+    @Autowired
+    private QuizAdmissionService quizAdmissionService;
+
+    /**
+     * Queue depth, admissions, rejections and wait times since startup
+     */
+    @GetMapping("/stats")
+    public AdmissionStats stats() {
+        return quizAdmissionService.getStats();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.controller;
+
+import com.example.service.FlightRecordingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Administrative endpoints for the continuous flight recording: download the last N minutes
+ * as a .jfr file to open in JDK Mission Control or `jfr print --categories "Quiz App"`.
+ * Recordings expose internals; like every /admin endpoint they are guarded by AdminAccessInterceptor.
+ */
+@RestController
+@RequestMapping("/admin/jfr")
+public class FlightRecordingAdminController {
+
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
+    @GetMapping
+    public ResponseEntity<?> status() {
+        return ResponseEntity.ok(flightRecordingService.getStatus());
+    }
+
+    /**
+     * The last minutes of the recording (default 5, at most quiz.jfr.max-age-minutes)
+     */
+    @GetMapping("/dump")
+    public ResponseEntity<?> dump(@RequestParam(defaultValue = "5") long minutes) {
+        if (!flightRecordingService.isRecording()) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "Flight recording is not running");
+        }
+        if (minutes < 1 || minutes > flightRecordingService.getMaxAgeMinutes()) {
+            return error(HttpStatus.BAD_REQUEST,
+                         "minutes must be between 1 and " + flightRecordingService.getMaxAgeMinutes());
+        }
+        String fileName = "quiz-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr";
+        StreamingResponseBody body = out -> flightRecordingService.dump(Duration.ofMinutes(minutes), out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", message));
+    }
+}
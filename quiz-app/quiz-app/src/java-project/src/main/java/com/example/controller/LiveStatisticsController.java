@@ -0,0 +1,40 @@
+package com.example.controller;
+
+import com.example.dto.LiveStreamStats;
+import com.example.service.LiveStatisticsBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events stream of the statistics page: a "statistics" event with the full
+ * snapshot whenever results change, at most quiz.live.max-updates-per-second times a second
+ */
+@RestController
+public class LiveStatisticsController {
+
+    @Autowired
+    private LiveStatisticsBroadcaster liveStatisticsBroadcaster;
+
+    @GetMapping(value = "/statistics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        SseEmitter emitter = liveStatisticsBroadcaster.subscribe();
+        if (emitter == null) {
+            // Too many open streams; the page keeps showing the numbers it was rendered with
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Subscribers and sent or dropped frames since startup
+     */
+    @GetMapping("/statistics/stream/stats")
+    public LiveStreamStats stats() {
+        return liveStatisticsBroadcaster.getStats();
+    }
+}
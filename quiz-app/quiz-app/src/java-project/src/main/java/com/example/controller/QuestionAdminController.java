@@ -0,0 +1,209 @@
+package com.example.controller;
+
+import com.example.dto.ItemAnalysisReport;
+import com.example.dto.ItemStatistics;
+import com.example.dto.QuestionImportReport;
+import com.example.dto.RegradeReport;
+import com.example.service.QuestionCatalog;
+import com.example.service.QuestionImporter;
+import com.example.service.QuestionService;
+import com.example.service.ResultRegradeService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Administrative JSON endpoints for managing the question bank
+ */
+@RestController
+@RequestMapping("/admin/questions")
+public class QuestionAdminController {
+
+    @Autowired
+    private QuestionImporter questionImporter;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private ResultRegradeService resultRegradeService;
+
+    @Value("${quiz.import.max-upload-size:512MB}")
+    private DataSize maxUploadSize;
+
+    /**
+     * Import a CSV or JSON question bank sent as the request body, e.g.
+     * curl --data-binary @bank.csv -H "Content-Type: text/csv" .../admin/questions/import?name=bank.csv
+     * The format is taken from the format parameter, else the name's extension, else the content type.
+     * Bodies larger than quiz.import.max-upload-size are refused.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importQuestions(@RequestParam(value = "format", required = false) String format,
+                                            @RequestParam(value = "name", required = false) String name,
+                                            HttpServletRequest request) {
+        long length = request.getContentLengthLong();
+        if (length == 0) {
+            return error(HttpStatus.BAD_REQUEST, "The uploaded file is empty.");
+        }
+        if (length > maxUploadSize.toBytes()) {
+            return error(HttpStatus.PAYLOAD_TOO_LARGE,
+                         "Question banks are limited to " + maxUploadSize.toMegabytes() + " MB.");
+        }
+
+        QuestionImporter.Format importFormat;
+        try {
+            if (format != null && !format.isBlank()) {
+                importFormat = QuestionImporter.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } else if (name == null && request.getContentType() != null && request.getContentType().contains("json")) {
+                importFormat = QuestionImporter.Format.JSON;
+            } else {
+                importFormat = QuestionImporter.Format.fromFileName(name);
+            }
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
+        }
+
+        try (InputStream input = new LimitedInputStream(request.getInputStream(), maxUploadSize.toBytes())) {
+            QuestionImportReport report = questionImporter.importQuestions(input, importFormat,
+                                                                           name != null ? name : "request body");
+            return ResponseEntity.ok(report);
+        } catch (UploadTooLargeException e) {
+            return error(HttpStatus.PAYLOAD_TOO_LARGE, "Question banks are limited to " + maxUploadSize.toMegabytes()
+                                                       + " MB; the records before the limit were imported.");
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.CONFLICT, e.getMessage());
+        } catch (IllegalArgumentException | IOException e) {
+            return error(HttpStatus.BAD_REQUEST, "Could not read question bank: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Progress of the running import, or the outcome of the last one
+     */
+    @GetMapping("/import/progress")
+    public ResponseEntity<?> importProgress() {
+        QuestionImportReport report = questionImporter.getProgress();
+        if (report == null) {
+            return error(HttpStatus.NOT_FOUND, "No import has run yet.");
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Regrade stored results that contain any of the given questions, or all results if none are given.
+     * Runs in the background; poll /regrade/progress for the outcome.
+     */
+    @PostMapping("/regrade")
+    public ResponseEntity<?> regrade(@RequestParam(value = "questionId", required = false) List<Long> questionIds) {
+        resultRegradeService.submit(questionIds == null ? List.of() : questionIds);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("status", "Regrade queued."));
+    }
+
+    /**
+     * Progress of the running regrade, or the outcome of the last one
+     */
+    @GetMapping("/regrade/progress")
+    public ResponseEntity<?> regradeProgress() {
+        RegradeReport report = resultRegradeService.getProgress();
+        if (report == null) {
+            return error(HttpStatus.NOT_FOUND, "No regrade has run yet.");
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Hit, miss and eviction counters of the question cache
+     */
+    @GetMapping("/cache-stats")
+    public QuestionCatalog.Stats cacheStats() {
+        return questionService.getCatalogStats();
+    }
+
+    /**
+     * Item analysis of every attempted question: p-value, choice distribution and discrimination
+     */
+    @GetMapping("/item-analysis")
+    public List<ItemStatistics> itemAnalysis() {
+        return questionService.getItemStatistics();
+    }
+
+    /**
+     * Item analysis of a single question
+     */
+    @GetMapping("/item-analysis/{id}")
+    public ResponseEntity<?> itemAnalysis(@PathVariable("id") Long id) {
+        return questionService.getItemStatistics(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> error(HttpStatus.NOT_FOUND, "Question not found: " + id));
+    }
+
+    /**
+     * Rebuild the item analysis from every stored result; the report shows whether the
+     * incrementally maintained counters matched the rebuilt ones
+     */
+    @PostMapping("/item-analysis/recompute")
+    public ItemAnalysisReport recomputeItemAnalysis() {
+        return questionService.recomputeItemStatistics();
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", message));
+    }
+
+    /**
+     * Request body that fails once it grows past the upload limit, for bodies sent without a Content-Length
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                consume(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                consume(read);
+            }
+            return read;
+        }
+
+        private void consume(long bytes) throws UploadTooLargeException {
+            remaining -= bytes;
+            if (remaining < 0) {
+                throw new UploadTooLargeException();
+            }
+        }
+    }
+
+    private static final class UploadTooLargeException extends IOException {
+    }
+}
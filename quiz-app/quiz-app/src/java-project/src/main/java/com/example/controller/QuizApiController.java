@@ -0,0 +1,154 @@
+package com.example.controller;
+
+import com.example.dto.QuizPayload;
+import com.example.dto.QuizQuestionView;
+import com.example.dto.QuizStartRequest;
+import com.example.dto.QuizSubmission;
+import com.example.dto.QuizSubmissionResult;
+import com.example.model.QuestionSnapshot;
+import com.example.model.QuizAttempt;
+import com.example.model.QuizResult;
+import com.example.model.ScheduledExam;
+import com.example.service.QuestionService;
+import com.example.service.QuizAdmissionService;
+import com.example.service.QuizAttemptStore;
+import com.example.service.QuizService;
+import com.example.service.QuizTokenCodec;
+import com.example.service.ScheduledExamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON API for taking a whole quiz in two requests:
+ * one to fetch every question, one to submit every answer.
+ * Quiz state is kept in the same QuizAttemptStore as the page flow.
+ */
+@RestController
+@RequestMapping("/api/quiz")
+public class QuizApiController {
+
+    private static final int DEFAULT_QUESTION_COUNT = 20;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizAttemptStore quizAttemptStore;
+
+    @Autowired
+    private QuizAdmissionService quizAdmissionService;
+
+    @Autowired
+    private ScheduledExamService scheduledExamService;
+
+    /**
+     * Start a quiz and return all of its questions (without correct answers)
+     */
+    @PostMapping("/start")
+    public ResponseEntity<?> startQuiz(@RequestBody QuizStartRequest startRequest,
+                                       HttpServletRequest request,
+                                       HttpServletResponse response) {
+        if (isBlank(startRequest.studentName()) || isBlank(startRequest.studentEmail())) {
+            return error(HttpStatus.BAD_REQUEST, "studentName and studentEmail are required.");
+        }
+
+        if (startRequest.questionCount() != null
+                && (startRequest.questionCount() < 1 || startRequest.questionCount() > QuizTokenCodec.MAX_QUESTIONS)) {
+            return error(HttpStatus.BAD_REQUEST, "questionCount must be between 1 and " + QuizTokenCodec.MAX_QUESTIONS + ".");
+        }
+
+        String category = orAll(startRequest.category());
+        if (startRequest.examId() != null) {
+            ScheduledExam exam = scheduledExamService.getOpenExam(startRequest.examId()).orElse(null);
+            if (exam == null) {
+                return error(HttpStatus.CONFLICT, "This exam is not open right now.");
+            }
+            category = orAll(exam.getCategory());
+        }
+
+        // API clients do not join the waiting line; they retry after the suggested delay
+        QuizAdmissionService.Permit permit = quizAdmissionService.tryAdmit(
+                QuizAdmissionService.examKey(category, startRequest.examId()));
+        if (permit == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body(Map.of("error", "Too many quizzes are starting right now. Please retry shortly."));
+        }
+
+        int questionCount = startRequest.questionCount() != null ? startRequest.questionCount() : DEFAULT_QUESTION_COUNT;
+        QuizAttempt attempt;
+        try (permit) {
+            attempt = startRequest.examId() != null
+                    ? quizService.startExamAttempt(startRequest.studentName(), startRequest.studentEmail(),
+                                                   startRequest.examId())
+                    : quizService.startAttempt(startRequest.studentName(), startRequest.studentEmail(),
+                                               category, orAll(startRequest.difficulty()), questionCount);
+            if (attempt == null) {
+                return error(HttpStatus.NOT_FOUND, "No questions available for the selected criteria.");
+            }
+            quizAttemptStore.save(attempt, request, response);
+        }
+
+        List<QuizQuestionView> questions = new ArrayList<>(attempt.getTotalQuestions());
+        for (QuestionSnapshot question : questionService.getCatalogQuestions(attempt.getQuestionIds())) {
+            if (question != null) {
+                questions.add(QuizQuestionView.of(question));
+            }
+        }
+        return ResponseEntity.ok(new QuizPayload(attempt.getAttemptId(), attempt.getStartTime(),
+                                                 attempt.getDeadline(), questions));
+    }
+
+    /**
+     * Submit every answer of the current quiz in one request and grade it
+     */
+    @PostMapping("/submit")
+    public ResponseEntity<?> submitQuiz(@RequestBody QuizSubmission submission,
+                                        HttpServletRequest request,
+                                        HttpServletResponse response) {
+        QuizAttempt attempt = quizAttemptStore.load(request);
+        if (attempt == null) {
+            return error(HttpStatus.GONE, "Quiz session expired. Please start a new quiz.");
+        }
+
+        if (submission.answers() != null) {
+            for (Map.Entry<Long, String> answer : submission.answers().entrySet()) {
+                if (answer.getKey() != null) {
+                    quizService.recordAnswer(attempt, answer.getKey(), answer.getValue());
+                }
+            }
+        }
+
+        long timeTaken = (System.currentTimeMillis() - attempt.getStartTime()) / 1000; // in seconds
+        QuizResult result = quizService.calculateAndSaveResult(attempt, timeTaken);
+        quizAttemptStore.complete(attempt, request, response);
+
+        return ResponseEntity.ok(QuizSubmissionResult.of(result));
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", message));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String orAll(String value) {
+        return isBlank(value) ? "All" : value;
+    }
+}
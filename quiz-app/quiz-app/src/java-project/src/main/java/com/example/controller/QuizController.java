@@ -1,18 +1,30 @@
 package com.example.controller;
 
-import com.example.model.Question;
+import com.example.dto.LiveStatistics;
+import com.example.dto.QuizStartRequest;
+import com.example.model.QuestionSnapshot;
+import com.example.model.QuizAttempt;
 import com.example.model.QuizResult;
+import com.example.model.ScheduledExam;
+import com.example.service.CatalogMetadata;
+import com.example.service.LiveStatisticsBroadcaster;
+import com.example.service.QuestionPageRenderer;
 import com.example.service.QuestionService;
+import com.example.service.QuizAdmissionService;
+import com.example.service.QuizAttemptStore;
 import com.example.service.QuizService;
+import com.example.service.QuizTokenCodec;
+import com.example.service.ScheduledExamService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import jakarta.servlet.http.HttpSession;
-import java.util.HashMap;
-import java.util.List;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -22,19 +34,48 @@ import java.util.Map;
 @Controller
 public class QuizController {
     
+    // Attempts listed on the student results page; totals cover every attempt
+    private static final int STUDENT_HISTORY_SIZE = 50;
+    
     @Autowired
     private QuestionService questionService;
     
     @Autowired
     private QuizService quizService;
     
+    @Autowired
+    private QuizAttemptStore quizAttemptStore;
+    
+    @Autowired
+    private QuestionPageRenderer questionPageRenderer;
+    
+    @Autowired
+    private QuizAdmissionService quizAdmissionService;
+    
+    @Autowired
+    private ScheduledExamService scheduledExamService;
+    
+    @Autowired
+    private LiveStatisticsBroadcaster liveStatisticsBroadcaster;
+    
+    // Last-Modified of pages whose content is fixed at startup (HTTP dates have second precision)
+    private final long startedAt = System.currentTimeMillis() / 1000 * 1000;
+    
     /**
      * Home page - Landing page with welcome message
      */
     @GetMapping("/")
-    public String home(Model model) {
-        model.addAttribute("totalQuestions", questionService.getTotalQuestions());
-        model.addAttribute("categories", questionService.getAllCategories());
+    public String home(Model model, WebRequest webRequest) {
+        CatalogMetadata catalog = questionService.getCatalogMetadata();
+        // The page only changes with the question bank, unless a flash message is shown
+        if (!model.containsAttribute("error") && !model.containsAttribute("message")
+                && webRequest.checkNotModified("\"index-" + startedAt + "-" + catalog.getVersion() + "\"",
+                                               Math.max(startedAt, catalog.getBuiltAt()))) {
+            return null;
+        }
+        model.addAttribute("catalog", catalog);
+        model.addAttribute("totalQuestions", catalog.getTotal());
+        model.addAttribute("categories", catalog.getCategories());
         return "index";
     }
     
@@ -42,7 +83,11 @@ public class QuizController {
      * About page - Information about the quiz application
      */
     @GetMapping("/about")
-    public String about() {
+    public String about(WebRequest webRequest) {
+        // Static content that only changes with a deployment
+        if (webRequest.checkNotModified("\"about-" + startedAt + "\"", startedAt)) {
+            return null;
+        }
         return "about";
     }
     
@@ -51,13 +96,16 @@ public class QuizController {
      */
     @GetMapping("/quiz/setup")
     public String quizSetup(Model model) {
-        model.addAttribute("categories", questionService.getAllCategories());
-        model.addAttribute("difficulties", questionService.getAllDifficulties());
+        CatalogMetadata catalog = questionService.getCatalogMetadata();
+        model.addAttribute("catalog", catalog);
+        model.addAttribute("categories", catalog.getCategories());
+        model.addAttribute("difficulties", catalog.getDifficulties());
+        model.addAttribute("openExams", scheduledExamService.getOpenExams());
         return "quiz-setup";
     }
     
     /**
-     * Start quiz - Initialize quiz session
+     * Start quiz - Initialize quiz session, or join the waiting line when too many students start at once
      */
     @PostMapping("/quiz/start")
     public String startQuiz(@RequestParam String studentName,
@@ -65,26 +113,86 @@ public class QuizController {
                            @RequestParam(defaultValue = "All") String category,
                            @RequestParam(defaultValue = "All") String difficulty,
                            @RequestParam(defaultValue = "20") int questionCount,
-                           HttpSession session,
-                           RedirectAttributes redirectAttributes) {
+                           @RequestParam(required = false) Long examId,
+                           HttpServletRequest request,
+                           HttpServletResponse response,
+                           RedirectAttributes redirectAttributes) throws IOException {
+        if (questionCount < 1 || questionCount > QuizTokenCodec.MAX_QUESTIONS) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                               "questionCount must be between 1 and " + QuizTokenCodec.MAX_QUESTIONS);
+            return null;
+        }
         
+        QuizStartRequest start = new QuizStartRequest(studentName, studentEmail, category, difficulty, questionCount);
+        if (examId != null) {
+            // A scheduled exam fixes the quiz settings
+            ScheduledExam exam = scheduledExamService.getOpenExam(examId).orElse(null);
+            if (exam == null) {
+                redirectAttributes.addFlashAttribute("error", "This exam is not open right now.");
+                return "redirect:/quiz/setup";
+            }
+            category = exam.getCategory() != null ? exam.getCategory() : "All";
+            start = new QuizStartRequest(studentName, studentEmail, category, exam.getDifficulty(),
+                                         exam.getQuestionCount(), examId);
+        }
+        String admissionKey = QuizAdmissionService.examKey(category, examId);
+        QuizAdmissionService.Permit permit = quizAdmissionService.tryAdmit(admissionKey);
+        if (permit == null) {
+            QuizAdmissionService.Ticket ticket = quizAdmissionService.enqueue(admissionKey, start);
+            if (ticket == null) {
+                redirectAttributes.addFlashAttribute("error", "Too many students are starting a quiz right now. Please try again in a minute.");
+                return "redirect:/quiz/setup";
+            }
+            return "redirect:/quiz/queue?ticket=" + ticket.getId();
+        }
+        try (permit) {
+            return beginAttempt(start, request, response, redirectAttributes);
+        }
+    }
+    
+    /**
+     * Waiting line - shows the student's place and starts the quiz once admitted
+     */
+    @GetMapping("/quiz/queue")
+    public String waitingLine(@RequestParam String ticket, Model model,
+                              HttpServletRequest request, HttpServletResponse response,
+                              RedirectAttributes redirectAttributes) {
+        QuizAdmissionService.Admission admission = quizAdmissionService.poll(ticket);
+        if (admission == null) {
+            redirectAttributes.addFlashAttribute("error", "Your place in line has expired. Please start the quiz again.");
+            return "redirect:/quiz/setup";
+        }
+        if (admission.isAdmitted()) {
+            try (QuizAdmissionService.Permit permit = admission.getPermit()) {
+                return beginAttempt(admission.getStart(), request, response, redirectAttributes);
+            }
+        }
+        model.addAttribute("ticket", ticket);
+        model.addAttribute("position", admission.getPosition());
+        model.addAttribute("estimatedWaitSeconds", admission.getEstimatedWaitSeconds());
+        model.addAttribute("category", admission.getStart().category());
+        return "quiz-queue";
+    }
+    
+    /**
+     * Generate the quiz questions (or claim a scheduled exam's deck) and store the new attempt
+     */
+    private String beginAttempt(QuizStartRequest start, HttpServletRequest request, HttpServletResponse response,
+                                RedirectAttributes redirectAttributes) {
         try {
             // Generate quiz questions
-            List<Question> questions = quizService.generateQuiz(category, difficulty, questionCount);
+            QuizAttempt attempt = start.examId() != null
+                    ? quizService.startExamAttempt(start.studentName(), start.studentEmail(), start.examId())
+                    : quizService.startAttempt(start.studentName(), start.studentEmail(), start.category(),
+                                               start.difficulty(), start.questionCount());
             
-            if (questions.isEmpty()) {
+            if (attempt == null) {
                 redirectAttributes.addFlashAttribute("error", "No questions available for the selected criteria. Please try different options.");
                 return "redirect:/quiz/setup";
             }
             
-            // Store quiz session data
-            session.setAttribute("studentName", studentName);
-            session.setAttribute("studentEmail", studentEmail);
-            session.setAttribute("questions", questions);
-            session.setAttribute("category", category);
-            session.setAttribute("currentQuestionIndex", 0);
-            session.setAttribute("answers", new HashMap<Long, String>());
-            session.setAttribute("startTime", System.currentTimeMillis());
+            // Store compact quiz state; questions are resolved from the shared catalog
+            quizAttemptStore.save(attempt, request, response);
             
             return "redirect:/quiz/question";
             
@@ -98,26 +206,41 @@ public class QuizController {
      * Display current quiz question
      */
     @GetMapping("/quiz/question")
-    public String showQuestion(Model model, HttpSession session, RedirectAttributes redirectAttributes) {
+    public String showQuestion(Model model, HttpServletRequest request, HttpServletResponse response,
+                               RedirectAttributes redirectAttributes) throws IOException {
         
-        @SuppressWarnings("unchecked")
-        List<Question> questions = (List<Question>) session.getAttribute("questions");
-        Integer currentIndex = (Integer) session.getAttribute("currentQuestionIndex");
+        QuizAttempt attempt = quizAttemptStore.load(request);
         
-        if (questions == null || currentIndex == null) {
+        if (attempt == null) {
             redirectAttributes.addFlashAttribute("error", "Quiz session expired. Please start a new quiz.");
             return "redirect:/quiz/setup";
         }
         
-        if (currentIndex >= questions.size()) {
+        if (attempt.isComplete() || quizService.isTimeUp(attempt)) {
             return "redirect:/quiz/submit";
         }
         
-        Question currentQuestion = questions.get(currentIndex);
+        QuestionSnapshot currentQuestion = questionService.getCatalogQuestion(attempt.getCurrentQuestionId()).orElse(null);
+        if (currentQuestion == null) {
+            // Question was removed from the bank mid-quiz; skip it
+            attempt.advance();
+            quizAttemptStore.save(attempt, request, response);
+            return "redirect:/quiz/question";
+        }
+        
+        int currentIndex = attempt.getCurrentIndex();
+        int totalQuestions = attempt.getTotalQuestions();
+        int progress = ((currentIndex + 1) * 100) / totalQuestions;
+        if (questionPageRenderer.isEnabled() && !model.containsAttribute("error")) {
+            // Pre-rendered page with only this student's progress merged in
+            questionPageRenderer.write(currentQuestion, currentIndex + 1, totalQuestions, progress, response);
+            return null;
+        }
         model.addAttribute("question", currentQuestion);
         model.addAttribute("questionNumber", currentIndex + 1);
-        model.addAttribute("totalQuestions", questions.size());
-        model.addAttribute("progress", ((currentIndex + 1) * 100) / questions.size());
+        model.addAttribute("totalQuestions", totalQuestions);
+        model.addAttribute("progress", progress);
+        model.addAttribute("lastQuestion", currentIndex + 1 >= totalQuestions);
         
         return "quiz-question";
     }
@@ -128,28 +251,24 @@ public class QuizController {
     @PostMapping("/quiz/answer")
     public String submitAnswer(@RequestParam Long questionId,
                               @RequestParam String answer,
-                              HttpSession session,
+                              HttpServletRequest request,
+                              HttpServletResponse response,
                               RedirectAttributes redirectAttributes) {
         
-        @SuppressWarnings("unchecked")
-        Map<Long, String> answers = (Map<Long, String>) session.getAttribute("answers");
-        Integer currentIndex = (Integer) session.getAttribute("currentQuestionIndex");
-        @SuppressWarnings("unchecked")
-        List<Question> questions = (List<Question>) session.getAttribute("questions");
+        QuizAttempt attempt = quizAttemptStore.load(request);
         
-        if (answers == null || currentIndex == null || questions == null) {
+        if (attempt == null) {
             redirectAttributes.addFlashAttribute("error", "Quiz session expired. Please start a new quiz.");
             return "redirect:/quiz/setup";
         }
         
-        // Store the answer
-        answers.put(questionId, answer);
-        
-        // Move to next question
-        session.setAttribute("currentQuestionIndex", currentIndex + 1);
+        // Store the answer and move to next question
+        quizService.recordAnswer(attempt, questionId, answer);
+        attempt.advance();
+        quizAttemptStore.save(attempt, request, response);
         
-        // Check if quiz is complete
-        if (currentIndex + 1 >= questions.size()) {
+        // Check if quiz is complete or its time is up
+        if (attempt.isComplete() || quizService.isTimeUp(attempt)) {
             return "redirect:/quiz/submit";
         }
         
@@ -160,33 +279,25 @@ public class QuizController {
      * Submit quiz and calculate results
      */
     @GetMapping("/quiz/submit")
-    public String submitQuiz(HttpSession session, RedirectAttributes redirectAttributes) {
+    public String submitQuiz(HttpServletRequest request, HttpServletResponse response,
+                             RedirectAttributes redirectAttributes) {
         
-        String studentName = (String) session.getAttribute("studentName");
-        String studentEmail = (String) session.getAttribute("studentEmail");
-        String category = (String) session.getAttribute("category");
-        @SuppressWarnings("unchecked")
-        List<Question> questions = (List<Question>) session.getAttribute("questions");
-        @SuppressWarnings("unchecked")
-        Map<Long, String> answers = (Map<Long, String>) session.getAttribute("answers");
-        Long startTime = (Long) session.getAttribute("startTime");
+        QuizAttempt attempt = quizAttemptStore.load(request);
         
-        if (studentName == null || questions == null || answers == null || startTime == null) {
+        if (attempt == null) {
             redirectAttributes.addFlashAttribute("error", "Quiz session expired. Please start a new quiz.");
             return "redirect:/quiz/setup";
         }
         
         try {
             // Calculate time taken
-            long timeTaken = (System.currentTimeMillis() - startTime) / 1000; // in seconds
+            long timeTaken = (System.currentTimeMillis() - attempt.getStartTime()) / 1000; // in seconds
             
             // Calculate and save result
-            QuizResult result = quizService.calculateAndSaveResult(
-                studentName, studentEmail, questions, answers, timeTaken, category
-            );
+            QuizResult result = quizService.calculateAndSaveResult(attempt, timeTaken);
             
-            // Clear session
-            session.invalidate();
+            // Clear quiz state
+            quizAttemptStore.complete(attempt, request, response);
             
             // Redirect to results page
             redirectAttributes.addAttribute("resultId", result.getId());
@@ -235,10 +346,12 @@ public class QuizController {
     @GetMapping("/statistics")
     public String statistics(Model model) {
         try {
-            model.addAttribute("stats", quizService.getQuizStatistics());
-            model.addAttribute("topScores", quizService.getTopScores());
-            model.addAttribute("recentAttempts", quizService.getRecentAttempts());
-            model.addAttribute("categoryStats", quizService.getPerformanceByCategory());
+            // Shared snapshot, also pushed to open pages through /statistics/stream
+            LiveStatistics snapshot = liveStatisticsBroadcaster.getSnapshot();
+            model.addAttribute("stats", snapshot.stats());
+            model.addAttribute("topScores", snapshot.topScores());
+            model.addAttribute("recentAttempts", snapshot.recentAttempts());
+            model.addAttribute("categoryStats", snapshot.categories());
             return "statistics";
         } catch (Exception e) {
             model.addAttribute("error", "Error loading statistics: " + e.getMessage());
@@ -260,16 +373,17 @@ public class QuizController {
     @PostMapping("/student/search")
     public String searchStudent(@RequestParam String studentEmail, Model model, RedirectAttributes redirectAttributes) {
         try {
-            List<QuizResult> results = quizService.getResultsByStudentEmail(studentEmail);
+            // Totals come from the cached summary; only the latest attempts are loaded for the history
+            Map<String, Object> stats = quizService.getStudentStatistics(studentEmail);
             
-            if (results.isEmpty()) {
+            if (((Number) stats.get("totalAttempts")).longValue() == 0) {
                 redirectAttributes.addFlashAttribute("message", "No results found for email: " + studentEmail);
                 return "redirect:/student/results";
             }
             
             model.addAttribute("studentEmail", studentEmail);
-            model.addAttribute("results", results);
-            model.addAttribute("stats", quizService.getStudentStatistics(studentEmail));
+            model.addAttribute("results", quizService.getRecentResultsByStudentEmail(studentEmail, STUDENT_HISTORY_SIZE));
+            model.addAttribute("stats", stats);
             
             return "student-results";
             
@@ -0,0 +1,88 @@
+package com.example.controller;
+
+import com.example.dto.ExamDeckStatus;
+import com.example.model.ScheduledExam;
+import com.example.service.ScheduledExamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Administrative JSON endpoints for scheduling exams and inspecting their pre-generated decks
+ */
+@RestController
+@RequestMapping("/admin/exams")
+public class ScheduledExamAdminController {
+
+    @Autowired
+    private ScheduledExamService scheduledExamService;
+
+    /**
+     * Exams that have not started yet or can still be joined
+     */
+    @GetMapping
+    public List<ScheduledExam> upcomingExams() {
+        return scheduledExamService.getUpcomingExams();
+    }
+
+    /**
+     * Schedule an exam (title, category, difficulty, questionCount, rosterSize, startTime)
+     */
+    @PostMapping
+    public ResponseEntity<?> createExam(@RequestBody ScheduledExam exam) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(scheduledExamService.createExam(exam));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteExam(@PathVariable("id") long id) {
+        if (scheduledExamService.getExam(id).isEmpty()) {
+            return error(HttpStatus.NOT_FOUND, "No scheduled exam with id " + id);
+        }
+        scheduledExamService.deleteExam(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Pre-generated decks of an exam; 404 until they have been generated
+     */
+    @GetMapping("/{id}/decks")
+    public ResponseEntity<?> deckStatus(@PathVariable("id") long id) {
+        return scheduledExamService.getDeckStatus(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> error(HttpStatus.NOT_FOUND, "No decks generated for exam " + id));
+    }
+
+    /**
+     * Generate the decks of an exam now instead of waiting for the lead time
+     */
+    @PostMapping("/{id}/decks")
+    public ResponseEntity<?> pregenerate(@PathVariable("id") long id) {
+        ScheduledExam exam = scheduledExamService.getExam(id).orElse(null);
+        if (exam == null) {
+            return error(HttpStatus.NOT_FOUND, "No scheduled exam with id " + id);
+        }
+        ExamDeckStatus status = scheduledExamService.pregenerate(exam);
+        if (status == null) {
+            return error(HttpStatus.CONFLICT, "No questions match this exam.");
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", message));
+    }
+}
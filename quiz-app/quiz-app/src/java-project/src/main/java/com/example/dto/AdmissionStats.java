@@ -0,0 +1,11 @@
+package com.example.dto;
+
+import java.util.Map;
+
+/**
+ * Counters of the quiz-start admission control. Wait times cover tickets admitted from the queue.
+ */
+public record AdmissionStats(int queueDepth, int maxQueueDepth, long admittedImmediately, long admittedFromQueue,
+                             long rejected, long abandoned, double averageWaitMs, long maxWaitMs,
+                             Map<String, Integer> startsInProgress) {
+}
@@ -0,0 +1,20 @@
+package com.example.dto;
+
+/**
+ * Attempts and scores of one category
+ */
+public record CategoryPerformance(String category, long attempts, Double averageScore, Double highestScore,
+                                  Double lowestScore) {
+
+    /**
+     * From a row of QuizResultRepository.getStatisticsByCategory
+     */
+    public static CategoryPerformance of(Object[] row) {
+        return new CategoryPerformance((String) row[0], ((Number) row[1]).longValue(), toDouble(row[2]),
+                                       toDouble(row[3]), toDouble(row[4]));
+    }
+
+    private static Double toDouble(Object value) {
+        return value == null ? null : ((Number) value).doubleValue();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.dto;
+
+/**
+ * Pre-generated decks of a scheduled exam. decks includes the spares beyond the roster size.
+ */
+public record ExamDeckStatus(long examId, int decks, int claimed, int questionsPerDeck, int distinctQuestions,
+                             long generatedAt, long generationMs) {
+}
@@ -0,0 +1,7 @@
+package com.example.dto;
+
+/**
+ * State of the continuous flight recording that quiz recordings are dumped from
+ */
+public record FlightRecordingStatus(boolean recording, String settings, long maxAgeMinutes, long maxSizeMb) {
+}
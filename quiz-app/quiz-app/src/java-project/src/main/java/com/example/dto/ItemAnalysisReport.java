@@ -0,0 +1,10 @@
+package com.example.dto;
+
+/**
+ * Outcome of rebuilding the item analysis from the stored answer sheets.
+ * mismatchedQuestions counts the questions whose incrementally maintained counters differed
+ * from the rebuilt ones: 0 means the incremental state was exact, null that it was already
+ * known to be stale after a delete or answer key change.
+ */
+public record ItemAnalysisReport(long resultsScanned, int questions, Integer mismatchedQuestions, long elapsedMs) {
+}
@@ -0,0 +1,15 @@
+package com.example.dto;
+
+import java.util.Map;
+
+/**
+ * Item analysis of one question over all graded attempts that included it.
+ *
+ * pValue is the fraction answered correctly and discrimination the point-biserial correlation
+ * between answering it correctly and the score on the rest of the attempt; both are null
+ * while undefined. suggestedDifficulty is derived from pValue once enough attempts exist.
+ */
+public record ItemStatistics(long questionId, String assignedDifficulty, String suggestedDifficulty,
+                             long attempts, long correct, Double pValue, Double discrimination,
+                             Map<String, Long> choices) {
+}
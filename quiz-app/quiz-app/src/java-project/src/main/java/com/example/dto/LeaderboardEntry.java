@@ -0,0 +1,17 @@
+package com.example.dto;
+
+import com.example.model.QuizResult;
+
+import java.time.LocalDateTime;
+
+/**
+ * A result as shown on the public leaderboard: no email address, answers or feedback
+ */
+public record LeaderboardEntry(String studentName, String category, double score, String grade,
+                               LocalDateTime attemptDate) {
+
+    public static LeaderboardEntry of(QuizResult result) {
+        return new LeaderboardEntry(result.getStudentName(), result.getCategory(), result.getScore(),
+                                    result.getGrade(), result.getAttemptDate());
+    }
+}
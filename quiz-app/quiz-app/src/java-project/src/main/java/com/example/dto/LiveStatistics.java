@@ -0,0 +1,12 @@
+package com.example.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One frame of the live statistics stream, computed once per change and shared by every subscriber
+ */
+public record LiveStatistics(long version, long generatedAt, Map<String, Object> stats,
+                             List<LeaderboardEntry> topScores, List<LeaderboardEntry> recentAttempts,
+                             List<CategoryPerformance> categories) {
+}
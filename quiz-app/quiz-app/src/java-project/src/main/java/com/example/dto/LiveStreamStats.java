@@ -0,0 +1,9 @@
+package com.example.dto;
+
+/**
+ * Counters of the live statistics stream. Dropped frames were replaced by a newer one before
+ * a slow subscriber was ready for them.
+ */
+public record LiveStreamStats(int subscribers, long version, long framesPublished, long framesSent,
+                              long framesDropped) {
+}
@@ -0,0 +1,10 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * Progress or final outcome of a question-bank import
+ */
+public record QuestionImportReport(String source, boolean finished, long rowsRead, long rowsImported,
+                                   long rowsRejected, List<String> errors, long elapsedMs, double rowsPerSecond) {
+}
@@ -0,0 +1,9 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * Whole quiz delivered in one response
+ */
+public record QuizPayload(long attemptId, long startTime, long deadline, List<QuizQuestionView> questions) {
+}
@@ -0,0 +1,17 @@
+package com.example.dto;
+
+import com.example.model.QuestionSnapshot;
+
+/**
+ * A question as sent to the student: everything except the correct answer and explanation
+ */
+public record QuizQuestionView(Long id, String questionText, String optionA, String optionB,
+                               String optionC, String optionD, String category, String difficulty) {
+
+    public static QuizQuestionView of(QuestionSnapshot question) {
+        return new QuizQuestionView(question.getId(), question.getQuestionText(),
+                                    question.getOptionA(), question.getOptionB(),
+                                    question.getOptionC(), question.getOptionD(),
+                                    question.getCategory(), question.getDifficulty());
+    }
+}
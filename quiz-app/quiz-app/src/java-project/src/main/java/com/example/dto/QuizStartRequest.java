@@ -0,0 +1,14 @@
+package com.example.dto;
+
+/**
+ * JSON body for starting a quiz through the API.
+ * With an examId the quiz is a seat in that scheduled exam, whose settings override the others.
+ */
+public record QuizStartRequest(String studentName, String studentEmail, String category,
+                               String difficulty, Integer questionCount, Long examId) {
+
+    public QuizStartRequest(String studentName, String studentEmail, String category,
+                            String difficulty, Integer questionCount) {
+        this(studentName, studentEmail, category, difficulty, questionCount, null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.dto;
+
+import java.util.Map;
+
+/**
+ * All answers of a quiz submitted in one request, keyed by question id
+ */
+public record QuizSubmission(Map<Long, String> answers) {
+}
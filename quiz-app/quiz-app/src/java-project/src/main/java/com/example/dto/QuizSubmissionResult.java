@@ -0,0 +1,15 @@
+package com.example.dto;
+
+import com.example.model.QuizResult;
+
+/**
+ * Graded outcome returned by the batch submit endpoint
+ */
+public record QuizSubmissionResult(Long resultId, int totalQuestions, int correctAnswers,
+                                   double score, String grade, String feedback) {
+
+    public static QuizSubmissionResult of(QuizResult result) {
+        return new QuizSubmissionResult(result.getId(), result.getTotalQuestions(), result.getCorrectAnswers(),
+                                        result.getScore(), result.getGrade(), result.getFeedback());
+    }
+}
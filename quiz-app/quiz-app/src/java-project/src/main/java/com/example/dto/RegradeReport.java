@@ -0,0 +1,11 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * Progress or final outcome of a regrade of stored quiz results.
+ * An empty questionIds list means every result with stored answers was regraded.
+ */
+public record RegradeReport(List<Long> questionIds, boolean finished, long resultsScanned, long resultsAffected,
+                            long resultsUpdated, long elapsedMs, double resultsPerSecond) {
+}
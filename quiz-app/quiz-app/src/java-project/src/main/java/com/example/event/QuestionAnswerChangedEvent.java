@@ -0,0 +1,27 @@
+package com.example.event;
+
+/**
+ * Published by QuestionService when an update changes a question's correct answer
+ */
+public class QuestionAnswerChangedEvent {
+
+    private final Long questionId;
+
+    private final String previousAnswer;
+
+    public QuestionAnswerChangedEvent(Long questionId, String previousAnswer) {
+        this.questionId = questionId;
+        this.previousAnswer = previousAnswer;
+    }
+
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    /**
+     * The correct answer before the update
+     */
+    public String getPreviousAnswer() {
+        return previousAnswer;
+    }
+}
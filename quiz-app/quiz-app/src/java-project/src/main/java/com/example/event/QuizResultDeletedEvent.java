@@ -0,0 +1,19 @@
+package com.example.event;
+
+import com.example.model.QuizResult;
+
+/**
+ * Published by QuizService after a quiz result has been deleted
+ */
+public class QuizResultDeletedEvent {
+
+    private final QuizResult result;
+
+    public QuizResultDeletedEvent(QuizResult result) {
+        this.result = result;
+    }
+
+    public QuizResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.event;
+
+import com.example.model.QuizResult;
+
+/**
+ * Published by QuizService after a graded quiz result has been saved
+ */
+public class QuizResultSavedEvent {
+
+    private final QuizResult result;
+
+    public QuizResultSavedEvent(QuizResult result) {
+        this.result = result;
+    }
+
+    public QuizResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.jfr;
+
+import com.example.model.QuizAttempt;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recording one answer on an attempt, including the answer event
+ */
+@Name("com.example.AnswerRecorded")
+@Label("Answer Recorded")
+@Category({"Quiz App", "Quiz Flow"})
+@Description("Recording one answer on an attempt, including the answer event")
+@StackTrace(false)
+public class AnswerRecordedEvent extends Event {
+
+    @Label("Attempt Id")
+    public long attemptId;
+
+    @Label("Question Id")
+    public long questionId;
+
+    @Label("Question Count")
+    public int questionCount;
+
+    @Label("Correct")
+    public boolean correct;
+
+    /**
+     * Commit the event for an answer recorded on the attempt
+     */
+    public void record(QuizAttempt attempt, long questionId, boolean correct) {
+        if (shouldCommit()) {
+            this.attemptId = attempt.getAttemptId();
+            this.questionId = questionId;
+            this.questionCount = attempt.getTotalQuestions();
+            this.correct = correct;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.jfr;
+
+import com.example.model.QuizAttempt;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Loading the in-progress attempt for a request from the session or the signed token
+ */
+@Name("com.example.AttemptLoaded")
+@Label("Attempt Loaded")
+@Category({"Quiz App", "Quiz Flow"})
+@Description("Loading the in-progress attempt for a request from the session or the signed token")
+@StackTrace(false)
+public class AttemptLoadedEvent extends Event {
+
+    @Label("Store")
+    public String store;
+
+    @Label("Attempt Id")
+    public long attemptId;
+
+    @Label("Question Count")
+    public int questionCount;
+
+    /**
+     * Commit the event for an attempt loaded from the given store; attempt is null when there was none
+     */
+    public void record(String store, QuizAttempt attempt) {
+        if (shouldCommit()) {
+            this.store = store;
+            this.attemptId = attempt != null ? attempt.getAttemptId() : 0;
+            this.questionCount = attempt != null ? attempt.getTotalQuestions() : 0;
+            commit();
+        }
+    }
+}
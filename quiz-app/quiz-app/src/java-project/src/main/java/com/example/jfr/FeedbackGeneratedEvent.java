@@ -0,0 +1,40 @@
+package com.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Generating the feedback text of a graded attempt
+ */
+@Name("com.example.FeedbackGenerated")
+@Label("Feedback Generated")
+@Category({"Quiz App", "Quiz Flow"})
+@Description("Generating the feedback text of a graded attempt")
+@StackTrace(false)
+public class FeedbackGeneratedEvent extends Event {
+
+    @Label("Attempt Id")
+    public long attemptId;
+
+    @Label("Question Count")
+    public int questionCount;
+
+    @Label("Score")
+    public double score;
+
+    /**
+     * Commit the event; attemptId is null for results saved without an attempt
+     */
+    public void record(Long attemptId, int questionCount, double score) {
+        if (shouldCommit()) {
+            this.attemptId = attemptId != null ? attemptId : 0;
+            this.questionCount = questionCount;
+            this.score = score;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.jfr;
+
+import com.example.model.QuizAttempt;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Sampling the questions of a new attempt, or claiming a scheduled exam deck
+ */
+@Name("com.example.QuizGenerated")
+@Label("Quiz Generated")
+@Category({"Quiz App", "Quiz Flow"})
+@Description("Sampling the questions of a new attempt, or claiming a scheduled exam deck")
+@StackTrace(false)
+public class QuizGeneratedEvent extends Event {
+
+    @Label("Attempt Id")
+    public long attemptId;
+
+    @Label("Exam Id")
+    public long examId;
+
+    @Label("Category")
+    public String category;
+
+    @Label("Difficulty")
+    public String difficulty;
+
+    @Label("Question Count")
+    public int questionCount;
+
+    /**
+     * Commit the event for a new attempt; examId is 0 for quizzes that are not part of an exam
+     */
+    public void record(QuizAttempt attempt, long examId, String difficulty) {
+        if (shouldCommit()) {
+            this.attemptId = attempt.getAttemptId();
+            this.examId = examId;
+            this.category = attempt.getCategory();
+            this.difficulty = difficulty;
+            this.questionCount = attempt.getTotalQuestions();
+            commit();
+        }
+    }
+}
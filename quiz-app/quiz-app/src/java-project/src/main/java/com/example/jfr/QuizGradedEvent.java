@@ -0,0 +1,42 @@
+package com.example.jfr;
+
+import com.example.model.QuizAttempt;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Grading a submitted attempt against the answer key and adding it to the item analysis
+ */
+@Name("com.example.QuizGraded")
+@Label("Quiz Graded")
+@Category({"Quiz App", "Quiz Flow"})
+@Description("Grading a submitted attempt against the answer key and adding it to the item analysis")
+@StackTrace(false)
+public class QuizGradedEvent extends Event {
+
+    @Label("Attempt Id")
+    public long attemptId;
+
+    @Label("Question Count")
+    public int questionCount;
+
+    @Label("Correct Answers")
+    public int correctAnswers;
+
+    /**
+     * Commit the event for a graded attempt
+     */
+    public void record(QuizAttempt attempt, int correctAnswers) {
+        if (shouldCommit()) {
+            this.attemptId = attempt.getAttemptId();
+            this.questionCount = attempt.getTotalQuestions();
+            this.correctAnswers = correctAnswers;
+            commit();
+        }
+    }
+}
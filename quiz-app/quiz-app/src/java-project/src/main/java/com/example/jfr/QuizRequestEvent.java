@@ -0,0 +1,28 @@
+package com.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One request to a quiz page or API endpoint, from handler start to the completed response
+ */
+@Name("com.example.QuizRequest")
+@Label("Quiz Request")
+@Category({"Quiz App", "Quiz Flow"})
+@Description("One request to a quiz page or API endpoint, from handler start to the completed response")
+@StackTrace(false)
+public class QuizRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+}
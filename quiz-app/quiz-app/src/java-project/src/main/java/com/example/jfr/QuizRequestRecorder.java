@@ -0,0 +1,36 @@
+package com.example.jfr;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Wraps each quiz request in a QuizRequestEvent, so the stage events recorded while handling it
+ * can be set against the whole request, including rendering and the redirect
+ */
+public class QuizRequestRecorder implements HandlerInterceptor {
+
+    private static final String EVENT = QuizRequestRecorder.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QuizRequestEvent event = new QuizRequestEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            request.setAttribute(EVENT, event);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object attribute = request.getAttribute(EVENT);
+        if (attribute instanceof QuizRequestEvent event && event.shouldCommit()) {
+            event.method = request.getMethod();
+            event.path = request.getRequestURI();
+            event.status = response.getStatus();
+            event.commit();
+        }
+    }
+}
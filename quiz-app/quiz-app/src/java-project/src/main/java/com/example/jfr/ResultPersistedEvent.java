@@ -0,0 +1,42 @@
+package com.example.jfr;
+
+import com.example.model.QuizResult;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Saving a graded result (handing it to the write-behind queue when that is enabled)
+ */
+@Name("com.example.ResultPersisted")
+@Label("Result Persisted")
+@Category({"Quiz App", "Quiz Flow"})
+@Description("Saving a graded result (handing it to the write-behind queue when that is enabled)")
+@StackTrace(false)
+public class ResultPersistedEvent extends Event {
+
+    @Label("Attempt Id")
+    public long attemptId;
+
+    @Label("Question Count")
+    public int questionCount;
+
+    @Label("Result Id")
+    public long resultId;
+
+    /**
+     * Commit the event for a saved result; attemptId is null for results saved without an attempt
+     */
+    public void record(Long attemptId, int questionCount, QuizResult saved) {
+        if (shouldCommit()) {
+            this.attemptId = attemptId != null ? attemptId : 0;
+            this.questionCount = questionCount;
+            this.resultId = saved.getId() != null ? saved.getId() : 0;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Map;
+
+/**
+ * Computing quiz statistics: overall, for one student, or a live statistics snapshot
+ */
+@Name("com.example.StatisticsComputed")
+@Label("Statistics Computed")
+@Category({"Quiz App", "Quiz Flow"})
+@Description("Computing quiz statistics: overall, for one student, or a live statistics snapshot")
+@StackTrace(false)
+public class StatisticsComputedEvent extends Event {
+
+    @Label("Scope")
+    public String scope;
+
+    @Label("Attempts")
+    public long attempts;
+
+    /**
+     * Commit the event for statistics of the given scope, taking the attempt count from their totalAttempts
+     */
+    public void record(String scope, Map<String, Object> stats) {
+        if (shouldCommit()) {
+            this.scope = scope;
+            this.attempts = ((Number) stats.get("totalAttempts")).longValue();
+            commit();
+        }
+    }
+}
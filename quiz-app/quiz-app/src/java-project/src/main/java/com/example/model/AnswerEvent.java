@@ -0,0 +1,69 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One submitted answer, appended to the answer_events table.
+ *
+ * The table is insert-only and carries no secondary indexes: rows are appended in id order
+ * by AnswerEventRecorder and read back by scanning, so every insert only touches the end
+ * of the primary key.
+ */
+@Entity
+@Table(name = "answer_events")
+public class AnswerEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private long attemptId;
+
+    @Column(nullable = false)
+    private long questionId;
+
+    @Column(nullable = false)
+    private byte choice; // QuizAttempt answer code: 0 = none, 1-4 = A-D
+
+    @Column(nullable = false)
+    private boolean correct;
+
+    @Column(nullable = false)
+    private int elapsedMs; // since the attempt started
+
+    // Default constructor
+    public AnswerEvent() {}
+
+    public AnswerEvent(long attemptId, long questionId, byte choice, boolean correct, int elapsedMs) {
+        this.attemptId = attemptId;
+        this.questionId = questionId;
+        this.choice = choice;
+        this.correct = correct;
+        this.elapsedMs = elapsedMs;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getAttemptId() {
+        return attemptId;
+    }
+
+    public long getQuestionId() {
+        return questionId;
+    }
+
+    public byte getChoice() {
+        return choice;
+    }
+
+    public boolean isCorrect() {
+        return correct;
+    }
+
+    public int getElapsedMs() {
+        return elapsedMs;
+    }
+}
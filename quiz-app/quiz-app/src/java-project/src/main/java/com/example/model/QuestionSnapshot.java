@@ -0,0 +1,124 @@
+package com.example.model;
+
+/**
+ * Immutable copy of a question, safe to share between requests through the question cache.
+ * Unlike the Question entity it cannot be modified or lazily reattached to a persistence context.
+ */
+public final class QuestionSnapshot {
+
+    private final Long id;
+
+    private final String questionText;
+
+    private final String optionA;
+
+    private final String optionB;
+
+    private final String optionC;
+
+    private final String optionD;
+
+    private final String correctAnswer;
+
+    private final byte correctAnswerCode; // QuizAttempt answer code, for packed grading
+
+    private final String category;
+
+    private final String difficulty;
+
+    private final String explanation;
+
+    private final long version; // fingerprint of the content, changes whenever the question is edited
+
+    private QuestionSnapshot(Question question) {
+        this.id = question.getId();
+        this.questionText = question.getQuestionText();
+        this.optionA = question.getOptionA();
+        this.optionB = question.getOptionB();
+        this.optionC = question.getOptionC();
+        this.optionD = question.getOptionD();
+        this.correctAnswer = question.getCorrectAnswer();
+        this.correctAnswerCode = QuizAttempt.encodeAnswer(question.getCorrectAnswer());
+        this.category = question.getCategory();
+        this.difficulty = question.getDifficulty();
+        this.explanation = question.getExplanation();
+        this.version = fingerprint(questionText, optionA, optionB, optionC, optionD, correctAnswer,
+                                   category, difficulty, explanation);
+    }
+
+    public static QuestionSnapshot of(Question question) {
+        return new QuestionSnapshot(question);
+    }
+
+    /**
+     * Whether the given option letter is the correct answer (case-insensitive)
+     */
+    public boolean isCorrect(String answer) {
+        return answer != null && answer.equalsIgnoreCase(correctAnswer);
+    }
+
+    /**
+     * Content version of the question, for caches of anything derived from it (e.g. rendered pages)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getQuestionText() {
+        return questionText;
+    }
+
+    public String getOptionA() {
+        return optionA;
+    }
+
+    public String getOptionB() {
+        return optionB;
+    }
+
+    public String getOptionC() {
+        return optionC;
+    }
+
+    public String getOptionD() {
+        return optionD;
+    }
+
+    public String getCorrectAnswer() {
+        return correctAnswer;
+    }
+
+    public byte getCorrectAnswerCode() {
+        return correctAnswerCode;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public String getExplanation() {
+        return explanation;
+    }
+
+    // 64-bit FNV-1a over the fields, with a separator so that ("ab", "c") and ("a", "bc") differ
+    private static long fingerprint(String... fields) {
+        long hash = 0xcbf29ce484222325L;
+        for (String field : fields) {
+            if (field != null) {
+                for (int i = 0; i < field.length(); i++) {
+                    hash = (hash ^ field.charAt(i)) * 0x100000001b3L;
+                }
+            }
+            hash = (hash ^ (field == null ? 0x1F : 0x1E)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
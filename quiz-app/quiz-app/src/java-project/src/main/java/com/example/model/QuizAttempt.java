@@ -0,0 +1,163 @@
+package com.example.model;
+
+import java.io.Serializable;
+
+/**
+ * Compact state of an in-progress quiz attempt, kept in the HTTP session.
+ * Holds only question ids and one byte per answer; the questions themselves
+ * are resolved from the shared question catalog when needed.
+ */
+public class QuizAttempt implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    /** Answer code for a question that has not been answered */
+    public static final byte NO_ANSWER = 0;
+
+    private final long attemptId;
+
+    private final String studentName;
+
+    private final String studentEmail;
+
+    private final String category;
+
+    private final long[] questionIds;
+
+    private final byte[] answers; // 0 = unanswered, 1..4 = A..D
+
+    private int currentIndex;
+
+    private final long startTime;
+
+    private final long deadline; // epoch millis, 0 = no deadline
+
+    public QuizAttempt(long attemptId, String studentName, String studentEmail, String category,
+                       long[] questionIds, long startTime, long deadline) {
+        this(attemptId, studentName, studentEmail, category, questionIds, new byte[questionIds.length],
+             0, startTime, deadline);
+    }
+
+    public QuizAttempt(long attemptId, String studentName, String studentEmail, String category,
+                       long[] questionIds, byte[] answers, int currentIndex, long startTime, long deadline) {
+        this.attemptId = attemptId;
+        this.studentName = studentName;
+        this.studentEmail = studentEmail;
+        this.category = category;
+        this.questionIds = questionIds;
+        this.answers = answers;
+        this.currentIndex = currentIndex;
+        this.startTime = startTime;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Encode an answer letter (A-D, any case) as a byte code; anything else is "no answer"
+     */
+    public static byte encodeAnswer(String answer) {
+        if (answer == null || answer.length() != 1) {
+            return NO_ANSWER;
+        }
+        char choice = Character.toUpperCase(answer.charAt(0));
+        return (choice >= 'A' && choice <= 'D') ? (byte) (choice - 'A' + 1) : NO_ANSWER;
+    }
+
+    /**
+     * Decode a byte code back to its answer letter, or null when unanswered
+     */
+    public static String decodeAnswer(byte code) {
+        return (code >= 1 && code <= 4) ? String.valueOf((char) ('A' + code - 1)) : null;
+    }
+
+    /**
+     * Record the answer for a question of this attempt. Unknown question ids are ignored.
+     */
+    public void recordAnswer(long questionId, String answer) {
+        int position = indexOf(questionId);
+        if (position >= 0) {
+            answers[position] = encodeAnswer(answer);
+        }
+    }
+
+    /**
+     * Position of a question in this attempt, checking the current question first
+     */
+    public int indexOf(long questionId) {
+        if (currentIndex < questionIds.length && questionIds[currentIndex] == questionId) {
+            return currentIndex;
+        }
+        for (int i = 0; i < questionIds.length; i++) {
+            if (questionIds[i] == questionId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Answer letter given for the question at a position, or null when unanswered
+     */
+    public String getAnswer(int index) {
+        return decodeAnswer(answers[index]);
+    }
+
+    public void advance() {
+        currentIndex++;
+    }
+
+    /**
+     * Whether the deadline of this attempt has passed
+     */
+    public boolean isExpired(long now) {
+        return deadline > 0 && now > deadline;
+    }
+
+    public boolean isComplete() {
+        return currentIndex >= questionIds.length;
+    }
+
+    public int getTotalQuestions() {
+        return questionIds.length;
+    }
+
+    public long getCurrentQuestionId() {
+        return questionIds[currentIndex];
+    }
+
+    // Getters
+    public long getAttemptId() {
+        return attemptId;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public String getStudentEmail() {
+        return studentEmail;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public long[] getQuestionIds() {
+        return questionIds;
+    }
+
+    public byte[] getAnswers() {
+        return answers;
+    }
+
+    public int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+}
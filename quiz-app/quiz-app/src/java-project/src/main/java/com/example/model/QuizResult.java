@@ -7,11 +7,20 @@ import java.time.LocalDateTime;
  * Entity class representing a quiz result/attempt for Computer Science Engineering students
  */
 @Entity
-@Table(name = "quiz_results")
+@Table(name = "quiz_results", indexes = {
+    @Index(name = "idx_quiz_results_score", columnList = "score"),
+    @Index(name = "idx_quiz_results_attempt_date", columnList = "attemptDate"),
+    @Index(name = "idx_quiz_results_category_score", columnList = "category, score"),
+    @Index(name = "idx_quiz_results_student_email", columnList = "studentEmail")
+})
 public class QuizResult {
     
+    /** Ids are drawn from a pooled sequence so inserts can be JDBC-batched (see ResultIdAllocator) */
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_results_seq")
+    @SequenceGenerator(name = "quiz_results_seq", sequenceName = "quiz_results_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @Column(nullable = false)
@@ -44,6 +53,17 @@ public class QuizResult {
     @Column(length = 1000)
     private String feedback; // Performance feedback
     
+    // Questions and answers of the attempt, encoded by AnswerSheetCodec; null for older results
+    @Column(length = 10000)
+    private byte[] questionIds;
+    
+    @Column(length = 500)
+    private byte[] answerCodes;
+    
+    // QuizAttempt id, joining the result to its answer_events rows; null for legacy submissions
+    @Column
+    private Long attemptId;
+    
     // Default constructor
     public QuizResult() {
         this.attemptDate = LocalDateTime.now();
@@ -154,6 +174,30 @@ public class QuizResult {
         this.feedback = feedback;
     }
     
+    public byte[] getQuestionIds() {
+        return questionIds;
+    }
+    
+    public void setQuestionIds(byte[] questionIds) {
+        this.questionIds = questionIds;
+    }
+    
+    public byte[] getAnswerCodes() {
+        return answerCodes;
+    }
+    
+    public void setAnswerCodes(byte[] answerCodes) {
+        this.answerCodes = answerCodes;
+    }
+    
+    public Long getAttemptId() {
+        return attemptId;
+    }
+    
+    public void setAttemptId(Long attemptId) {
+        this.attemptId = attemptId;
+    }
+    
     /**
      * Calculate and return grade based on score
      */
@@ -0,0 +1,106 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An exam that starts at a known time for a known number of students.
+ * Its question decks are generated shortly before the start, see ScheduledExamService.
+ */
+@Entity
+@Table(name = "scheduled_exams")
+public class ScheduledExam {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column
+    private String category; // "All" or null = every category
+
+    @Column
+    private String difficulty; // "All" or null = every difficulty
+
+    @Column(nullable = false)
+    private int questionCount;
+
+    @Column(nullable = false)
+    private int rosterSize; // number of students expected to sit the exam
+
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    // Default constructor
+    public ScheduledExam() {}
+
+    public ScheduledExam(String title, String category, String difficulty, int questionCount,
+                         int rosterSize, LocalDateTime startTime) {
+        this.title = title;
+        this.category = category;
+        this.difficulty = difficulty;
+        this.questionCount = questionCount;
+        this.rosterSize = rosterSize;
+        this.startTime = startTime;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    public void setQuestionCount(int questionCount) {
+        this.questionCount = questionCount;
+    }
+
+    public int getRosterSize() {
+        return rosterSize;
+    }
+
+    public void setRosterSize(int rosterSize) {
+        this.rosterSize = rosterSize;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running performance summary of one student, maintained as results are written.
+ * Remembers which result ids it has counted, since results are not necessarily written in id order.
+ * Not thread-safe; the owning cache guards access.
+ */
+public class StudentSummary {
+
+    private long attemptCount;
+
+    private double scoreSum;
+
+    private double bestScore;
+
+    private LocalDateTime latestAttempt;
+
+    private long[] rebuiltIds = new long[0]; // sorted ids of the results the rebuild counted
+
+    private final Set<Long> appliedIds = new HashSet<>(); // ids counted one by one since
+
+    private final Map<String, CategorySummary> categories = new LinkedHashMap<>();
+
+    /**
+     * Count a result, unless it is already included
+     */
+    public void apply(QuizResult result) {
+        Long id = result.getId();
+        if (id != null && (Arrays.binarySearch(rebuiltIds, id) >= 0 || !appliedIds.add(id))) {
+            return;
+        }
+        add(result.getCategory(), 1, result.getScore(), result.getScore(), result.getAttemptDate());
+    }
+
+    /**
+     * Merge pre-aggregated values (one category of a rebuild query)
+     */
+    public void add(String category, long attempts, double scoreSum, double bestScore, LocalDateTime latestAttempt) {
+        this.bestScore = this.attemptCount == 0 ? bestScore : Math.max(this.bestScore, bestScore);
+        this.attemptCount += attempts;
+        this.scoreSum += scoreSum;
+        if (latestAttempt != null && (this.latestAttempt == null || latestAttempt.isAfter(this.latestAttempt))) {
+            this.latestAttempt = latestAttempt;
+        }
+        categories.computeIfAbsent(category == null ? "Unknown" : category, c -> new CategorySummary())
+                  .add(attempts, scoreSum, bestScore);
+    }
+
+    /**
+     * Ids of the results the rebuild queries counted, so their save events are not counted again
+     */
+    public void setRebuiltIds(long[] ids) {
+        rebuiltIds = ids.clone();
+        Arrays.sort(rebuiltIds);
+    }
+
+    public long getAttemptCount() {
+        return attemptCount;
+    }
+
+    public double getAverageScore() {
+        return attemptCount == 0 ? 0.0 : scoreSum / attemptCount;
+    }
+
+    public double getBestScore() {
+        return bestScore;
+    }
+
+    public LocalDateTime getLatestAttempt() {
+        return latestAttempt;
+    }
+
+    public Map<String, CategorySummary> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Attempts, average and best score within one category
+     */
+    public static class CategorySummary {
+
+        private long attempts;
+
+        private double scoreSum;
+
+        private double bestScore;
+
+        /**
+         * Detached copy for handing out of the cache
+         */
+        public CategorySummary copy() {
+            CategorySummary copy = new CategorySummary();
+            copy.add(attempts, scoreSum, bestScore);
+            return copy;
+        }
+
+        void add(long attempts, double scoreSum, double bestScore) {
+            this.bestScore = this.attempts == 0 ? bestScore : Math.max(this.bestScore, bestScore);
+            this.attempts += attempts;
+            this.scoreSum += scoreSum;
+        }
+
+        public long getAttempts() {
+            return attempts;
+        }
+
+        public double getAverageScore() {
+            return attempts == 0 ? 0.0 : scoreSum / attempts;
+        }
+
+        public double getBestScore() {
+            return bestScore;
+        }
+    }
+}
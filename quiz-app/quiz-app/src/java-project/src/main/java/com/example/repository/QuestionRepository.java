@@ -65,6 +65,18 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     @Query("SELECT DISTINCT q.difficulty FROM Question q")
     List<String> findAllDifficulties();
     
+    /**
+     * Get id, category and difficulty of every question (used to build the in-memory index)
+     */
+    @Query("SELECT q.id, q.category, q.difficulty FROM Question q")
+    List<Object[]> findIndexEntries();
+    
+    /**
+     * Stored correct answer of a question, read from the table rather than the persistence context
+     */
+    @Query("SELECT q.correctAnswer FROM Question q WHERE q.id = :id")
+    String findCorrectAnswerById(@Param("id") Long id);
+    
     /**
      * Count questions by category
      */
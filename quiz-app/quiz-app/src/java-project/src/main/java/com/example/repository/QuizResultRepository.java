@@ -1,6 +1,7 @@
 package com.example.repository;
 
 import com.example.model.QuizResult;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -42,12 +43,36 @@ public interface QuizResultRepository extends JpaRepository<QuizResult, Long> {
     @Query("SELECT qr FROM QuizResult qr ORDER BY qr.score DESC")
     List<QuizResult> findTopScores();
     
+    /**
+     * Find top scores, limited by the page size (uses the score index)
+     */
+    @Query("SELECT qr FROM QuizResult qr ORDER BY qr.score DESC, qr.attemptDate ASC, qr.id ASC")
+    List<QuizResult> findTopScores(Pageable pageable);
+    
+    /**
+     * Find top scores in a category, limited by the page size
+     */
+    @Query("SELECT qr FROM QuizResult qr WHERE qr.category = :category ORDER BY qr.score DESC, qr.attemptDate ASC, qr.id ASC")
+    List<QuizResult> findTopScoresByCategory(@Param("category") String category, Pageable pageable);
+    
     /**
      * Find recent attempts (last N attempts)
      */
     @Query("SELECT qr FROM QuizResult qr ORDER BY qr.attemptDate DESC")
     List<QuizResult> findRecentAttempts();
     
+    /**
+     * Find recent attempts, limited by the page size (uses the attempt date index)
+     */
+    @Query("SELECT qr FROM QuizResult qr ORDER BY qr.attemptDate DESC, qr.id DESC")
+    List<QuizResult> findRecentAttempts(Pageable pageable);
+    
+    /**
+     * Get all distinct categories that have results
+     */
+    @Query("SELECT DISTINCT qr.category FROM QuizResult qr WHERE qr.category IS NOT NULL")
+    List<String> findAllCategories();
+    
     /**
      * Get average score for all attempts
      */
@@ -89,6 +114,25 @@ public interface QuizResultRepository extends JpaRepository<QuizResult, Long> {
     @Query("SELECT MAX(qr.score) FROM QuizResult qr WHERE qr.studentEmail = :studentEmail")
     Double getBestScoreByStudent(@Param("studentEmail") String studentEmail);
     
+    /**
+     * Per-category aggregates of one student's results:
+     * category, attempts, score sum, best score, latest attempt date
+     */
+    @Query("SELECT qr.category, COUNT(qr), SUM(qr.score), MAX(qr.score), MAX(qr.attemptDate) " +
+           "FROM QuizResult qr WHERE qr.studentEmail = :studentEmail GROUP BY qr.category")
+    List<Object[]> getSummaryByStudent(@Param("studentEmail") String studentEmail);
+    
+    /**
+     * Ids of one student's results (served from the student email index)
+     */
+    @Query("SELECT qr.id FROM QuizResult qr WHERE qr.studentEmail = :studentEmail")
+    List<Long> findIdsByStudentEmail(@Param("studentEmail") String studentEmail);
+    
+    /**
+     * One student's most recent results, newest first, limited by the page size
+     */
+    List<QuizResult> findByStudentEmailOrderByAttemptDateDescIdDesc(String studentEmail, Pageable pageable);
+    
     /**
      * Find all distinct student emails (for statistics)
      */
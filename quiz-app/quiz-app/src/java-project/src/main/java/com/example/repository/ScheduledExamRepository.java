@@ -0,0 +1,25 @@
+package com.example.repository;
+
+import com.example.model.ScheduledExam;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for ScheduledExam entity
+ */
+@Repository
+public interface ScheduledExamRepository extends JpaRepository<ScheduledExam, Long> {
+
+    /**
+     * Find exams starting in a time range, earliest first
+     */
+    List<ScheduledExam> findByStartTimeBetweenOrderByStartTime(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Find exams starting after a point in time, earliest first
+     */
+    List<ScheduledExam> findByStartTimeAfterOrderByStartTime(LocalDateTime after);
+}
@@ -0,0 +1,182 @@
+package com.example.service;
+
+import com.example.model.AnswerEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Captures every submitted answer as an AnswerEvent and appends it to the answer_events table
+ * off the request thread.
+ *
+ * record() only offers the event to a bounded queue and never blocks: when the queue is full
+ * the event is dropped and counted, so answering a question never waits on the database.
+ * A writer thread drains the queue into JDBC batches of quiz.answer-events.batch-size rows.
+ * The queue is flushed on shutdown.
+ */
+@Component
+public class AnswerEventRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(AnswerEventRecorder.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO answer_events (attempt_id, question_id, choice, correct, elapsed_ms) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${quiz.answer-events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quiz.answer-events.queue-capacity:100000}")
+    private int queueCapacity;
+
+    @Value("${quiz.answer-events.batch-size:500}")
+    private int batchSize;
+
+    private BlockingQueue<AnswerEvent> queue;
+
+    private Thread writerThread;
+
+    private volatile boolean running;
+
+    private final LongAdder recorded = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder written = new LongAdder();
+
+    // Accepted but not yet written (or given up on)
+    private final AtomicLong pending = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writerThread = new Thread(this::drainLoop, "answer-event-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Capture one answer. Never blocks; the event is dropped if the pipeline is saturated.
+     */
+    public void record(long attemptId, long questionId, byte choice, boolean correct, long elapsedMs) {
+        if (!running) {
+            return;
+        }
+        AnswerEvent event = new AnswerEvent(attemptId, questionId, choice, correct,
+                                            (int) Math.min(Integer.MAX_VALUE, Math.max(0, elapsedMs)));
+        pending.incrementAndGet();
+        if (queue.offer(event)) {
+            recorded.increment();
+        } else {
+            pending.decrementAndGet();
+            dropped.increment();
+        }
+    }
+
+    public long getRecordedCount() {
+        return recorded.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Block until every accepted event has been written (used by tests and benchmarks)
+     */
+    public void awaitFlushed() throws InterruptedException {
+        while (pending.get() > 0) {
+            Thread.sleep(5);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        List<AnswerEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            write(remaining.subList(from, Math.min(remaining.size(), from + batchSize)));
+        }
+    }
+
+    private void drainLoop() {
+        List<AnswerEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AnswerEvent first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AnswerEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    AnswerEvent event = batch.get(i);
+                    ps.setLong(1, event.getAttemptId());
+                    ps.setLong(2, event.getQuestionId());
+                    ps.setByte(3, event.getChoice());
+                    ps.setBoolean(4, event.isCorrect());
+                    ps.setInt(5, event.getElapsedMs());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            // Answer events are analytics data; losing a batch must not stop the pipeline
+            log.error("Dropping {} answer events that could not be written", batch.size(), e);
+            dropped.add(batch.size());
+        } finally {
+            pending.addAndGet(-batch.size());
+        }
+    }
+}
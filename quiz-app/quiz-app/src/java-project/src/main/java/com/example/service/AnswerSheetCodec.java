@@ -0,0 +1,72 @@
+package com.example.service;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Compact binary form of the questions and answers that made up a stored quiz result.
+ *
+ * Question ids are written as zigzag varints of the difference to the previous id, so ids
+ * from the same bank take one to three bytes each. Answer codes (0 = none, 1-4 = A-D, as in
+ * QuizAttempt) are packed two per byte. A 20-question attempt takes well under 100 bytes.
+ */
+public final class AnswerSheetCodec {
+
+    private AnswerSheetCodec() {}
+
+    public static byte[] encodeQuestionIds(long[] ids) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(ids.length * 2);
+        long previous = 0;
+        for (long id : ids) {
+            long delta = id - previous;
+            long value = (delta << 1) ^ (delta >> 63); // zigzag
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+            previous = id;
+        }
+        return out.toByteArray();
+    }
+
+    public static long[] decodeQuestionIds(byte[] encoded) {
+        int count = 0;
+        for (byte b : encoded) {
+            if ((b & 0x80) == 0) {
+                count++;
+            }
+        }
+        long[] ids = new long[count];
+        long previous = 0;
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = encoded[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            previous += (value >>> 1) ^ -(value & 1);
+            ids[i] = previous;
+        }
+        return ids;
+    }
+
+    public static byte[] packAnswers(byte[] codes) {
+        byte[] packed = new byte[(codes.length + 1) / 2];
+        for (int i = 0; i < codes.length; i++) {
+            packed[i >>> 1] |= (byte) ((codes[i] & 0x0F) << ((i & 1) << 2));
+        }
+        return packed;
+    }
+
+    public static byte[] unpackAnswers(byte[] packed, int count) {
+        byte[] codes = new byte[count];
+        for (int i = 0; i < count && (i >>> 1) < packed.length; i++) {
+            codes[i] = (byte) ((packed[i >>> 1] >>> ((i & 1) << 2)) & 0x0F);
+        }
+        return codes;
+    }
+}
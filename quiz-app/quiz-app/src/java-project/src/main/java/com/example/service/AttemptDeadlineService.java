@@ -0,0 +1,243 @@
+package com.example.service;
+
+import com.example.model.QuizAttempt;
+import com.example.model.QuizResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Server-side time limit of quiz attempts.
+ *
+ * Every started attempt gets a timer on a hashed timing wheel (O(1) per timer, one thread for all of
+ * them) and a server-side copy of its answers, kept in step by recordAnswer. When the deadline plus
+ * quiz.deadlines.grace-ms passes before the student submits, the copy is graded and saved with the
+ * answers given so far; a later manual submit receives that result instead of grading twice.
+ * Timers live in memory only: attempts of a node that restarts are not auto-submitted.
+ *
+ * In token mode (quiz.state.mode=token) auto-submission is off. The attempt lives in the client's
+ * token, so any node may take the manual submit while the timer and the answer copy sit on the node
+ * that started it, and both would save a result. The time limit is still enforced by isTimeUp, which
+ * needs only the deadline in the token, but an abandoned attempt is never graded.
+ */
+@Service
+public class AttemptDeadlineService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptDeadlineService.class);
+
+    @Value("${quiz.deadlines.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quiz.state.mode:session}")
+    private String stateMode;
+
+    @Value("${quiz.deadlines.grace-ms:2000}")
+    private long graceMs;
+
+    @Value("${quiz.deadlines.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${quiz.deadlines.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${quiz.deadlines.submit-threads:2}")
+    private int submitThreads;
+
+    @Value("${quiz.deadlines.result-retention-minutes:60}")
+    private long resultRetentionMinutes;
+
+    private final Map<Long, TimedAttempt> attempts = new ConcurrentHashMap<>();
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicLong autoSubmitted = new AtomicLong();
+
+    private HashedTimingWheel wheel;
+
+    private ExecutorService submitExecutor;
+
+    private volatile Function<QuizAttempt, QuizResult> submitter;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if ("token".equals(stateMode)) {
+            log.info("Attempts are not auto-submitted at their deadline in token mode");
+            return;
+        }
+        wheel = new HashedTimingWheel("attempt-deadline-wheel", tickMs, TimeUnit.MILLISECONDS, wheelSize);
+        AtomicInteger threadNumber = new AtomicInteger();
+        submitExecutor = Executors.newFixedThreadPool(Math.max(1, submitThreads), task -> {
+            Thread thread = new Thread(task, "attempt-deadline-submit-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        if (wheel != null) {
+            wheel.close();
+            submitExecutor.shutdown();
+        }
+    }
+
+    /**
+     * How an expired attempt is graded and saved (set once by QuizService)
+     */
+    void setSubmitter(Function<QuizAttempt, QuizResult> submitter) {
+        this.submitter = submitter;
+    }
+
+    /**
+     * Start the clock of a new attempt. Attempts without a deadline are not tracked.
+     */
+    public void register(QuizAttempt attempt) {
+        if (wheel == null || attempt.getDeadline() == 0) {
+            return;
+        }
+        // Own copy of the answers: the caller's attempt may live in a session or a client token
+        QuizAttempt copy = new QuizAttempt(attempt.getAttemptId(), attempt.getStudentName(),
+                                           attempt.getStudentEmail(), attempt.getCategory(),
+                                           attempt.getQuestionIds(), attempt.getAnswers().clone(),
+                                           attempt.getCurrentIndex(), attempt.getStartTime(), attempt.getDeadline());
+        TimedAttempt timed = new TimedAttempt(copy);
+        attempts.put(attempt.getAttemptId(), timed);
+        pending.incrementAndGet();
+        long delayMs = attempt.getDeadline() + graceMs - System.currentTimeMillis();
+        synchronized (timed) {
+            timed.timeout = wheel.schedule(() -> expire(timed), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Whether the attempt's time (including the grace period) is up
+     */
+    public boolean isTimeUp(QuizAttempt attempt, long now) {
+        return attempt.isExpired(now - graceMs);
+    }
+
+    /**
+     * Keep the server-side copy of an attempt's answers in step. Ignored once the deadline has fired.
+     */
+    public void recordAnswer(long attemptId, long questionId, String answer) {
+        TimedAttempt timed = attempts.get(attemptId);
+        if (timed != null) {
+            synchronized (timed) {
+                if (timed.submission == null) {
+                    timed.attempt.recordAnswer(questionId, answer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop the clock because the student submits. Returns null if the caller should grade the attempt,
+     * or the pending or finished auto-submission if the deadline already fired.
+     */
+    public CompletableFuture<QuizResult> complete(long attemptId) {
+        TimedAttempt timed = attempts.get(attemptId);
+        if (timed == null) {
+            return null;
+        }
+        synchronized (timed) {
+            if (timed.submission == null) {
+                timed.timeout.cancel();
+                attempts.remove(attemptId);
+                pending.decrementAndGet();
+                return null;
+            }
+            return timed.submission;
+        }
+    }
+
+    /**
+     * Whether started attempts are timed here; false when deadlines are disabled and in token mode
+     */
+    public boolean isTracking() {
+        return wheel != null;
+    }
+
+    /**
+     * Attempts whose deadline has not fired yet; always 0 when not tracking
+     */
+    public long getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Attempts submitted by their deadline since startup
+     */
+    public long getAutoSubmittedCount() {
+        return autoSubmitted.get();
+    }
+
+    /**
+     * Runs on the wheel thread: mark the attempt as submitted and grade it on the submit executor
+     */
+    private void expire(TimedAttempt timed) {
+        CompletableFuture<QuizResult> submission = new CompletableFuture<>();
+        synchronized (timed) {
+            if (timed.submission != null || attempts.get(timed.attempt.getAttemptId()) != timed) {
+                return;
+            }
+            timed.submission = submission;
+        }
+        pending.decrementAndGet();
+        submitExecutor.execute(() -> {
+            try {
+                submission.complete(submitter.apply(timed.attempt));
+                autoSubmitted.incrementAndGet();
+            } catch (RuntimeException e) {
+                log.error("Auto-submitting attempt {} failed", timed.attempt.getAttemptId(), e);
+                submission.completeExceptionally(e);
+            }
+            forgetLater(timed);
+        });
+    }
+
+    /**
+     * Keep the outcome of an auto-submission around for a late manual submit, then drop the attempt
+     */
+    private void forgetLater(TimedAttempt timed) {
+        Runnable forget = () -> attempts.remove(timed.attempt.getAttemptId(), timed);
+        try {
+            wheel.schedule(forget, resultRetentionMinutes, TimeUnit.MINUTES);
+        } catch (IllegalStateException e) {
+            forget.run(); // shutting down
+        }
+    }
+
+    /**
+     * Server-side copy of an attempt and the state of its timer
+     */
+    private static final class TimedAttempt {
+
+        private final QuizAttempt attempt;
+
+        // Guarded by this
+        private HashedTimingWheel.Timeout timeout;
+
+        // Set when the deadline fires; guarded by this
+        private CompletableFuture<QuizResult> submission;
+
+        TimedAttempt(QuizAttempt attempt) {
+            this.attempt = attempt;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable facet counts of the question bank: totals per category, per difficulty and per
+ * category and difficulty pair. Built by QuestionIndex whenever the bank changes and swapped
+ * in as a whole, so readers always see one consistent version without touching the database.
+ * Questions without a category or difficulty only count towards the total.
+ */
+public final class CatalogMetadata {
+
+    static final CatalogMetadata EMPTY = new CatalogMetadata(0, System.currentTimeMillis(), 0, new TreeMap<>());
+
+    private final long version;
+
+    private final long builtAt;
+
+    private final long total;
+
+    private final List<String> categories;
+
+    private final List<String> difficulties;
+
+    private final Map<String, Long> categoryCounts;
+
+    private final Map<String, Long> difficultyCounts;
+
+    private final Map<String, Map<String, Long>> pairCounts;
+
+    /**
+     * @param pairCounts category -> difficulty -> count, without null keys
+     */
+    CatalogMetadata(long version, long builtAt, long total, Map<String, Map<String, Long>> pairCounts) {
+        Map<String, Long> byCategory = new TreeMap<>();
+        Map<String, Long> byDifficulty = new TreeMap<>();
+        Map<String, Map<String, Long>> pairs = new TreeMap<>();
+        for (Map.Entry<String, Map<String, Long>> category : pairCounts.entrySet()) {
+            pairs.put(category.getKey(), Collections.unmodifiableMap(new TreeMap<>(category.getValue())));
+            for (Map.Entry<String, Long> difficulty : category.getValue().entrySet()) {
+                byCategory.merge(category.getKey(), difficulty.getValue(), Long::sum);
+                byDifficulty.merge(difficulty.getKey(), difficulty.getValue(), Long::sum);
+            }
+        }
+        this.version = version;
+        this.builtAt = builtAt;
+        this.total = total;
+        this.categoryCounts = Collections.unmodifiableMap(byCategory);
+        this.difficultyCounts = Collections.unmodifiableMap(byDifficulty);
+        this.pairCounts = Collections.unmodifiableMap(pairs);
+        this.categories = List.copyOf(byCategory.keySet());
+        this.difficulties = List.copyOf(byDifficulty.keySet());
+    }
+
+    /** Increases with every rebuild of the metadata */
+    public long getVersion() {
+        return version;
+    }
+
+    /** When this version was built, in epoch milliseconds */
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /** Category names in alphabetical order */
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    /** Difficulty names in alphabetical order */
+    public List<String> getDifficulties() {
+        return difficulties;
+    }
+
+    public long getCategoryCount(String category) {
+        return categoryCounts.getOrDefault(category, 0L);
+    }
+
+    public long getDifficultyCount(String difficulty) {
+        return difficultyCounts.getOrDefault(difficulty, 0L);
+    }
+
+    /**
+     * Number of questions matching both filters; a null filter matches every value
+     */
+    public long count(String category, String difficulty) {
+        if (category == null) {
+            return difficulty == null ? total : getDifficultyCount(difficulty);
+        }
+        if (difficulty == null) {
+            return getCategoryCount(category);
+        }
+        return pairCounts.getOrDefault(category, Map.of()).getOrDefault(difficulty, 0L);
+    }
+
+    /** category -> difficulty -> count */
+    public Map<String, Map<String, Long>> getPairCounts() {
+        return pairCounts;
+    }
+}
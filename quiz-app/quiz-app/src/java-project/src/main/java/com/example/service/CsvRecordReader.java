@@ -0,0 +1,130 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double-quoted fields that may contain
+ * commas, line breaks and doubled quotes. Reads one record at a time from a buffer,
+ * so memory use does not depend on the size of the file.
+ */
+class CsvRecordReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private long lineNumber = 1;
+
+    private long recordLine;
+
+    private final StringBuilder field = new StringBuilder();
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Next record, or null at end of input. Blank lines are skipped.
+     */
+    String[] next() throws IOException {
+        List<String> fields = new ArrayList<>(12);
+        boolean quoted = false;
+        boolean any = false;
+        recordLine = lineNumber;
+        field.setLength(0);
+
+        int c;
+        while ((c = read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    quoted = true;
+                    any = true;
+                }
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    any = true;
+                }
+                case '\r' -> {
+                    // part of CRLF; a bare CR is ignored as well
+                }
+                case '\n' -> {
+                    lineNumber++;
+                    if (any || field.length() > 0) {
+                        fields.add(field.toString());
+                        return fields.toArray(new String[0]);
+                    }
+                    recordLine = lineNumber; // blank line
+                }
+                default -> {
+                    field.append((char) c);
+                    any = true;
+                }
+            }
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field starting on line " + recordLine);
+        }
+        if (any || field.length() > 0) {
+            fields.add(field.toString());
+            return fields.toArray(new String[0]);
+        }
+        return null;
+    }
+
+    /**
+     * Line on which the last returned record started (1-based)
+     */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
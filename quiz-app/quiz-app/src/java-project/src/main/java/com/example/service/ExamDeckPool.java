@@ -0,0 +1,72 @@
+package com.example.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-generated question decks of one scheduled exam, stored back to back in a single long[]
+ * (deck i occupies [i * deckSize, (i + 1) * deckSize)). Claiming a deck is one atomic increment.
+ */
+final class ExamDeckPool {
+
+    private final long[] questionIds;
+
+    private final int deckSize;
+
+    private final int decks;
+
+    private final int distinctQuestions;
+
+    private final long generatedAt;
+
+    private final long generationMs;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    ExamDeckPool(long[] questionIds, int deckSize, int distinctQuestions, long generatedAt, long generationMs) {
+        this.questionIds = questionIds;
+        this.deckSize = deckSize;
+        this.decks = questionIds.length / deckSize;
+        this.distinctQuestions = distinctQuestions;
+        this.generatedAt = generatedAt;
+        this.generationMs = generationMs;
+    }
+
+    /**
+     * Hand out the next unclaimed deck, or null once every deck has been claimed
+     */
+    long[] claim() {
+        if (next.get() >= decks) {
+            return null; // keeps the counter from growing once the pool is exhausted
+        }
+        int deck = next.getAndIncrement();
+        if (deck >= decks) {
+            return null;
+        }
+        return Arrays.copyOfRange(questionIds, deck * deckSize, (deck + 1) * deckSize);
+    }
+
+    int getDecks() {
+        return decks;
+    }
+
+    int getClaimed() {
+        return Math.min(next.get(), decks);
+    }
+
+    int getDeckSize() {
+        return deckSize;
+    }
+
+    int getDistinctQuestions() {
+        return distinctQuestions;
+    }
+
+    long getGeneratedAt() {
+        return generatedAt;
+    }
+
+    long getGenerationMs() {
+        return generationMs;
+    }
+}
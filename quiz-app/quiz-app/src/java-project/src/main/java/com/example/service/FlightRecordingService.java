@@ -0,0 +1,139 @@
+package com.example.service;
+
+import com.example.dto.FlightRecordingStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.management.jfr.FlightRecorderMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a continuous Java Flight Recorder recording (the JDK's low-overhead "default" settings
+ * plus the com.example quiz flow events) in a disk-backed ring of quiz.jfr.max-age-minutes, and
+ * dumps the last few minutes of it on demand. A dump clones the recording, so the continuous
+ * recording never stops. Off unless quiz.jfr.enabled=true (the prod profile turns it on).
+ * Events that capture system properties and environment variables are left out, since those
+ * can carry credentials.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    private static final String RECORDING_NAME = "quiz-continuous";
+
+    private static final List<String> EXCLUDED_EVENTS = List.of("jdk.InitialSystemProperty",
+                                                                "jdk.InitialEnvironmentVariable");
+
+    @Value("${quiz.jfr.enabled:false}")
+    private boolean enabled;
+
+    @Value("${quiz.jfr.settings:default}")
+    private String settings;
+
+    @Value("${quiz.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${quiz.jfr.max-size-mb:250}")
+    private long maxSizeMb;
+
+    private FlightRecorderMXBean flightRecorder;
+
+    private long recordingId;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            FlightRecorderMXBean bean = ManagementFactory.getPlatformMXBean(FlightRecorderMXBean.class);
+            recordingId = bean.newRecording();
+            bean.setRecordingSettings(recordingId, recordingSettings());
+            bean.setRecordingOptions(recordingId, Map.of(
+                    "name", RECORDING_NAME,
+                    "disk", "true",
+                    "maxAge", maxAgeMinutes + " m",
+                    "maxSize", Long.toString(maxSizeMb * 1024 * 1024)));
+            bean.startRecording(recordingId);
+            flightRecorder = bean;
+        } catch (IOException | ParseException | RuntimeException e) {
+            log.warn("Flight recording is not available; quiz recordings cannot be dumped", e);
+        }
+    }
+
+    /**
+     * The predefined configuration named by quiz.jfr.settings with EXCLUDED_EVENTS turned off
+     */
+    private Map<String, String> recordingSettings() throws IOException, ParseException {
+        Map<String, String> recordingSettings = new HashMap<>(Configuration.getConfiguration(settings).getSettings());
+        for (String event : EXCLUDED_EVENTS) {
+            recordingSettings.put(event + "#enabled", "false");
+        }
+        return recordingSettings;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flightRecorder != null) {
+            try {
+                flightRecorder.closeRecording(recordingId);
+            } catch (IOException e) {
+                log.warn("Could not close the flight recording", e);
+            }
+            flightRecorder = null;
+        }
+    }
+
+    public boolean isRecording() {
+        return flightRecorder != null;
+    }
+
+    public long getMaxAgeMinutes() {
+        return maxAgeMinutes;
+    }
+
+    public FlightRecordingStatus getStatus() {
+        return new FlightRecordingStatus(isRecording(), settings, maxAgeMinutes, maxSizeMb);
+    }
+
+    /**
+     * Write the last part of the continuous recording to out as a .jfr file.
+     * The recording is stored in chunks, so the dump can start somewhat earlier than requested.
+     */
+    public void dump(Duration last, OutputStream out) throws IOException {
+        FlightRecorderMXBean bean = flightRecorder;
+        if (bean == null) {
+            throw new IllegalStateException("Flight recording is not running");
+        }
+        Instant end = Instant.now();
+        long copyId = bean.cloneRecording(recordingId, true); // stopping the copy flushes buffered events
+        try {
+            long streamId = bean.openStream(copyId, Map.of("startTime", end.minus(last).toString(),
+                                                           "endTime", end.toString()));
+            try {
+                byte[] block;
+                while ((block = bean.readStream(streamId)) != null) {
+                    out.write(block);
+                }
+            } finally {
+                bean.closeStream(streamId);
+            }
+        } finally {
+            bean.closeRecording(copyId);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.service;
+
+import com.example.model.QuizAttempt;
+
+/**
+ * Grades answer sheets against an answer key packed two bits per question.
+ *
+ * Choices A-D are stored as 0-3 in consecutive 2-bit lanes, 32 questions per long, with a
+ * separate presence mask marking which lanes hold a choice. A lane is correct when both of
+ * its bits agree with the key and both sides are present, so a whole word of 32 questions is
+ * graded with a few bitwise operations and one Long.bitCount. Used for live grading of
+ * submitted attempts and for bulk regrading of stored results.
+ */
+public final class GradingEngine {
+
+    static final int QUESTIONS_PER_WORD = 32;
+
+    // Low bit of every 2-bit lane
+    private static final long LOW_BITS = 0x5555555555555555L;
+
+    private GradingEngine() {}
+
+    /**
+     * Grade answers against a key of the same length. Lanes missing on either side are incorrect.
+     */
+    public static Grade grade(PackedChoices key, PackedChoices answers) {
+        if (key.count != answers.count) {
+            throw new IllegalArgumentException("Key has " + key.count + " questions, answers have " + answers.count);
+        }
+        long[] bitmap = new long[(key.count + 63) >>> 6];
+        int correct = 0;
+        for (int w = 0; w < key.choices.length; w++) {
+            long same = ~(key.choices[w] ^ answers.choices[w]);
+            long lanes = same & (same >>> 1) & key.present[w] & answers.present[w];
+            correct += Long.bitCount(lanes);
+            // Two 32-question words make one 64-bit bitmap word
+            bitmap[w >>> 1] |= compressLanes(lanes) << ((w & 1) << 5);
+        }
+        return new Grade(key.count, correct, bitmap);
+    }
+
+    /**
+     * Count correct answers only, without building the bitmap
+     */
+    public static int countCorrect(PackedChoices key, PackedChoices answers) {
+        if (key.count != answers.count) {
+            throw new IllegalArgumentException("Key has " + key.count + " questions, answers have " + answers.count);
+        }
+        int correct = 0;
+        for (int w = 0; w < key.choices.length; w++) {
+            long same = ~(key.choices[w] ^ answers.choices[w]);
+            correct += Long.bitCount(same & (same >>> 1) & key.present[w] & answers.present[w]);
+        }
+        return correct;
+    }
+
+    /**
+     * Gather the low bit of each 2-bit lane into the low 32 bits
+     */
+    private static long compressLanes(long lanes) {
+        long x = lanes & LOW_BITS;
+        x = (x | (x >>> 1)) & 0x3333333333333333L;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+        return x;
+    }
+
+    /**
+     * Choices for a fixed number of questions, two bits each, plus which questions have a choice
+     */
+    public static final class PackedChoices {
+
+        private final int count;
+
+        private final long[] choices;
+
+        private final long[] present; // low bit of each lane set when the question has a choice
+
+        private PackedChoices(int count) {
+            int words = (count + QUESTIONS_PER_WORD - 1) / QUESTIONS_PER_WORD;
+            this.count = count;
+            this.choices = new long[words];
+            this.present = new long[words];
+        }
+
+        /**
+         * Pack answer codes as stored by QuizAttempt (0 = none, 1-4 = A-D)
+         */
+        public static PackedChoices fromCodes(byte[] codes) {
+            PackedChoices packed = new PackedChoices(codes.length);
+            for (int i = 0; i < codes.length; i++) {
+                packed.set(i, codes[i]);
+            }
+            return packed;
+        }
+
+        /**
+         * Pack answer letters (A-D, any case); null or anything else is "no choice"
+         */
+        public static PackedChoices fromLetters(String[] letters) {
+            PackedChoices packed = new PackedChoices(letters.length);
+            for (int i = 0; i < letters.length; i++) {
+                packed.set(i, QuizAttempt.encodeAnswer(letters[i]));
+            }
+            return packed;
+        }
+
+        private void set(int index, byte code) {
+            if (code < 1 || code > 4) {
+                return;
+            }
+            int word = index / QUESTIONS_PER_WORD;
+            int shift = (index % QUESTIONS_PER_WORD) << 1;
+            choices[word] |= (long) (code - 1) << shift;
+            present[word] |= 1L << shift;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Outcome of grading one answer sheet
+     */
+    public static final class Grade {
+
+        private final int total;
+
+        private final int correct;
+
+        private final long[] correctBitmap;
+
+        Grade(int total, int correct, long[] correctBitmap) {
+            this.total = total;
+            this.correct = correct;
+            this.correctBitmap = correctBitmap;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getCorrect() {
+            return correct;
+        }
+
+        /**
+         * Whether question {@code index} was answered correctly
+         */
+        public boolean isCorrect(int index) {
+            return (correctBitmap[index >>> 6] & (1L << index)) != 0;
+        }
+
+        /**
+         * One bit per question, bit {@code i % 64} of word {@code i / 64}
+         */
+        public long[] getCorrectBitmap() {
+            return correctBitmap.clone();
+        }
+    }
+}
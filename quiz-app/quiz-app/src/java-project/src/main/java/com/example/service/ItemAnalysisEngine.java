@@ -0,0 +1,474 @@
+package com.example.service;
+
+import com.example.dto.ItemAnalysisReport;
+import com.example.dto.ItemStatistics;
+import com.example.event.QuestionAnswerChangedEvent;
+import com.example.event.QuizResultDeletedEvent;
+import com.example.model.QuestionSnapshot;
+import com.example.model.QuizAttempt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classical item analysis of every question, maintained incrementally as attempts are graded.
+ *
+ * Per question the engine keeps the attempt count, the number answered correctly, how often
+ * each choice was picked, and the sums needed for the point-biserial discrimination. They live
+ * in flat primitive arrays indexed by question id, so recording a graded answer is O(1) and
+ * never reads the history. Discrimination uses the rest score (fraction correct on the other
+ * questions of the attempt), so an item does not correlate with itself; attempts with a single
+ * question have no rest score and only count towards the p-value.
+ *
+ * Deleted results and answer key changes cannot be undone incrementally, so they mark the
+ * analysis stale and it is rebuilt from the stored answer sheets, graded against the current key.
+ * Deleted questions are left out of the rebuild; only the count of correct answers is stored, so
+ * the rest scores of a sheet that contained one use that stored count, as the regrade does.
+ * The rebuild scans one repeatable-read snapshot of the table without holding the lock; sheets
+ * recorded meanwhile are replayed onto the new table unless the snapshot already contains them,
+ * and the new table is swapped in under the lock. Sheets of results the snapshot contains but that
+ * were not recorded yet are waited for first, so they cannot reach the new table a second time.
+ */
+@Component
+public class ItemAnalysisEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemAnalysisEngine.class);
+
+    private static final String SELECT_CHUNK = "SELECT id, correct_answers, question_ids, answer_codes FROM quiz_results " +
+            "WHERE id > ? AND question_ids IS NOT NULL AND total_questions > 0 ORDER BY id LIMIT ?";
+
+    // p-value bounds for the suggested difficulty label
+    private static final double EASY_P_VALUE = 0.7;
+
+    private static final double HARD_P_VALUE = 0.4;
+
+    private static final String[] CHOICE_NAMES = {"none", "A", "B", "C", "D"};
+
+    private static final int ID_LOOKUP_BATCH = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuestionCatalog questionCatalog;
+
+    @Autowired
+    private QuizResultWriter quizResultWriter;
+
+    @Autowired
+    private ResultChangeTracker resultChangeTracker;
+
+    @Value("${quiz.item-analysis.min-attempts:30}")
+    private long minAttempts;
+
+    @Value("${quiz.item-analysis.chunk-size:10000}")
+    private int chunkSize;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Guarded by this
+    private ItemTable table = new ItemTable();
+
+    // Guarded by this
+    private boolean stale;
+
+    // Deletes and answer key changes seen so far; guarded by this
+    private long invalidations;
+
+    // Sheets recorded while a rebuild scans the table, null otherwise; guarded by this
+    private List<RecordedSheet> sheetsDuringRebuild;
+
+    // One rebuild at a time
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Add the graded answer sheet of a saved result. answers holds the QuizAttempt answer codes in question order.
+     */
+    public synchronized void record(long resultId, long[] questionIds, byte[] answers, GradingEngine.Grade grade) {
+        if (sheetsDuringRebuild != null) {
+            sheetsDuringRebuild.add(new RecordedSheet(resultId, questionIds, answers, grade));
+        }
+        table.add(questionIds, answers, grade);
+    }
+
+    /**
+     * Statistics of one question; all counters are zero if it has not been attempted
+     */
+    public synchronized ItemStatistics getStatistics(QuestionSnapshot question) {
+        return table.statistics(question.getId(), question.getDifficulty(), minAttempts);
+    }
+
+    /**
+     * Ids of every question with at least one recorded attempt, in ascending order
+     */
+    public synchronized long[] getAttemptedQuestionIds() {
+        return table.attemptedIds();
+    }
+
+    @EventListener
+    public synchronized void onResultDeleted(QuizResultDeletedEvent event) {
+        stale = true;
+        invalidations++;
+    }
+
+    @EventListener
+    public synchronized void onAnswerKeyChanged(QuestionAnswerChangedEvent event) {
+        stale = true;
+        invalidations++;
+    }
+
+    /**
+     * A deleted question drops out of the analysis on the next rebuild
+     */
+    public synchronized void onQuestionDeleted(long questionId) {
+        stale = true;
+        invalidations++;
+    }
+
+    /**
+     * Rebuild soon after a delete or answer key change made the analysis stale
+     */
+    @Scheduled(fixedDelayString = "${quiz.item-analysis.stale-check-ms:5000}")
+    public void recomputeIfStale() {
+        boolean needed;
+        synchronized (this) {
+            needed = stale;
+        }
+        if (needed) {
+            recompute();
+        }
+    }
+
+    /**
+     * Rebuild the analysis from every stored answer sheet, graded against the current answer key,
+     * and report how far the incremental counters had drifted. Recording and reads are not blocked meanwhile.
+     */
+    public ItemAnalysisReport recompute() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            boolean wasStale;
+            long invalidationsBefore;
+            synchronized (this) {
+                sheetsDuringRebuild = new ArrayList<>();
+                wasStale = stale;
+                invalidationsBefore = invalidations;
+            }
+            TransactionTemplate snapshotRead = new TransactionTemplate(transactionManager);
+            snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            snapshotRead.setReadOnly(true);
+            try {
+                // Sheets recorded before buffering started must be in the table the snapshot reads
+                quizResultWriter.awaitFlushedSoFar();
+                return snapshotRead.execute(status -> rebuild(start, wasStale, invalidationsBefore));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted before recomputing item analysis", e);
+            } finally {
+                synchronized (this) {
+                    sheetsDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs in one repeatable-read transaction, so the scan and the id lookups see the same table contents
+     */
+    private ItemAnalysisReport rebuild(long start, boolean wasStale, long invalidationsBefore) {
+        ItemTable rebuilt = new ItemTable();
+        long scanned = 0;
+        long lastId = 0;
+        while (true) {
+            List<StoredSheet> chunk = jdbcTemplate.query(SELECT_CHUNK, (rs, row) -> new StoredSheet(
+                    rs.getLong(1), rs.getInt(2), AnswerSheetCodec.decodeQuestionIds(rs.getBytes(3)), rs.getBytes(4)),
+                    lastId, chunkSize);
+            if (lastId == 0) {
+                // The first read took the snapshot; let sheets of results it already contains be recorded
+                // while they are still buffered
+                awaitChangesInFlight();
+            }
+            if (chunk.isEmpty()) {
+                break;
+            }
+            lastId = chunk.get(chunk.size() - 1).id();
+            addChunk(rebuilt, chunk);
+            scanned += chunk.size();
+        }
+
+        // Replay what was recorded during the scan off the lock; swap once nothing new came in meanwhile
+        List<RecordedSheet> sheets = takeSheets();
+        while (true) {
+            Set<Long> inSnapshot = idsInSnapshot(sheets);
+            for (RecordedSheet sheet : sheets) {
+                if (!inSnapshot.contains(sheet.resultId())) {
+                    rebuilt.add(sheet.questionIds(), sheet.answers(), sheet.grade());
+                }
+            }
+            synchronized (this) {
+                if (sheetsDuringRebuild.isEmpty()) {
+                    // A delete or key change during the scan may be missing from the rebuilt table
+                    boolean invalidated = invalidations != invalidationsBefore;
+                    Integer mismatched = wasStale || invalidated ? null : table.countMismatches(rebuilt);
+                    table = rebuilt;
+                    stale = invalidated;
+                    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                    log.info("Item analysis rebuilt from {} results in {} ms, {} questions differed from the incremental state",
+                             scanned, elapsedMs, mismatched == null ? "(stale)" : mismatched);
+                    return new ItemAnalysisReport(scanned, rebuilt.attemptedIds().length, mismatched, elapsedMs);
+                }
+                sheets = takeSheets();
+            }
+        }
+    }
+
+    private void awaitChangesInFlight() {
+        try {
+            resultChangeTracker.awaitInFlight();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while recomputing item analysis", e);
+        }
+    }
+
+    private synchronized List<RecordedSheet> takeSheets() {
+        List<RecordedSheet> sheets = sheetsDuringRebuild;
+        sheetsDuringRebuild = new ArrayList<>();
+        return sheets;
+    }
+
+    /**
+     * Which of the recorded results the rebuild's snapshot of the table contains
+     */
+    private Set<Long> idsInSnapshot(List<RecordedSheet> sheets) {
+        List<Long> ids = sheets.stream().map(RecordedSheet::resultId).distinct().toList();
+        Set<Long> found = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += ID_LOOKUP_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + ID_LOOKUP_BATCH));
+            String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+            found.addAll(jdbcTemplate.queryForList("SELECT id FROM quiz_results WHERE id IN (" + placeholders + ")",
+                                                   Long.class, batch.toArray()));
+        }
+        return found;
+    }
+
+    private void addChunk(ItemTable target, List<StoredSheet> chunk) {
+        // One catalog lookup per distinct question in the chunk
+        Set<Long> distinct = new HashSet<>();
+        for (StoredSheet sheet : chunk) {
+            for (long id : sheet.questionIds()) {
+                distinct.add(id);
+            }
+        }
+        long[] ids = distinct.stream().mapToLong(Long::longValue).toArray();
+        List<QuestionSnapshot> questions = questionCatalog.getAll(ids);
+        // Deleted questions are left out of the key
+        Map<Long, Byte> answerKey = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            QuestionSnapshot question = questions.get(i);
+            if (question != null) {
+                answerKey.put(ids[i], question.getCorrectAnswerCode());
+            }
+        }
+
+        for (StoredSheet sheet : chunk) {
+            long[] questionIds = sheet.questionIds();
+            byte[] key = new byte[questionIds.length];
+            long[] kept = questionIds;
+            int deleted = 0;
+            for (int i = 0; i < key.length; i++) {
+                Byte code = answerKey.get(questionIds[i]);
+                if (code == null) {
+                    if (kept == questionIds) {
+                        kept = questionIds.clone();
+                    }
+                    kept[i] = -1; // not added to the table
+                    deleted++;
+                }
+                key[i] = code != null ? code : QuizAttempt.NO_ANSWER;
+            }
+            byte[] answers = AnswerSheetCodec.unpackAnswers(sheet.answerCodes(), key.length);
+            GradingEngine.Grade grade = GradingEngine.grade(GradingEngine.PackedChoices.fromCodes(key),
+                                                            GradingEngine.PackedChoices.fromCodes(answers));
+            if (deleted > 0) {
+                // The deleted questions' correctness is only known through the stored count
+                int correct = Math.max(grade.getCorrect(), Math.min(sheet.correctAnswers(), grade.getCorrect() + deleted));
+                grade = new GradingEngine.Grade(grade.getTotal(), correct, grade.getCorrectBitmap());
+            }
+            target.add(kept, answers, grade);
+        }
+    }
+
+    private record StoredSheet(long id, int correctAnswers, long[] questionIds, byte[] answerCodes) {
+    }
+
+    private record RecordedSheet(long resultId, long[] questionIds, byte[] answers, GradingEngine.Grade grade) {
+    }
+
+    /**
+     * Per-question counters in flat arrays; slot {@code id * STRIDE + field} holds one field of question id.
+     * Not thread-safe, guarded by the engine.
+     */
+    static final class ItemTable {
+
+        // Long counters per question
+        private static final int ATTEMPTS = 0;
+        private static final int CORRECT = 1;
+        private static final int CHOICE = 2; // five slots, indexed by answer code (0 = none, 1-4 = A-D)
+        private static final int SCORED = 7; // attempts with a rest score
+        private static final int SCORED_CORRECT = 8;
+        private static final int COUNT_STRIDE = 9;
+
+        // Rest score sums per question, over the scored attempts
+        private static final int REST_SUM = 0;
+        private static final int REST_SUM_SQUARES = 1;
+        private static final int REST_SUM_CORRECT = 2;
+        private static final int SUM_STRIDE = 3;
+
+        private long[] counts = new long[64 * COUNT_STRIDE];
+
+        private double[] sums = new double[64 * SUM_STRIDE];
+
+        void add(long[] questionIds, byte[] answers, GradingEngine.Grade grade) {
+            int total = questionIds.length;
+            int correctTotal = grade.getCorrect();
+            for (int i = 0; i < total; i++) {
+                long id = questionIds[i];
+                if (id < 0 || id > Integer.MAX_VALUE / COUNT_STRIDE) {
+                    continue;
+                }
+                ensureCapacity((int) id);
+                int c = (int) id * COUNT_STRIDE;
+                boolean correct = grade.isCorrect(i);
+                byte answer = answers[i];
+                counts[c + ATTEMPTS]++;
+                counts[c + CHOICE + (answer >= 0 && answer <= 4 ? answer : 0)]++;
+                if (correct) {
+                    counts[c + CORRECT]++;
+                }
+                if (total > 1) {
+                    double rest = (double) (correctTotal - (correct ? 1 : 0)) / (total - 1);
+                    int s = (int) id * SUM_STRIDE;
+                    counts[c + SCORED]++;
+                    sums[s + REST_SUM] += rest;
+                    sums[s + REST_SUM_SQUARES] += rest * rest;
+                    if (correct) {
+                        counts[c + SCORED_CORRECT]++;
+                        sums[s + REST_SUM_CORRECT] += rest;
+                    }
+                }
+            }
+        }
+
+        ItemStatistics statistics(long id, String assignedDifficulty, long minAttempts) {
+            long[] row = new long[COUNT_STRIDE];
+            double[] sumRow = new double[SUM_STRIDE];
+            if (id >= 0 && id < counts.length / COUNT_STRIDE) {
+                System.arraycopy(counts, (int) id * COUNT_STRIDE, row, 0, COUNT_STRIDE);
+                System.arraycopy(sums, (int) id * SUM_STRIDE, sumRow, 0, SUM_STRIDE);
+            }
+
+            long attempts = row[ATTEMPTS];
+            Double pValue = attempts == 0 ? null : (double) row[CORRECT] / attempts;
+            String suggested = pValue == null || attempts < minAttempts ? null
+                    : pValue >= EASY_P_VALUE ? "Easy" : pValue >= HARD_P_VALUE ? "Medium" : "Hard";
+
+            Map<String, Long> choices = new LinkedHashMap<>();
+            for (int code = 0; code < CHOICE_NAMES.length; code++) {
+                choices.put(CHOICE_NAMES[code], row[CHOICE + code]);
+            }
+            return new ItemStatistics(id, assignedDifficulty, suggested, attempts, row[CORRECT], pValue,
+                                      discrimination(row[SCORED], row[SCORED_CORRECT], sumRow), choices);
+        }
+
+        /**
+         * Point-biserial correlation: (M1 - M0) / s * sqrt(p * q) over the rest scores
+         */
+        private static Double discrimination(long n, long n1, double[] sumRow) {
+            long n0 = n - n1;
+            if (n1 == 0 || n0 == 0) {
+                return null;
+            }
+            double mean = sumRow[REST_SUM] / n;
+            double variance = sumRow[REST_SUM_SQUARES] / n - mean * mean;
+            if (variance <= 1e-12) {
+                return null;
+            }
+            double meanCorrect = sumRow[REST_SUM_CORRECT] / n1;
+            double meanIncorrect = (sumRow[REST_SUM] - sumRow[REST_SUM_CORRECT]) / n0;
+            double p = (double) n1 / n;
+            return (meanCorrect - meanIncorrect) / Math.sqrt(variance) * Math.sqrt(p * (1 - p));
+        }
+
+        long[] attemptedIds() {
+            List<Long> ids = new ArrayList<>();
+            for (int id = 0; id < counts.length / COUNT_STRIDE; id++) {
+                if (counts[id * COUNT_STRIDE + ATTEMPTS] > 0) {
+                    ids.add((long) id);
+                }
+            }
+            return ids.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        /**
+         * Number of questions whose counters differ from other's (sums compared with a relative tolerance)
+         */
+        int countMismatches(ItemTable other) {
+            int questions = Math.max(counts.length / COUNT_STRIDE, other.counts.length / COUNT_STRIDE);
+            int mismatched = 0;
+            for (int id = 0; id < questions; id++) {
+                boolean same = true;
+                for (int f = 0; f < COUNT_STRIDE && same; f++) {
+                    same = count(id, f) == other.count(id, f);
+                }
+                for (int f = 0; f < SUM_STRIDE && same; f++) {
+                    double a = sum(id, f);
+                    double b = other.sum(id, f);
+                    same = Math.abs(a - b) <= 1e-9 * Math.max(1.0, Math.max(Math.abs(a), Math.abs(b)));
+                }
+                if (!same) {
+                    mismatched++;
+                }
+            }
+            return mismatched;
+        }
+
+        private long count(int id, int field) {
+            int slot = id * COUNT_STRIDE + field;
+            return slot < counts.length ? counts[slot] : 0;
+        }
+
+        private double sum(int id, int field) {
+            int slot = id * SUM_STRIDE + field;
+            return slot < sums.length ? sums[slot] : 0;
+        }
+
+        private void ensureCapacity(int id) {
+            int questions = counts.length / COUNT_STRIDE;
+            if (id < questions) {
+                return;
+            }
+            int grown = Math.max(id + 1, (int) Math.min((long) questions * 2, Integer.MAX_VALUE / COUNT_STRIDE));
+            counts = Arrays.copyOf(counts, grown * COUNT_STRIDE);
+            sums = Arrays.copyOf(sums, grown * SUM_STRIDE);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.service;
+
+import com.example.event.QuizResultDeletedEvent;
+import com.example.event.QuizResultSavedEvent;
+import com.example.model.QuizResult;
+import com.example.repository.QuizResultRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Bounded in-memory leaderboards: top N scores overall and per category, plus the N most recent attempts.
+ * Updated as results are saved and rebuilt from LIMITed indexed queries on cold start; a delete refills
+ * only the boards it removed an entry from, so the statistics page never scans the full results table.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Comparator<QuizResult> BY_SCORE = Comparator
+            .comparingDouble(QuizResult::getScore).reversed()
+            .thenComparing(QuizResult::getAttemptDate)
+            .thenComparing(QuizResult::getId);
+
+    private static final Comparator<QuizResult> BY_RECENCY = Comparator
+            .comparing(QuizResult::getAttemptDate).reversed()
+            .thenComparing(QuizResult::getId, Comparator.reverseOrder());
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @Value("${quiz.leaderboard.size:10}")
+    private int size;
+
+    private volatile Board topScores;
+
+    private volatile Board recentAttempts;
+
+    private final Map<String, Board> topScoresByCategory = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    /**
+     * Top scores across all categories, best first
+     */
+    public List<QuizResult> getTopScores() {
+        ensureLoaded();
+        return topScores.snapshot();
+    }
+
+    /**
+     * Top scores in one category, best first
+     */
+    public List<QuizResult> getTopScores(String category) {
+        ensureLoaded();
+        Board board = topScoresByCategory.get(category);
+        return board == null ? List.of() : board.snapshot();
+    }
+
+    /**
+     * Most recent attempts, newest first
+     */
+    public List<QuizResult> getRecentAttempts() {
+        ensureLoaded();
+        return recentAttempts.snapshot();
+    }
+
+    @EventListener
+    public synchronized void onResultSaved(QuizResultSavedEvent event) {
+        if (!loaded) {
+            return; // the cold-start rebuild will read it from the table
+        }
+        QuizResult result = event.getResult();
+        topScores.offer(result);
+        recentAttempts.offer(result);
+        if (result.getCategory() != null) {
+            topScoresByCategory.computeIfAbsent(result.getCategory(), c -> new Board(BY_SCORE, size)).offer(result);
+        }
+    }
+
+    @EventListener
+    public synchronized void onResultDeleted(QuizResultDeletedEvent event) {
+        if (!loaded) {
+            return; // the cold-start rebuild will not find it in the table
+        }
+        // A bounded board cannot know its next entry, so only a board that lost one is refilled by its LIMITed query
+        QuizResult result = event.getResult();
+        PageRequest firstPage = PageRequest.of(0, size);
+        if (topScores.remove(result)) {
+            quizResultRepository.findTopScores(firstPage).forEach(topScores::offer);
+        }
+        if (recentAttempts.remove(result)) {
+            quizResultRepository.findRecentAttempts(firstPage).forEach(recentAttempts::offer);
+        }
+        if (result.getCategory() != null) {
+            Board board = topScoresByCategory.get(result.getCategory());
+            if (board != null && board.remove(result)) {
+                quizResultRepository.findTopScoresByCategory(result.getCategory(), firstPage).forEach(board::offer);
+            }
+        }
+    }
+
+    /**
+     * Rebuild every board from indexed, LIMITed queries
+     */
+    public synchronized void rebuild() {
+        PageRequest firstPage = PageRequest.of(0, size);
+
+        Board scores = new Board(BY_SCORE, size);
+        quizResultRepository.findTopScores(firstPage).forEach(scores::offer);
+
+        Board recent = new Board(BY_RECENCY, size);
+        quizResultRepository.findRecentAttempts(firstPage).forEach(recent::offer);
+
+        topScoresByCategory.clear();
+        for (String category : quizResultRepository.findAllCategories()) {
+            Board board = new Board(BY_SCORE, size);
+            quizResultRepository.findTopScoresByCategory(category, firstPage).forEach(board::offer);
+            topScoresByCategory.put(category, board);
+        }
+
+        topScores = scores;
+        recentAttempts = recent;
+        loaded = true;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Ordered set that keeps only the first {@code capacity} entries.
+     * Writes are serialized by the enclosing service; reads iterate without locking.
+     */
+    private static final class Board {
+
+        private final ConcurrentSkipListSet<QuizResult> entries;
+
+        private final int capacity;
+
+        Board(Comparator<QuizResult> order, int capacity) {
+            this.entries = new ConcurrentSkipListSet<>(order);
+            this.capacity = capacity;
+        }
+
+        void offer(QuizResult result) {
+            remove(result); // a copy read back from the table may differ in attemptDate precision
+            entries.add(result);
+            while (entries.size() > capacity) {
+                entries.pollLast();
+            }
+        }
+
+        boolean remove(QuizResult result) {
+            return entries.removeIf(entry -> entry.getId().equals(result.getId()));
+        }
+
+        List<QuizResult> snapshot() {
+            return new ArrayList<>(entries);
+        }
+    }
+}
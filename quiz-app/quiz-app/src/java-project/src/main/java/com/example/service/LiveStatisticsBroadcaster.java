@@ -0,0 +1,384 @@
+package com.example.service;
+
+import com.example.dto.CategoryPerformance;
+import com.example.dto.LeaderboardEntry;
+import com.example.dto.LiveStatistics;
+import com.example.dto.LiveStreamStats;
+import com.example.event.QuizResultDeletedEvent;
+import com.example.event.QuizResultSavedEvent;
+import com.example.jfr.StatisticsComputedEvent;
+import com.example.model.QuizResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Live statistics and leaderboards, pushed to subscribers over Server-Sent Events.
+ *
+ * Saved and deleted results only mark the statistics as changed. At most
+ * quiz.live.max-updates-per-second times a second a publisher thread builds one snapshot, serializes
+ * it to JSON once and hands the same frame to every subscriber; the statistics page renders from the
+ * same snapshot. Each subscriber has a single latest-frame slot drained by a small pool of sender
+ * threads, so publishing never blocks and a slow subscriber skips intermediate frames instead of
+ * queueing them. A send still blocked after quiz.live.send-timeout-ms is aborted by interrupting its
+ * sender thread (the servlet container fails the write) and the subscriber is dropped, so stalled
+ * clients cannot hold the sender threads.
+ */
+@Service
+public class LiveStatisticsBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveStatisticsBroadcaster.class);
+
+    private static final Frame HEARTBEAT = new Frame(0, 0, null, null);
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${quiz.live.max-updates-per-second:2}")
+    private double maxUpdatesPerSecond;
+
+    @Value("${quiz.live.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${quiz.live.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${quiz.live.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${quiz.live.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${quiz.live.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+
+    private final AtomicLong framesPublished = new AtomicLong();
+
+    private final AtomicLong framesSent = new AtomicLong();
+
+    private final AtomicLong framesDropped = new AtomicLong();
+
+    private volatile Frame latest;
+
+    private long version; // guarded by this
+
+    private long publishedVersion; // publisher thread only
+
+    private long minIntervalNanos;
+
+    private ScheduledExecutorService publisher;
+
+    private ExecutorService senders;
+
+    @PostConstruct
+    void start() {
+        minIntervalNanos = (long) (1e9 / maxUpdatesPerSecond);
+        publisher = Executors.newSingleThreadScheduledExecutor(daemon("live-statistics-publisher"));
+        senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), daemon("live-statistics-sender"));
+        publisher.scheduleWithFixedDelay(this::publish, minIntervalNanos, minIntervalNanos, TimeUnit.NANOSECONDS);
+        publisher.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long checkMs = Math.max(1, sendTimeoutMs / 4);
+        publisher.scheduleWithFixedDelay(this::abortStalledSends, checkMs, checkMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        publisher.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    @EventListener
+    public void onResultSaved(QuizResultSavedEvent event) {
+        changed.set(true);
+    }
+
+    @EventListener
+    public void onResultDeleted(QuizResultDeletedEvent event) {
+        changed.set(true);
+    }
+
+    /**
+     * Open a stream that receives the current snapshot and every later one.
+     * Returns null when the subscriber limit is reached.
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(emitterTimeoutMs));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        Frame current = latest;
+        if (current != null) {
+            subscriber.offer(current);
+        }
+        return emitter;
+    }
+
+    /**
+     * The shared snapshot, rebuilt only if results changed and the last one is older than the update interval
+     */
+    public LiveStatistics getSnapshot() {
+        return currentFrame().statistics;
+    }
+
+    public LiveStreamStats getStats() {
+        return new LiveStreamStats(subscribers.size(), latest == null ? 0 : latest.version,
+                                   framesPublished.get(), framesSent.get(), framesDropped.get());
+    }
+
+    private synchronized Frame currentFrame() {
+        Frame frame = latest;
+        if (frame != null && (!changed.get() || System.nanoTime() - frame.builtAt < minIntervalNanos)) {
+            return frame;
+        }
+        changed.set(false); // changes from here on trigger the next snapshot
+        StatisticsComputedEvent computed = new StatisticsComputedEvent();
+        computed.begin();
+        LiveStatistics statistics;
+        String json;
+        try {
+            statistics = new LiveStatistics(version + 1, System.currentTimeMillis(),
+                                            quizService.getQuizStatistics(),
+                                            entries(quizService.getTopScores()),
+                                            entries(quizService.getRecentAttempts()),
+                                            categories(quizService.getPerformanceByCategory()));
+            json = objectMapper.writeValueAsString(statistics);
+        } catch (IOException | RuntimeException e) {
+            changed.set(true);
+            throw new IllegalStateException("Could not build live statistics", e);
+        }
+        frame = new Frame(++version, System.nanoTime(), statistics, json);
+        latest = frame;
+        computed.record("live", statistics.stats());
+        return frame;
+    }
+
+    /**
+     * Runs on the publisher thread: hand a new snapshot to every subscriber
+     */
+    private void publish() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Frame frame;
+        try {
+            frame = currentFrame();
+        } catch (RuntimeException e) {
+            log.warn("Could not build live statistics", e);
+            return;
+        }
+        if (frame.version == publishedVersion) {
+            return;
+        }
+        publishedVersion = frame.version;
+        framesPublished.incrementAndGet();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerIfIdle(HEARTBEAT);
+        }
+    }
+
+    private void abortStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.abortIfStalled(now);
+        }
+    }
+
+    private static List<LeaderboardEntry> entries(List<QuizResult> results) {
+        List<LeaderboardEntry> entries = new ArrayList<>(results.size());
+        for (QuizResult result : results) {
+            entries.add(LeaderboardEntry.of(result));
+        }
+        return entries;
+    }
+
+    private static List<CategoryPerformance> categories(List<Object[]> rows) {
+        List<CategoryPerformance> categories = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            categories.add(CategoryPerformance.of(row));
+        }
+        return categories;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A snapshot serialized once for every subscriber
+     */
+    private static final class Frame {
+
+        private final long version;
+
+        private final long builtAt;
+
+        private final LiveStatistics statistics;
+
+        private final String json;
+
+        Frame(long version, long builtAt, LiveStatistics statistics, String json) {
+            this.version = version;
+            this.builtAt = builtAt;
+            this.statistics = statistics;
+            this.json = json;
+        }
+    }
+
+    /**
+     * One open stream with a single slot for the next frame to send
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final AtomicReference<Frame> next = new AtomicReference<>();
+
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        // Sender thread inside emitter.send and when it started, null between sends; guarded by this
+        private Thread sendingThread;
+
+        private long sendStartedAt;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Replace the pending frame; a frame that was still waiting is dropped
+         */
+        void offer(Frame frame) {
+            Frame replaced = next.getAndSet(frame);
+            if (replaced != null && replaced != HEARTBEAT) {
+                framesDropped.incrementAndGet();
+            }
+            scheduleSend();
+        }
+
+        void offerIfIdle(Frame frame) {
+            if (next.compareAndSet(null, frame)) {
+                scheduleSend();
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private void scheduleSend() {
+            if (!closed && sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    sending.set(false); // shutting down
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Frame frame;
+                while (!closed && (frame = next.getAndSet(null)) != null) {
+                    send(frame);
+                }
+            } finally {
+                sending.set(false);
+            }
+            if (!closed && next.get() != null) {
+                scheduleSend(); // a frame arrived after the slot was found empty
+            }
+        }
+
+        /**
+         * Drop the subscriber and fail its write if the current send has taken longer than the send timeout
+         */
+        synchronized void abortIfStalled(long now) {
+            if (sendingThread != null && now - sendStartedAt > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) {
+                log.debug("Dropping live statistics subscriber, a send took longer than {} ms", sendTimeoutMs);
+                close();
+                sendingThread.interrupt();
+                sendingThread = null; // interrupt once
+            }
+        }
+
+        private void send(Frame frame) {
+            synchronized (this) {
+                sendingThread = Thread.currentThread();
+                sendStartedAt = System.nanoTime();
+            }
+            try {
+                if (frame == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(frame.version))
+                            .name("statistics")
+                            .data(frame.json));
+                    framesSent.incrementAndGet();
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(); // client went away, or the send timed out
+            } finally {
+                synchronized (this) {
+                    sendingThread = null;
+                    // An abort that raced with the end of the send must not fail the pooled thread's next send
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.service;
+
+import com.example.model.Question;
+import com.example.model.QuestionSnapshot;
+import com.example.repository.QuestionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared read-through cache of immutable question snapshots in front of the repository.
+ * Quiz attempts only keep question ids and resolve the questions from here,
+ * so every session shares a single copy of each question's text.
+ *
+ * Bounded to quiz.question-cache.size entries, evicting the least recently used. The cache is
+ * split into independently locked segments so concurrent lookups rarely contend.
+ * Writes to a question must invalidate it; a load that overlaps an invalidation is not cached.
+ */
+@Component
+public class QuestionCatalog {
+
+    private static final int SEGMENTS = 16;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    // Bumped on every invalidation so loads that raced with one are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public QuestionCatalog(@Value("${quiz.question-cache.size:100000}") int maxSize) {
+        this.maxSize = maxSize;
+        int segmentCapacity = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Get a question, loading it from the repository if it is not cached
+     */
+    public QuestionSnapshot get(long id) {
+        Segment segment = segmentFor(id);
+        QuestionSnapshot question = segment.lookup(id);
+        if (question != null) {
+            hits.increment();
+            return question;
+        }
+        misses.increment();
+        long loadGeneration = generation.get();
+        question = questionRepository.findById(id).map(QuestionSnapshot::of).orElse(null);
+        if (question != null) {
+            cache(question, loadGeneration);
+        }
+        return question;
+    }
+
+    /**
+     * Get questions in the order of the given ids, loading all missing ones in one batched lookup.
+     * Ids that no longer exist yield null entries.
+     */
+    public List<QuestionSnapshot> getAll(long[] ids) {
+        QuestionSnapshot[] found = new QuestionSnapshot[ids.length];
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            found[i] = segmentFor(ids[i]).lookup(ids[i]);
+            if (found[i] == null) {
+                missing.add(ids[i]);
+            }
+        }
+        hits.add(ids.length - missing.size());
+
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            long loadGeneration = generation.get();
+            Map<Long, QuestionSnapshot> loaded = new LinkedHashMap<>();
+            for (Question question : questionRepository.findAllById(missing)) {
+                QuestionSnapshot snapshot = QuestionSnapshot.of(question);
+                loaded.put(snapshot.getId(), snapshot);
+                cache(snapshot, loadGeneration);
+            }
+            for (int i = 0; i < ids.length; i++) {
+                if (found[i] == null) {
+                    found[i] = loaded.get(ids[i]);
+                }
+            }
+        }
+        return Arrays.asList(found);
+    }
+
+    /**
+     * Add questions that were just loaded from the repository
+     */
+    public void putAll(Iterable<Question> loaded) {
+        long loadGeneration = generation.get();
+        for (Question question : loaded) {
+            cache(QuestionSnapshot.of(question), loadGeneration);
+        }
+    }
+
+    /**
+     * Drop a question so the next lookup reloads it
+     */
+    public void invalidate(long id) {
+        generation.incrementAndGet();
+        segmentFor(id).invalidate(id);
+    }
+
+    /**
+     * Drop every cached question
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counters since startup
+     */
+    public Stats getStats() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.count();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, maxSize);
+    }
+
+    private void cache(QuestionSnapshot question, long loadGeneration) {
+        segmentFor(question.getId()).putIfCurrent(question, loadGeneration);
+    }
+
+    private Segment segmentFor(long id) {
+        int hash = Long.hashCode(id) * 0x9E3779B9; // spread sequential ids across segments
+        return segments[(hash >>> 16) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * One independently locked LRU map
+     */
+    private final class Segment {
+
+        private final LinkedHashMap<Long, QuestionSnapshot> entries;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, QuestionSnapshot> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized QuestionSnapshot lookup(long id) {
+            return entries.get(id);
+        }
+
+        synchronized void putIfCurrent(QuestionSnapshot question, long loadGeneration) {
+            // Checked under the segment lock, which invalidate() also takes after bumping the generation
+            if (generation.get() == loadGeneration) {
+                entries.put(question.getId(), question);
+            }
+        }
+
+        synchronized void invalidate(long id) {
+            entries.remove(id);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int count() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Point-in-time cache counters
+     */
+    public static final class Stats {
+
+        private final long hits;
+
+        private final long misses;
+
+        private final long evictions;
+
+        private final long size;
+
+        private final long maxSize;
+
+        Stats(long hits, long misses, long evictions, long size, long maxSize) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.maxSize = maxSize;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        /** Fraction of lookups served from the cache, 0 before the first lookup */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.service;
+
+import com.example.dto.QuestionImportReport;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streams a question bank from CSV or JSON into the questions table.
+ *
+ * Records are parsed one at a time, validated, and inserted in JDBC batches of
+ * quiz.import.batch-size rows, so memory use is bounded by the batch and not the file.
+ * Invalid records are skipped and reported. Only one import runs at a time; its progress
+ * can be read while it runs. The sampling index is rebuilt once the import finishes.
+ */
+@Service
+public class QuestionImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionImporter.class);
+
+    // Column names as generated by Hibernate's naming strategy: optionA maps to optiona
+    private static final String INSERT_SQL = "INSERT INTO questions (question_text, optiona, optionb, optionc, " +
+            "optiond, correct_answer, category, difficulty, explanation) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Field order of INSERT_SQL; names are matched ignoring case and underscores
+    private static final String[] FIELDS = {
+        "questionText", "optionA", "optionB", "optionC", "optionD",
+        "correctAnswer", "category", "difficulty", "explanation"
+    };
+
+    private static final int CORRECT_ANSWER = 5;
+
+    // Column lengths of the questions table
+    private static final int[] MAX_LENGTHS = {1000, 255, 255, 255, 255, 255, 255, 255, 500};
+
+    private static final boolean[] REQUIRED = {true, true, true, true, true, true, false, false, false};
+
+    private static final int MAX_REPORTED_ERRORS = 50;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Value("${quiz.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${quiz.import.progress-interval:100000}")
+    private long progressInterval;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    private volatile Progress current;
+
+    /**
+     * Supported file formats
+     */
+    public enum Format {
+        CSV, JSON;
+
+        /**
+         * Format from a file name's extension, CSV unless it ends in .json
+         */
+        public static Format fromFileName(String fileName) {
+            return fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".json") ? JSON : CSV;
+        }
+    }
+
+    /**
+     * Import every valid record from the stream. Fails with IllegalStateException if another import is running.
+     */
+    public QuestionImportReport importQuestions(InputStream input, Format format, String source) throws IOException {
+        if (!running.tryLock()) {
+            throw new IllegalStateException("Another question import is already running.");
+        }
+        try {
+            Progress progress = new Progress(source);
+            current = progress;
+            Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            if (format == Format.JSON) {
+                readJson(reader, progress);
+            } else {
+                readCsv(reader, progress);
+            }
+            progress.flush();
+            progress.finish();
+            log.info("Imported {} questions from {} ({} rejected) in {} ms",
+                     progress.imported, source, progress.rejected, progress.elapsedMs());
+            return progress.report();
+        } finally {
+            questionService.rebuildIndex();
+            running.unlock();
+        }
+    }
+
+    /**
+     * Progress of the running import, or the outcome of the last one (null if none has run)
+     */
+    public QuestionImportReport getProgress() {
+        Progress progress = current;
+        return progress == null ? null : progress.report();
+    }
+
+    private void readCsv(Reader reader, Progress progress) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        String[] header = csv.next();
+        if (header == null) {
+            return;
+        }
+        int[] columns = new int[FIELDS.length]; // field -> csv column
+        Arrays.fill(columns, -1);
+        for (int column = 0; column < header.length; column++) {
+            int field = fieldIndex(header[column]);
+            if (field >= 0) {
+                columns[field] = column;
+            }
+        }
+        for (int field = 0; field < FIELDS.length; field++) {
+            if (REQUIRED[field] && columns[field] < 0) {
+                throw new IllegalArgumentException("CSV header is missing the " + FIELDS[field] + " column.");
+            }
+        }
+
+        String[] record;
+        while ((record = csv.next()) != null) {
+            String[] values = new String[FIELDS.length];
+            for (int field = 0; field < FIELDS.length; field++) {
+                int column = columns[field];
+                values[field] = column >= 0 && column < record.length ? record[column] : null;
+            }
+            progress.accept(values, "line " + csv.getRecordLine());
+        }
+    }
+
+    private void readJson(Reader reader, Progress progress) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(reader)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON question bank must be an array of question objects.");
+            }
+            long record = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                record++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    progress.skip("record " + record + ": not an object");
+                    continue;
+                }
+                String[] values = new String[FIELDS.length];
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    int field = fieldIndex(parser.getCurrentName());
+                    JsonToken value = parser.nextToken();
+                    if (field >= 0 && value.isScalarValue()) {
+                        values[field] = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                progress.accept(values, "record " + record);
+            }
+        }
+    }
+
+    private static int fieldIndex(String name) {
+        String normalized = name.replace("_", "").replace("\uFEFF", "").trim();
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (FIELDS[i].equalsIgnoreCase(normalized)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Validation error for one record, or null if it can be inserted. Normalizes values in place.
+     */
+    private static String validate(String[] values) {
+        for (int field = 0; field < FIELDS.length; field++) {
+            String value = values[field] == null ? null : values[field].trim();
+            if (value != null && value.isEmpty()) {
+                value = null;
+            }
+            if (value == null && REQUIRED[field]) {
+                return FIELDS[field] + " is required";
+            }
+            if (value != null && value.length() > MAX_LENGTHS[field]) {
+                return FIELDS[field] + " is longer than " + MAX_LENGTHS[field] + " characters";
+            }
+            values[field] = value;
+        }
+        String answer = values[CORRECT_ANSWER].toUpperCase(Locale.ROOT);
+        if (answer.length() != 1 || answer.charAt(0) < 'A' || answer.charAt(0) > 'D') {
+            return "correctAnswer must be A, B, C or D";
+        }
+        values[CORRECT_ANSWER] = answer;
+        return null;
+    }
+
+    /**
+     * Counters and the pending batch of one import
+     */
+    private final class Progress {
+
+        private final String source;
+
+        private final long startNanos = System.nanoTime();
+
+        private final List<Object[]> batch = new ArrayList<>(batchSize);
+
+        private final List<String> errors = new ArrayList<>();
+
+        private volatile long read;
+
+        private volatile long imported;
+
+        private volatile long rejected;
+
+        private volatile long finishNanos;
+
+        Progress(String source) {
+            this.source = source;
+        }
+
+        void accept(String[] values, String location) {
+            read++;
+            String error = validate(values);
+            if (error != null) {
+                reject(location + ": " + error);
+                return;
+            }
+            batch.add(values);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+            if (read % progressInterval == 0) {
+                log.info("Question import from {}: {} rows read, {} imported, {} rejected ({} rows/s)",
+                         source, read, imported, rejected, Math.round(rowsPerSecond()));
+            }
+        }
+
+        void skip(String error) {
+            read++;
+            reject(error);
+        }
+
+        void reject(String error) {
+            rejected++;
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(error);
+                }
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+            imported += batch.size();
+            batch.clear();
+        }
+
+        void finish() {
+            finishNanos = System.nanoTime();
+        }
+
+        long elapsedNanos() {
+            long end = finishNanos;
+            return (end == 0 ? System.nanoTime() : end) - startNanos;
+        }
+
+        long elapsedMs() {
+            return elapsedNanos() / 1_000_000;
+        }
+
+        double rowsPerSecond() {
+            long nanos = elapsedNanos();
+            return nanos == 0 ? 0.0 : read * 1e9 / nanos;
+        }
+
+        QuestionImportReport report() {
+            List<String> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = List.copyOf(errors);
+            }
+            return new QuestionImportReport(source, finishNanos != 0, read, imported, rejected, errorsCopy,
+                                            elapsedMs(), rowsPerSecond());
+        }
+    }
+}
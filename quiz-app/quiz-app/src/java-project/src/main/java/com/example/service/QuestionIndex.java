@@ -0,0 +1,268 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of question ids keyed by category and difficulty.
+ * Ids are kept in primitive arrays so that random sampling never has to touch
+ * the database or hydrate entities; only the sampled ids are fetched afterwards.
+ */
+class QuestionIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Serializes rebuilds; the database query runs without the read-write lock
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // category -> difficulty -> ids (null keys are allowed for unset columns)
+    private final Map<String, Map<String, IdBucket>> buckets = new HashMap<>();
+
+    private boolean loaded;
+
+    private int size;
+
+    // Rebuilt under the write lock after every change, read without locking
+    private volatile CatalogMetadata metadata = CatalogMetadata.EMPTY;
+
+    private long metadataVersion;
+
+    // Puts and removes made while a rebuild reads the table, replayed onto its rows; guarded by the write lock
+    private List<Change> changesDuringRebuild;
+
+    /**
+     * Replace the whole index with the given (id, category, difficulty) rows
+     */
+    void rebuild(List<Object[]> rows) {
+        rebuild(() -> rows);
+    }
+
+    /**
+     * Replace the whole index with the rows returned by the query. Changes made while the query runs
+     * may be missing from its rows, so they are recorded and applied on top of them.
+     */
+    void rebuild(Supplier<List<Object[]>> query) {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            List<Object[]> rows;
+            try {
+                rows = query.get();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    changesDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                buckets.clear();
+                size = 0;
+                for (Object[] row : rows) {
+                    addInternal(((Number) row[0]).longValue(), (String) row[1], (String) row[2]);
+                }
+                for (Change change : changesDuringRebuild) {
+                    removeInternal(change.id());
+                    if (!change.removed()) {
+                        addInternal(change.id(), change.category(), change.difficulty());
+                    }
+                }
+                changesDuringRebuild = null;
+                loaded = true;
+                metadata = buildMetadata();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or move a question. Before the first rebuild has started it is ignored,
+     * because that rebuild will pick the row up from the database.
+     */
+    void put(long id, String category, String difficulty) {
+        change(new Change(id, category, difficulty, false));
+    }
+
+    void remove(long id) {
+        change(new Change(id, null, null, true));
+    }
+
+    private void change(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            if (loaded) {
+                removeInternal(change.id());
+                if (!change.removed()) {
+                    addInternal(change.id(), change.category(), change.difficulty());
+                }
+                metadata = buildMetadata();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts of the indexed questions; a consistent snapshot that is replaced, never modified
+     */
+    CatalogMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Sample up to k distinct ids matching the filters in O(k) time.
+     * A null filter matches every value.
+     * Uses a partial Fisher-Yates shuffle over the virtual concatenation of the
+     * matching buckets, with a sparse swap map instead of copying the arrays.
+     */
+    long[] sample(String category, String difficulty, int k, Random random) {
+        lock.readLock().lock();
+        try {
+            List<IdBucket> matching = new ArrayList<>();
+            int total = 0;
+            for (Map.Entry<String, Map<String, IdBucket>> byCategory : buckets.entrySet()) {
+                if (category != null && !category.equals(byCategory.getKey())) {
+                    continue;
+                }
+                for (Map.Entry<String, IdBucket> byDifficulty : byCategory.getValue().entrySet()) {
+                    if (difficulty != null && !difficulty.equals(byDifficulty.getKey())) {
+                        continue;
+                    }
+                    IdBucket bucket = byDifficulty.getValue();
+                    if (bucket.size > 0) {
+                        matching.add(bucket);
+                        total += bucket.size;
+                    }
+                }
+            }
+
+            int count = Math.min(Math.max(k, 0), total);
+            long[] result = new long[count];
+            Map<Integer, Integer> swapped = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(total - i);
+                int picked = swapped.getOrDefault(j, j);
+                swapped.put(j, swapped.getOrDefault(i, i));
+                result[i] = idAt(matching, picked);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // One pass over the buckets, not the ids
+    private CatalogMetadata buildMetadata() {
+        Map<String, Map<String, Long>> pairCounts = new HashMap<>();
+        for (Map.Entry<String, Map<String, IdBucket>> byCategory : buckets.entrySet()) {
+            for (Map.Entry<String, IdBucket> byDifficulty : byCategory.getValue().entrySet()) {
+                int count = byDifficulty.getValue().size;
+                if (count > 0 && byCategory.getKey() != null && byDifficulty.getKey() != null) {
+                    pairCounts.computeIfAbsent(byCategory.getKey(), c -> new HashMap<>())
+                              .put(byDifficulty.getKey(), (long) count);
+                }
+            }
+        }
+        return new CatalogMetadata(++metadataVersion, System.currentTimeMillis(), size, pairCounts);
+    }
+
+    private static long idAt(List<IdBucket> matching, int position) {
+        for (IdBucket bucket : matching) {
+            if (position < bucket.size) {
+                return bucket.ids[position];
+            }
+            position -= bucket.size;
+        }
+        throw new IllegalStateException("Sample position outside of index");
+    }
+
+    private void addInternal(long id, String category, String difficulty) {
+        buckets.computeIfAbsent(category, c -> new HashMap<>())
+               .computeIfAbsent(difficulty, d -> new IdBucket())
+               .add(id);
+        size++;
+    }
+
+    // Linear scan over primitive arrays; writes to the bank are rare compared to sampling
+    private void removeInternal(long id) {
+        for (Map<String, IdBucket> byDifficulty : buckets.values()) {
+            for (IdBucket bucket : byDifficulty.values()) {
+                if (bucket.remove(id)) {
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+
+    private record Change(long id, String category, String difficulty, boolean removed) {
+    }
+
+    /**
+     * Growable array of ids with swap-remove deletion
+     */
+    private static final class IdBucket {
+
+        private long[] ids = new long[16];
+
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.service;
+
+import com.example.model.QuestionSnapshot;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Production rendering of the quiz question page.
+ *
+ * The question page is identical for every student apart from the question number, the total
+ * and the progress. The renderer processes the quiz-question template once per question version
+ * with placeholder tokens in those slots, keeps the output as UTF-8 byte segments, and per request
+ * only writes the segments with the student's values in between. Entries are keyed by question
+ * id, content version and whether it is the last question (the button label differs).
+ */
+@Component
+public class QuestionPageRenderer {
+
+    private static final String TEMPLATE = "quiz-question";
+
+    // Slot order of the per-student values
+    private static final int QUESTION_NUMBER = 0;
+    private static final int TOTAL_QUESTIONS = 1;
+    private static final int PROGRESS = 2;
+    private static final int SLOTS = 3;
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    @Value("${quiz.rendering.fragment-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${quiz.rendering.fragment-cache.size:10000}")
+    private int maxSize;
+
+    // Random per process, so question content can never contain a slot token
+    private final String slotPrefix = "@@quiz-slot-" + Long.toHexString(ThreadLocalRandom.current().nextLong()) + "-";
+
+    private final Map<PageKey, RenderedPage> pages = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder renders = new LongAdder();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Write the question page for one student to the response
+     */
+    public void write(QuestionSnapshot question, int questionNumber, int totalQuestions, int progress,
+                      HttpServletResponse response) throws IOException {
+        RenderedPage page = getPage(question, questionNumber >= totalQuestions);
+        byte[][] values = new byte[SLOTS][];
+        values[QUESTION_NUMBER] = ascii(questionNumber);
+        values[TOTAL_QUESTIONS] = ascii(totalQuestions);
+        values[PROGRESS] = ascii(progress);
+
+        response.setContentType("text/html;charset=UTF-8");
+        response.setContentLength(page.length(values));
+        OutputStream out = response.getOutputStream();
+        page.writeTo(out, values);
+        out.flush();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getRenderCount() {
+        return renders.sum();
+    }
+
+    private RenderedPage getPage(QuestionSnapshot question, boolean lastQuestion) {
+        PageKey key = new PageKey(question.getId(), question.getVersion(), lastQuestion);
+        RenderedPage page = pages.get(key);
+        if (page != null) {
+            hits.increment();
+            return page;
+        }
+        if (pages.size() >= maxSize) {
+            pages.clear(); // cheap to rebuild; also drops versions of edited questions
+        }
+        return pages.computeIfAbsent(key, k -> render(question, lastQuestion));
+    }
+
+    private RenderedPage render(QuestionSnapshot question, boolean lastQuestion) {
+        renders.increment();
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("question", question);
+        variables.put("questionNumber", token(QUESTION_NUMBER));
+        variables.put("totalQuestions", token(TOTAL_QUESTIONS));
+        variables.put("progress", token(PROGRESS));
+        variables.put("lastQuestion", lastQuestion);
+        String html = templateEngine.process(TEMPLATE, new Context(Locale.getDefault(), variables));
+
+        List<byte[]> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int from = 0;
+        int at;
+        while ((at = html.indexOf(slotPrefix, from)) >= 0) {
+            int end = html.indexOf("@@", at + slotPrefix.length());
+            segments.add(html.substring(from, at).getBytes(StandardCharsets.UTF_8));
+            slots.add(Integer.parseInt(html.substring(at + slotPrefix.length(), end)));
+            from = end + 2;
+        }
+        segments.add(html.substring(from).getBytes(StandardCharsets.UTF_8));
+        return new RenderedPage(segments.toArray(new byte[0][]), slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private String token(int slot) {
+        return slotPrefix + slot + "@@";
+    }
+
+    private static byte[] ascii(int value) {
+        return Integer.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record PageKey(long questionId, long version, boolean lastQuestion) {
+    }
+
+    /**
+     * Pre-rendered page: segments[i] is followed by the value of slots[i]
+     */
+    private record RenderedPage(byte[][] segments, int[] slots) {
+
+        int length(byte[][] values) {
+            int length = 0;
+            for (byte[] segment : segments) {
+                length += segment.length;
+            }
+            for (int slot : slots) {
+                length += values[slot].length;
+            }
+            return length;
+        }
+
+        void writeTo(OutputStream out, byte[][] values) throws IOException {
+            for (int i = 0; i < segments.length; i++) {
+                out.write(segments[i]);
+                if (i < slots.length) {
+                    out.write(values[slots[i]]);
+                }
+            }
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package com.example.service;
 
+import com.example.dto.ItemAnalysisReport;
+import com.example.dto.ItemStatistics;
+import com.example.event.QuestionAnswerChangedEvent;
 import com.example.model.Question;
+import com.example.model.QuestionSnapshot;
 import com.example.repository.QuestionRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Service class for Question entity
@@ -18,6 +28,17 @@ public class QuestionService {
     @Autowired
     private QuestionRepository questionRepository;
     
+    @Autowired
+    private QuestionCatalog questionCatalog;
+    
+    @Autowired
+    private ItemAnalysisEngine itemAnalysisEngine;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private final QuestionIndex questionIndex = new QuestionIndex();
+    
     /**
      * Get all questions
      */
@@ -36,14 +57,25 @@ public class QuestionService {
      * Save a new question
      */
     public Question saveQuestion(Question question) {
-        return questionRepository.save(question);
+        Question saved = questionRepository.save(question);
+        questionIndex.put(saved.getId(), saved.getCategory(), saved.getDifficulty());
+        questionCatalog.invalidate(saved.getId());
+        return saved;
     }
     
     /**
      * Update an existing question
      */
     public Question updateQuestion(Question question) {
-        return questionRepository.save(question);
+        String previousAnswer = question.getId() != null ? questionRepository.findCorrectAnswerById(question.getId()) : null;
+        Question saved = questionRepository.save(question);
+        questionIndex.put(saved.getId(), saved.getCategory(), saved.getDifficulty());
+        questionCatalog.invalidate(saved.getId());
+        if (previousAnswer != null && !previousAnswer.equalsIgnoreCase(saved.getCorrectAnswer())) {
+            // Stored results that included this question were graded against the old key
+            eventPublisher.publishEvent(new QuestionAnswerChangedEvent(saved.getId(), previousAnswer));
+        }
+        return saved;
     }
     
     /**
@@ -51,6 +83,25 @@ public class QuestionService {
      */
     public void deleteQuestion(Long id) {
         questionRepository.deleteById(id);
+        questionIndex.remove(id);
+        questionCatalog.invalidate(id);
+        itemAnalysisEngine.onQuestionDeleted(id);
+    }
+    
+    /**
+     * Get questions by id from the shared catalog, in the order of the ids.
+     * Questions that no longer exist are returned as null entries.
+     */
+    @Timed("quiz.questions")
+    public List<QuestionSnapshot> getCatalogQuestions(long[] ids) {
+        return questionCatalog.getAll(ids);
+    }
+    
+    /**
+     * Get a single question from the shared catalog
+     */
+    public Optional<QuestionSnapshot> getCatalogQuestion(long id) {
+        return Optional.ofNullable(questionCatalog.get(id));
     }
     
     /**
@@ -78,56 +129,128 @@ public class QuestionService {
      * Get random questions for quiz
      */
     public List<Question> getRandomQuestions(int limit) {
-        return questionRepository.findRandomQuestions(limit);
+        return findQuestionsInOrder(sampleQuestionIds(null, null, limit));
     }
     
     /**
      * Get random questions by category
      */
     public List<Question> getRandomQuestionsByCategory(String category, int limit) {
-        return questionRepository.findRandomQuestionsByCategory(category, limit);
+        return findQuestionsInOrder(sampleQuestionIds(category, null, limit));
     }
     
     /**
      * Get random questions by difficulty
      */
     public List<Question> getRandomQuestionsByDifficulty(String difficulty, int limit) {
-        return questionRepository.findRandomQuestionsByDifficulty(difficulty, limit);
+        return findQuestionsInOrder(sampleQuestionIds(null, difficulty, limit));
+    }
+    
+    /**
+     * Get random questions matching any combination of filters.
+     * Ids are sampled first and only the selected rows are fetched in one batched lookup.
+     * A null category or difficulty matches every value.
+     */
+    @Timed("quiz.questions")
+    public List<Question> getRandomQuestions(String category, String difficulty, int limit) {
+        return findQuestionsInOrder(sampleQuestionIds(category, difficulty, limit));
+    }
+    
+    /**
+     * Sample distinct question ids from the in-memory index without touching the database.
+     * A null category or difficulty matches every value.
+     */
+    @Timed("quiz.questions")
+    public long[] sampleQuestionIds(String category, String difficulty, int limit) {
+        ensureIndexLoaded();
+        return questionIndex.sample(category, difficulty, limit, ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Reload the in-memory question index from the database.
+     * Call after writing questions through the repository directly (e.g. bulk loads).
+     */
+    @Timed("quiz.questions")
+    public void rebuildIndex() {
+        questionIndex.rebuild(questionRepository::findIndexEntries);
+        questionCatalog.clear();
+    }
+    
+    private void ensureIndexLoaded() {
+        if (!questionIndex.isLoaded()) {
+            synchronized (questionIndex) {
+                if (!questionIndex.isLoaded()) {
+                    rebuildIndex();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Fetch questions in one batched lookup, keeping the order of the given ids
+     */
+    private List<Question> findQuestionsInOrder(long[] ids) {
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            idList.add(id);
+        }
+        Map<Long, Question> byId = new HashMap<>(ids.length * 2);
+        for (Question question : questionRepository.findAllById(idList)) {
+            byId.put(question.getId(), question);
+        }
+        questionCatalog.putAll(byId.values());
+        List<Question> ordered = new ArrayList<>(ids.length);
+        for (Long id : idList) {
+            Question question = byId.get(id);
+            if (question != null) {
+                ordered.add(question);
+            }
+        }
+        return ordered;
+    }
+    
+    /**
+     * Category, difficulty and pair counts of the question bank, served from memory
+     */
+    public CatalogMetadata getCatalogMetadata() {
+        ensureIndexLoaded();
+        return questionIndex.getMetadata();
     }
     
     /**
      * Get all categories
      */
     public List<String> getAllCategories() {
-        return questionRepository.findAllCategories();
+        return getCatalogMetadata().getCategories();
     }
     
     /**
      * Get all difficulty levels
      */
     public List<String> getAllDifficulties() {
-        return questionRepository.findAllDifficulties();
+        return getCatalogMetadata().getDifficulties();
     }
     
     /**
      * Count questions by category
      */
     public long countQuestionsByCategory(String category) {
-        return questionRepository.countByCategory(category);
+        return getCatalogMetadata().getCategoryCount(category);
     }
     
     /**
      * Count questions by difficulty
      */
     public long countQuestionsByDifficulty(String difficulty) {
-        return questionRepository.countByDifficulty(difficulty);
+        return getCatalogMetadata().getDifficultyCount(difficulty);
     }
     
     /**
-     * Get total number of questions
+     * Get total number of questions (from the in-memory index)
      */
     public long getTotalQuestions() {
-        return questionRepository.count();
+        ensureIndexLoaded();
+        return questionIndex.size();
     }
     
     /**
@@ -141,18 +264,49 @@ public class QuestionService {
      * Validate question answer
      */
     public boolean isCorrectAnswer(Long questionId, String answer) {
-        Optional<Question> question = questionRepository.findById(questionId);
-        if (question.isPresent()) {
-            return question.get().getCorrectAnswer().equalsIgnoreCase(answer);
-        }
-        return false;
+        QuestionSnapshot question = questionCatalog.get(questionId);
+        return question != null && question.isCorrect(answer);
     }
     
     /**
      * Get explanation for a question
      */
     public String getQuestionExplanation(Long questionId) {
-        Optional<Question> question = questionRepository.findById(questionId);
-        return question.map(Question::getExplanation).orElse("No explanation available.");
+        QuestionSnapshot question = questionCatalog.get(questionId);
+        return question != null ? question.getExplanation() : "No explanation available.";
+    }
+    
+    /**
+     * Hit, miss and eviction counters of the question cache
+     */
+    public QuestionCatalog.Stats getCatalogStats() {
+        return questionCatalog.getStats();
+    }
+    
+    /**
+     * Item analysis (p-value, choice distribution, discrimination) of a single question
+     */
+    public Optional<ItemStatistics> getItemStatistics(long questionId) {
+        return getCatalogQuestion(questionId).map(itemAnalysisEngine::getStatistics);
+    }
+    
+    /**
+     * Item analysis of every existing question that has been attempted, ordered by question id
+     */
+    public List<ItemStatistics> getItemStatistics() {
+        List<ItemStatistics> statistics = new ArrayList<>();
+        for (QuestionSnapshot question : questionCatalog.getAll(itemAnalysisEngine.getAttemptedQuestionIds())) {
+            if (question != null) {
+                statistics.add(itemAnalysisEngine.getStatistics(question));
+            }
+        }
+        return statistics;
+    }
+    
+    /**
+     * Rebuild the item analysis from all stored results and report how far the incremental state had drifted
+     */
+    public ItemAnalysisReport recomputeItemStatistics() {
+        return itemAnalysisEngine.recompute();
     }
 }
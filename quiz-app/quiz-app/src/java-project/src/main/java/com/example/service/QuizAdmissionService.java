@@ -0,0 +1,424 @@
+package com.example.service;
+
+import com.example.dto.AdmissionStats;
+import com.example.dto.QuizStartRequest;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of quiz start, so that an exam-start spike degrades into a
+ * waiting line instead of saturating the request threads and the database.
+ *
+ * A start needs a token from a global token bucket (quiz.admission.starts-per-second, with a
+ * burst allowance) and a free slot in its exam's concurrency limit. The exam is the scheduled
+ * exam the quiz was started for, or else its category (see examKey); limits per exam come from
+ * quiz.admission.exam-limits, others use quiz.admission.max-concurrent-starts. Students that cannot
+ * start right away get a ticket in a bounded waiting line and poll it; tokens are handed to waiting
+ * tickets strictly in arrival order, and a newcomer never overtakes a waiting ticket of the same exam.
+ *
+ * Each exam has its own FIFO line, so granting only looks at the head of each line and a position
+ * is the difference of two arrival sequence numbers. Tickets that stop polling expire after
+ * quiz.admission.ticket-timeout-ms once they reach the head of their line (or when they poll again).
+ */
+@Service
+public class QuizAdmissionService {
+
+    @Value("${quiz.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quiz.admission.starts-per-second:50}")
+    private double startsPerSecond;
+
+    @Value("${quiz.admission.burst:100}")
+    private int burst;
+
+    @Value("${quiz.admission.queue-capacity:5000}")
+    private int queueCapacity;
+
+    @Value("${quiz.admission.max-concurrent-starts:20}")
+    private int defaultExamLimit;
+
+    // Comma-separated exam:limit pairs, e.g. "Data Structures:10,Algorithms:5,exam-42:30"
+    @Value("${quiz.admission.exam-limits:}")
+    private String examLimitsSpec;
+
+    @Value("${quiz.admission.ticket-timeout-ms:15000}")
+    private long ticketTimeoutMs;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private TokenBucket bucket;
+
+    private final Map<String, Integer> examLimits = new HashMap<>();
+
+    private final Map<String, ExamState> exams = new HashMap<>();
+
+    // Exams whose line may hold waiting tickets
+    private final Set<ExamState> examsWaiting = new LinkedHashSet<>();
+
+    // Waiting and granted tickets by id
+    private final Map<String, Ticket> tickets = new HashMap<>();
+
+    // Granted tickets in grant order; picked up ones are dropped when they reach the head
+    private final ArrayDeque<Ticket> grants = new ArrayDeque<>();
+
+    private long arrivals;
+
+    private int waitingCount;
+
+    private int maxQueueDepth;
+
+    private long admittedImmediately;
+
+    private long admittedFromQueue;
+
+    private long rejected;
+
+    private long abandoned;
+
+    private long totalWaitNanos;
+
+    private long maxWaitNanos;
+
+    @PostConstruct
+    void start() {
+        bucket = new TokenBucket(startsPerSecond, burst, System.nanoTime());
+        for (String pair : examLimitsSpec.split(",")) {
+            int colon = pair.lastIndexOf(':');
+            if (colon > 0) {
+                examLimits.put(pair.substring(0, colon).trim(), Integer.parseInt(pair.substring(colon + 1).trim()));
+            }
+        }
+    }
+
+    /**
+     * The exam a start counts against: "exam-" plus the scheduled exam's id, or else the category
+     */
+    public static String examKey(String category, Long examId) {
+        if (examId != null) {
+            return "exam-" + examId;
+        }
+        return category == null ? "All" : category;
+    }
+
+    /**
+     * Admit a start right away if a token and an exam slot are free and nobody of the same exam is waiting.
+     * Returns null if the caller has to queue.
+     */
+    public synchronized Permit tryAdmit(String exam) {
+        if (!enabled) {
+            return new Permit(null);
+        }
+        long now = System.nanoTime();
+        dispatch(now);
+        ExamState state = exam(exam);
+        if (state.waiting > 0 || !state.hasCapacity() || !bucket.tryAcquire(now)) {
+            return null;
+        }
+        state.inProgress++;
+        admittedImmediately++;
+        return new Permit(state);
+    }
+
+    /**
+     * Put a start in the waiting line. Returns null if the line is full.
+     */
+    public synchronized Ticket enqueue(String exam, QuizStartRequest start) {
+        long now = System.nanoTime();
+        dispatch(now);
+        if (waitingCount >= queueCapacity) {
+            rejected++;
+            return null;
+        }
+        ExamState state = exam(exam);
+        Ticket ticket = new Ticket(newTicketId(), state, start, ++arrivals, ++state.arrivals, now);
+        tickets.put(ticket.id, ticket);
+        state.line.addLast(ticket);
+        state.waiting++;
+        examsWaiting.add(state);
+        waitingCount++;
+        maxQueueDepth = Math.max(maxQueueDepth, waitingCount);
+        return ticket;
+    }
+
+    /**
+     * Check a ticket: either admitted (the caller must close the permit once the start is done)
+     * or still waiting with its position. Returns null for unknown or expired tickets.
+     */
+    public synchronized Admission poll(String ticketId) {
+        long now = System.nanoTime();
+        dispatch(now);
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            return null;
+        }
+        if (ticket.status == Status.GRANTED) {
+            tickets.remove(ticketId);
+            ticket.status = Status.GONE;
+            ticket.exam.reserved--;
+            ticket.exam.inProgress++;
+            return new Admission(new Permit(ticket.exam), ticket.start, 0, 0);
+        }
+        if (now - ticket.lastSeen > TimeUnit.MILLISECONDS.toNanos(ticketTimeoutMs)) {
+            expire(ticket); // stays in its line until it reaches the head
+            return null;
+        }
+        ticket.lastSeen = now;
+        // Tickets ahead in the same exam's line, and in the whole line for the token estimate
+        int position = (int) (ticket.examSeq - liveHead(ticket.exam, now).examSeq) + 1;
+        long oldest = ticket.seq;
+        for (ExamState state : examsWaiting) {
+            Ticket head = liveHead(state, now);
+            if (head != null) {
+                oldest = Math.min(oldest, head.seq);
+            }
+        }
+        long waitNanos = bucket.nanosUntil(ticket.seq - oldest + 1, now);
+        return new Admission(null, ticket.start, position, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+    }
+
+    public synchronized AdmissionStats getStats() {
+        Map<String, Integer> inProgress = new TreeMap<>();
+        exams.forEach((name, state) -> {
+            if (state.inProgress > 0) {
+                inProgress.put(name, state.inProgress);
+            }
+        });
+        return new AdmissionStats(waitingCount, maxQueueDepth, admittedImmediately, admittedFromQueue, rejected,
+                                  abandoned, admittedFromQueue == 0 ? 0.0 : totalWaitNanos / 1e6 / admittedFromQueue,
+                                  maxWaitNanos / 1_000_000, inProgress);
+    }
+
+    /**
+     * Expire grants that were not picked up, then hand tokens to the heads of the exam lines in
+     * arrival order. An exam at its limit keeps its line without blocking other exams.
+     * Costs one step per exam with waiting tickets for every token handed out.
+     */
+    private void dispatch(long now) {
+        long timeout = TimeUnit.MILLISECONDS.toNanos(ticketTimeoutMs);
+        while (!grants.isEmpty()) {
+            Ticket ticket = grants.peekFirst();
+            if (ticket.status == Status.GRANTED && now - ticket.lastSeen <= timeout) {
+                break;
+            }
+            grants.pollFirst();
+            if (ticket.status == Status.GRANTED) {
+                tickets.remove(ticket.id);
+                ticket.status = Status.GONE;
+                ticket.exam.reserved--;
+                abandoned++;
+            }
+        }
+
+        while (waitingCount > 0) {
+            Ticket next = null;
+            for (Iterator<ExamState> it = examsWaiting.iterator(); it.hasNext(); ) {
+                ExamState state = it.next();
+                Ticket head = liveHead(state, now);
+                if (head == null) {
+                    it.remove();
+                } else if (state.hasCapacity() && (next == null || head.seq < next.seq)) {
+                    next = head;
+                }
+            }
+            if (next == null || !bucket.tryAcquire(now)) {
+                return;
+            }
+            ExamState state = next.exam;
+            state.line.pollFirst();
+            state.waiting--;
+            waitingCount--;
+            state.reserved++;
+            next.status = Status.GRANTED;
+            next.lastSeen = now; // the grant expires if it is not picked up
+            grants.addLast(next);
+            long waited = now - next.enqueuedAt;
+            admittedFromQueue++;
+            totalWaitNanos += waited;
+            maxWaitNanos = Math.max(maxWaitNanos, waited);
+        }
+    }
+
+    /**
+     * First ticket of the exam's line that is still waiting, after dropping expired and abandoned ones
+     */
+    private Ticket liveHead(ExamState state, long now) {
+        long timeout = TimeUnit.MILLISECONDS.toNanos(ticketTimeoutMs);
+        while (!state.line.isEmpty()) {
+            Ticket head = state.line.peekFirst();
+            if (head.status == Status.WAITING && now - head.lastSeen <= timeout) {
+                return head;
+            }
+            state.line.pollFirst();
+            if (head.status == Status.WAITING) {
+                expire(head);
+            }
+        }
+        return null;
+    }
+
+    private void expire(Ticket ticket) {
+        tickets.remove(ticket.id);
+        ticket.status = Status.GONE;
+        ticket.exam.waiting--;
+        waitingCount--;
+        abandoned++;
+    }
+
+    private String newTicketId() {
+        byte[] id = new byte[16];
+        random.nextBytes(id);
+        return HexFormat.of().formatHex(id);
+    }
+
+    private ExamState exam(String exam) {
+        String name = exam == null ? "All" : exam;
+        return exams.computeIfAbsent(name, n -> new ExamState(examLimits.getOrDefault(n, defaultExamLimit)));
+    }
+
+    private synchronized void release(ExamState state) {
+        state.inProgress--;
+    }
+
+    /**
+     * Starts of one exam: running, granted but not yet picked up, and waiting in its line
+     */
+    private static final class ExamState {
+
+        private final int limit;
+
+        private final ArrayDeque<Ticket> line = new ArrayDeque<>();
+
+        private long arrivals;
+
+        private int inProgress;
+
+        private int reserved;
+
+        private int waiting;
+
+        ExamState(int limit) {
+            this.limit = limit;
+        }
+
+        boolean hasCapacity() {
+            return inProgress + reserved < limit;
+        }
+    }
+
+    private enum Status { WAITING, GRANTED, GONE }
+
+    /**
+     * A place in the waiting line
+     */
+    public static final class Ticket {
+
+        private final String id;
+
+        private final ExamState exam;
+
+        private final QuizStartRequest start;
+
+        private final long seq; // arrival order over all exams
+
+        private final long examSeq; // arrival order within the exam's line
+
+        private final long enqueuedAt;
+
+        private long lastSeen;
+
+        private Status status = Status.WAITING;
+
+        Ticket(String id, ExamState exam, QuizStartRequest start, long seq, long examSeq, long now) {
+            this.id = id;
+            this.exam = exam;
+            this.start = start;
+            this.seq = seq;
+            this.examSeq = examSeq;
+            this.enqueuedAt = now;
+            this.lastSeen = now;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    /**
+     * Outcome of polling a ticket
+     */
+    public static final class Admission {
+
+        private final Permit permit;
+
+        private final QuizStartRequest start;
+
+        private final int position;
+
+        private final long estimatedWaitSeconds;
+
+        Admission(Permit permit, QuizStartRequest start, int position, long estimatedWaitSeconds) {
+            this.permit = permit;
+            this.start = start;
+            this.position = position;
+            this.estimatedWaitSeconds = estimatedWaitSeconds;
+        }
+
+        public boolean isAdmitted() {
+            return permit != null;
+        }
+
+        /** Permit to start, null while waiting */
+        public Permit getPermit() {
+            return permit;
+        }
+
+        /** The start parameters given when the ticket was issued */
+        public QuizStartRequest getStart() {
+            return start;
+        }
+
+        /** 1 = next in line; 0 once admitted */
+        public int getPosition() {
+            return position;
+        }
+
+        public long getEstimatedWaitSeconds() {
+            return estimatedWaitSeconds;
+        }
+    }
+
+    /**
+     * Holds one of the exam's concurrent start slots until closed
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final ExamState state;
+
+        private boolean closed;
+
+        private Permit(ExamState state) {
+            this.state = state;
+        }
+
+        @Override
+        public void close() {
+            if (!closed && state != null) {
+                release(state);
+            }
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.service;
+
+import com.example.model.QuizAttempt;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Where the state of an in-progress quiz attempt lives between requests.
+ * Selected with the quiz.state.mode property ("session" or "token").
+ */
+public interface QuizAttemptStore {
+
+    /**
+     * Load the attempt for this request, or null if there is none or it is no longer valid
+     */
+    QuizAttempt load(HttpServletRequest request);
+
+    /**
+     * Store the (possibly modified) attempt
+     */
+    void save(QuizAttempt attempt, HttpServletRequest request, HttpServletResponse response);
+
+    /**
+     * Forget the attempt once it has been graded
+     */
+    void complete(QuizAttempt attempt, HttpServletRequest request, HttpServletResponse response);
+}
@@ -0,0 +1,129 @@
+package com.example.service;
+
+import com.example.dto.AdmissionStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Gauges and counters over the counters the services already keep. They are read only when
+ * metrics are scraped, so recording them adds nothing to the request paths.
+ */
+@Component
+public class QuizMetrics implements MeterBinder {
+
+    @Autowired
+    private AttemptDeadlineService attemptDeadlines;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizAdmissionService quizAdmissionService;
+
+    @Autowired
+    private QuizResultWriter quizResultWriter;
+
+    @Autowired
+    private AnswerEventRecorder answerEventRecorder;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private QuestionPageRenderer questionPageRenderer;
+
+    @Autowired
+    private LiveStatisticsBroadcaster liveStatisticsBroadcaster;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("quiz.attempts.started", quizService, QuizService::getStartedAttemptCount)
+                .description("Quiz attempts started")
+                .register(registry);
+        FunctionCounter.builder("quiz.attempts.submitted", quizService, QuizService::getSubmittedAttemptCount)
+                .description("Attempts graded when the student submitted them")
+                .register(registry);
+        // Attempts with a pending deadline: started and neither submitted nor auto-submitted yet.
+        // Only the deadline timers know when an abandoned attempt ends, so without them (deadlines
+        // disabled, or token mode) the gauge is left out rather than reporting 0; started minus
+        // submitted is the closest signal there.
+        if (attemptDeadlines.isTracking()) {
+            Gauge.builder("quiz.attempts.active", attemptDeadlines, AttemptDeadlineService::getPendingCount)
+                    .description("Quiz attempts in progress")
+                    .register(registry);
+        }
+        FunctionCounter.builder("quiz.attempts.auto.submitted", attemptDeadlines,
+                                AttemptDeadlineService::getAutoSubmittedCount)
+                .description("Attempts submitted by the server when their time limit passed")
+                .register(registry);
+
+        Gauge.builder("quiz.admission.queue.depth", quizAdmissionService, service -> service.getStats().queueDepth())
+                .description("Students in the waiting line for a quiz start")
+                .register(registry);
+        admissionCounter(registry, "immediate", AdmissionStats::admittedImmediately);
+        admissionCounter(registry, "queued", AdmissionStats::admittedFromQueue);
+        admissionCounter(registry, "rejected", AdmissionStats::rejected);
+        admissionCounter(registry, "abandoned", AdmissionStats::abandoned);
+
+        Gauge.builder("quiz.results.write.queue.depth", quizResultWriter, QuizResultWriter::getQueueDepth)
+                .description("Results accepted and not yet inserted")
+                .register(registry);
+
+        answerEventCounter(registry, "recorded", AnswerEventRecorder::getRecordedCount);
+        answerEventCounter(registry, "written", AnswerEventRecorder::getWrittenCount);
+        answerEventCounter(registry, "dropped", AnswerEventRecorder::getDroppedCount);
+
+        Gauge.builder("quiz.questions.total", questionService, QuestionService::getTotalQuestions)
+                .description("Questions in the question bank")
+                .register(registry);
+        Gauge.builder("quiz.question.cache.size", questionService, service -> service.getCatalogStats().getSize())
+                .register(registry);
+        FunctionCounter.builder("quiz.question.cache.requests", questionService,
+                                service -> service.getCatalogStats().getHits())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("quiz.question.cache.requests", questionService,
+                                service -> service.getCatalogStats().getMisses())
+                .tag("result", "miss")
+                .register(registry);
+
+        FunctionCounter.builder("quiz.pages.prerendered", questionPageRenderer, QuestionPageRenderer::getHitCount)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("quiz.pages.prerendered", questionPageRenderer, QuestionPageRenderer::getRenderCount)
+                .tag("result", "render")
+                .register(registry);
+
+        Gauge.builder("quiz.live.subscribers", liveStatisticsBroadcaster,
+                      broadcaster -> broadcaster.getStats().subscribers())
+                .description("Open live statistics streams")
+                .register(registry);
+        FunctionCounter.builder("quiz.live.frames", liveStatisticsBroadcaster,
+                                broadcaster -> broadcaster.getStats().framesSent())
+                .tag("state", "sent")
+                .register(registry);
+        FunctionCounter.builder("quiz.live.frames", liveStatisticsBroadcaster,
+                                broadcaster -> broadcaster.getStats().framesDropped())
+                .tag("state", "dropped")
+                .register(registry);
+    }
+
+    private void admissionCounter(MeterRegistry registry, String outcome, ToDoubleFunction<AdmissionStats> count) {
+        FunctionCounter.builder("quiz.admission.starts", quizAdmissionService,
+                                service -> count.applyAsDouble(service.getStats()))
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private void answerEventCounter(MeterRegistry registry, String state, ToDoubleFunction<AnswerEventRecorder> count) {
+        FunctionCounter.builder("quiz.answer.events", answerEventRecorder, count)
+                .tag("state", state)
+                .register(registry);
+    }
+}
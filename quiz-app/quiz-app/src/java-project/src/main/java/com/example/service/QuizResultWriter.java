@@ -0,0 +1,312 @@
+package com.example.service;
+
+import com.example.event.QuizResultSavedEvent;
+import com.example.model.QuizResult;
+import com.example.repository.QuizResultRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists graded quiz results, either synchronously or write-behind.
+ *
+ * In write-behind mode (quiz.results.write-behind.enabled=true) the result gets its id from
+ * ResultIdAllocator and is queued; a background writer drains the queue into multi-row
+ * INSERTs. When the bounded queue stays full for offer-timeout-ms the submitting thread
+ * inserts its own result instead (backpressure). The queue is flushed on shutdown.
+ * QuizResultSavedEvent is published once a result is actually in the table, and each insert is
+ * tracked by ResultChangeTracker until its events are out. A result whose insert fails stays
+ * readable by id and is retried while the writer is idle.
+ */
+@Component
+public class QuizResultWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizResultWriter.class);
+
+    private static final String COLUMNS = "(id, student_name, student_email, total_questions, correct_answers, " +
+            "incorrect_answers, score, attempt_date, time_taken, category, feedback, question_ids, answer_codes, attempt_id)";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long FLUSH_WAIT_MS = TimeUnit.SECONDS.toMillis(5);
+
+    private static final long RETRY_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @Autowired
+    private ResultIdAllocator resultIdAllocator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ResultChangeTracker resultChangeTracker;
+
+    @Value("${quiz.results.write-behind.enabled:false}")
+    private boolean writeBehind;
+
+    @Value("${quiz.results.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${quiz.results.write-behind.batch-size:100}")
+    private int batchSize;
+
+    @Value("${quiz.results.write-behind.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<QuizResult> queue;
+
+    // Accepted but not yet inserted, so they can still be read back by id
+    private final Map<Long, QuizResult> pending = new ConcurrentHashMap<>();
+
+    // Pending results whose insert failed, waiting to be retried
+    private final Map<Long, QuizResult> unwritten = new ConcurrentHashMap<>();
+
+    private Thread writerThread;
+
+    private volatile boolean running;
+
+    private long nextRetryAt;
+
+    @PostConstruct
+    void start() {
+        if (!writeBehind) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writerThread = new Thread(this::drainLoop, "quiz-result-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Save a result. Returns immediately with the id assigned in write-behind mode.
+     */
+    public QuizResult write(QuizResult result) {
+        if (!writeBehind || !running) {
+            QuizResult saved = quizResultRepository.save(result);
+            eventPublisher.publishEvent(new QuizResultSavedEvent(saved));
+            return saved;
+        }
+
+        result.setId(resultIdAllocator.nextId());
+        pending.put(result.getId(), result);
+        boolean queued;
+        try {
+            queued = queue.offer(result, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            // Queue is full: make the submitter pay for its own insert instead of buffering more
+            insert(List.of(result));
+        }
+        return result;
+    }
+
+    /**
+     * A result that has been accepted but not inserted yet
+     */
+    public Optional<QuizResult> findPending(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(pending.get(id));
+    }
+
+    /**
+     * Insert a pending result right away instead of waiting for the writer.
+     * Returns false if the result is still not in the table afterwards.
+     */
+    public boolean flushPending(Long id) {
+        QuizResult result = pending.get(id);
+        if (result != null && (unwritten.remove(id) != null || queue.remove(result))) {
+            insert(List.of(result));
+        }
+        // Otherwise the writer already took it; wait a bounded time for its batch to land
+        long deadline = System.currentTimeMillis() + FLUSH_WAIT_MS;
+        try {
+            while (pending.containsKey(id) && !unwritten.containsKey(id) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !pending.containsKey(id);
+    }
+
+    /**
+     * Number of results waiting to be inserted
+     */
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Number of accepted results whose insert failed and is waiting to be retried
+     */
+    public int getUnwrittenCount() {
+        return unwritten.size();
+    }
+
+    /**
+     * Block until everything accepted so far has been inserted or has failed to insert
+     * (used by tests and benchmarks)
+     */
+    public void awaitFlushed() throws InterruptedException {
+        while (pending.size() > unwritten.size()) {
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Block until every result accepted before this call has been inserted or has failed to insert.
+     * Results accepted meanwhile are not waited for, so this returns under a steady stream of writes.
+     */
+    public void awaitFlushedSoFar() throws InterruptedException {
+        Set<Long> ids = new HashSet<>(pending.keySet());
+        while (!ids.isEmpty()) {
+            ids.removeIf(id -> !pending.containsKey(id) || unwritten.containsKey(id));
+            if (!ids.isEmpty()) {
+                Thread.sleep(5);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        // Flush whatever the writer did not get to
+        List<QuizResult> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            insert(remaining.subList(from, Math.min(remaining.size(), from + batchSize)));
+        }
+        retryUnwritten();
+        if (!unwritten.isEmpty()) {
+            log.error("Shutting down with {} quiz results that could not be inserted: {}",
+                    unwritten.size(), unwritten.values());
+        }
+    }
+
+    private void drainLoop() {
+        List<QuizResult> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                QuizResult first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (!unwritten.isEmpty() && System.currentTimeMillis() >= nextRetryAt) {
+                        nextRetryAt = System.currentTimeMillis() + RETRY_INTERVAL_MS;
+                        retryUnwritten();
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                insert(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Insert results with one multi-row INSERT, falling back to row by row if the batch fails
+     */
+    private void insert(List<QuizResult> batch) {
+        Object change = resultChangeTracker.begin();
+        try {
+            insertRows(batch);
+            batch.forEach(this::saved);
+        } catch (RuntimeException batchFailure) {
+            log.warn("Batch insert of {} quiz results failed, retrying row by row", batch.size(), batchFailure);
+            batch.forEach(this::insertOne);
+        } finally {
+            resultChangeTracker.end(change);
+        }
+    }
+
+    private void insertOne(QuizResult result) {
+        Object change = resultChangeTracker.begin();
+        try {
+            insertRows(List.of(result));
+            saved(result);
+        } catch (RuntimeException rowFailure) {
+            // Its id was already handed out, so keep it readable and try again later
+            log.error("Could not insert quiz result {}, will retry", result.getId(), rowFailure);
+            unwritten.put(result.getId(), result);
+        } finally {
+            resultChangeTracker.end(change);
+        }
+    }
+
+    private void retryUnwritten() {
+        for (Long id : List.copyOf(unwritten.keySet())) {
+            QuizResult result = unwritten.remove(id);
+            if (result != null) {
+                insertOne(result);
+            }
+        }
+    }
+
+    private void saved(QuizResult result) {
+        // Publish before it stops being pending: a delete waiting in flushPending must not overtake the save event
+        eventPublisher.publishEvent(new QuizResultSavedEvent(result));
+        pending.remove(result.getId());
+    }
+
+    private void insertRows(List<QuizResult> rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO quiz_results ").append(COLUMNS).append(" VALUES ");
+        Object[] args = new Object[rows.size() * 14];
+        int i = 0;
+        for (QuizResult result : rows) {
+            sql.append(i == 0 ? "" : ", ").append(ROW_PLACEHOLDERS);
+            args[i++] = result.getId();
+            args[i++] = result.getStudentName();
+            args[i++] = result.getStudentEmail();
+            args[i++] = result.getTotalQuestions();
+            args[i++] = result.getCorrectAnswers();
+            args[i++] = result.getIncorrectAnswers();
+            args[i++] = result.getScore();
+            args[i++] = Timestamp.valueOf(result.getAttemptDate());
+            args[i++] = result.getTimeTaken();
+            args[i++] = result.getCategory();
+            args[i++] = result.getFeedback();
+            args[i++] = result.getQuestionIds();
+            args[i++] = result.getAnswerCodes();
+            args[i++] = result.getAttemptId();
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+}
@@ -1,16 +1,37 @@
 package com.example.service;
 
+import com.example.event.QuizResultDeletedEvent;
+import com.example.jfr.AnswerRecordedEvent;
+import com.example.jfr.FeedbackGeneratedEvent;
+import com.example.jfr.QuizGeneratedEvent;
+import com.example.jfr.QuizGradedEvent;
+import com.example.jfr.ResultPersistedEvent;
+import com.example.jfr.StatisticsComputedEvent;
 import com.example.model.Question;
+import com.example.model.QuestionSnapshot;
+import com.example.model.QuizAttempt;
 import com.example.model.QuizResult;
+import com.example.model.ScheduledExam;
 import com.example.repository.QuizResultRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service class for Quiz operations
@@ -25,45 +46,222 @@ public class QuizService {
     @Autowired
     private QuestionService questionService;
     
+    @Autowired
+    private LeaderboardService leaderboardService;
+    
+    @Autowired
+    private QuizStatisticsAggregator statisticsAggregator;
+    
+    @Autowired
+    private ResultChangeTracker resultChangeTracker;
+    
+    @Autowired
+    private StudentSummaryService studentSummaryService;
+    
+    @Autowired
+    private QuizResultWriter quizResultWriter;
+    
+    @Autowired
+    private AnswerEventRecorder answerEventRecorder;
+    
+    @Autowired
+    private ItemAnalysisEngine itemAnalysisEngine;
+    
+    @Autowired
+    private ScheduledExamService scheduledExamService;
+    
+    @Autowired
+    private AttemptDeadlineService attemptDeadlines;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${quiz.time-limit-minutes:30}")
+    private long timeLimitMinutes;
+    
+    private final AtomicLong attemptsStarted = new AtomicLong();
+    
+    private final AtomicLong attemptsSubmitted = new AtomicLong();
+    
+    @PostConstruct
+    void registerDeadlineSubmitter() {
+        attemptDeadlines.setSubmitter(this::submitExpiredAttempt);
+    }
+    
     /**
      * Calculate quiz score and create result
      */
+    @Timed("quiz.service")
     public QuizResult calculateAndSaveResult(String studentName, String studentEmail, 
                                            List<Question> questions, Map<Long, String> answers, 
                                            long timeTaken, String category) {
         
         int totalQuestions = questions.size();
-        int correctAnswers = 0;
-        int incorrectAnswers = 0;
+        String[] key = new String[totalQuestions];
+        String[] provided = new String[totalQuestions];
+        for (int i = 0; i < totalQuestions; i++) {
+            Question question = questions.get(i);
+            key[i] = question.getCorrectAnswer();
+            provided[i] = answers.get(question.getId());
+        }
         
         // Calculate correct answers
-        for (Question question : questions) {
-            String providedAnswer = answers.get(question.getId());
-            if (providedAnswer != null && providedAnswer.equalsIgnoreCase(question.getCorrectAnswer())) {
-                correctAnswers++;
-            } else {
-                incorrectAnswers++;
+        GradingEngine.Grade grade = GradingEngine.grade(GradingEngine.PackedChoices.fromLetters(key),
+                                                        GradingEngine.PackedChoices.fromLetters(provided));
+        
+        long[] questionIds = new long[totalQuestions];
+        byte[] answerCodes = new byte[totalQuestions];
+        for (int i = 0; i < totalQuestions; i++) {
+            questionIds[i] = questions.get(i).getId();
+            answerCodes[i] = QuizAttempt.encodeAnswer(provided[i]);
+        }
+        return saveResult(studentName, studentEmail, totalQuestions, grade, timeTaken,
+                          category, questionIds, answerCodes, null);
+    }
+    
+    /**
+     * Grade a compact quiz attempt and save the result.
+     * Questions are resolved from the shared catalog; questions that no longer exist count as incorrect.
+     * If the attempt's deadline already fired, the result saved by the auto-submission is returned instead.
+     */
+    @Timed("quiz.service")
+    public QuizResult calculateAndSaveResult(QuizAttempt attempt, long timeTaken) {
+        CompletableFuture<QuizResult> autoSubmission = attemptDeadlines.complete(attempt.getAttemptId());
+        if (autoSubmission != null) {
+            try {
+                return autoSubmission.join();
+            } catch (CompletionException e) {
+                // The auto-submission failed; grade the attempt as submitted now
             }
         }
+        attemptsSubmitted.incrementAndGet();
+        return gradeAndSave(attempt, timeTaken);
+    }
+    
+    /**
+     * Attempts started since startup
+     */
+    public long getStartedAttemptCount() {
+        return attemptsStarted.get();
+    }
+    
+    /**
+     * Attempts graded on the student's submit since startup (auto-submissions are counted by AttemptDeadlineService)
+     */
+    public long getSubmittedAttemptCount() {
+        return attemptsSubmitted.get();
+    }
+    
+    /**
+     * Auto-submit an attempt whose deadline passed, with the answers given so far.
+     * The time taken is the full time limit.
+     */
+    private QuizResult submitExpiredAttempt(QuizAttempt attempt) {
+        return gradeAndSave(attempt, (attempt.getDeadline() - attempt.getStartTime()) / 1000);
+    }
+    
+    /**
+     * Grade an attempt, save the result and add it to the item analysis
+     */
+    private QuizResult gradeAndSave(QuizAttempt attempt, long timeTaken) {
+        QuizGradedEvent graded = new QuizGradedEvent();
+        graded.begin();
+        GradingEngine.Grade grade = gradeAttempt(attempt);
+        graded.record(attempt, grade.getCorrect());
+        return saveResult(attempt.getStudentName(), attempt.getStudentEmail(), attempt.getTotalQuestions(),
+                          grade, timeTaken, attempt.getCategory(),
+                          attempt.getQuestionIds(), attempt.getAnswers(), attempt.getAttemptId());
+    }
+    
+    /**
+     * Record an answer on the attempt and capture it as an answer event.
+     * Elapsed time is measured from the start of the attempt; answers to questions outside the attempt
+     * and answers given after the time limit are ignored.
+     */
+    public void recordAnswer(QuizAttempt attempt, long questionId, String answer) {
+        if (attempt.indexOf(questionId) < 0 || isTimeUp(attempt)) {
+            return;
+        }
+        AnswerRecordedEvent recorded = new AnswerRecordedEvent();
+        recorded.begin();
+        attempt.recordAnswer(questionId, answer);
+        attemptDeadlines.recordAnswer(attempt.getAttemptId(), questionId, answer);
+        boolean correct = questionService.getCatalogQuestion(questionId)
+                .map(question -> question.isCorrect(answer))
+                .orElse(false);
+        answerEventRecorder.record(attempt.getAttemptId(), questionId, QuizAttempt.encodeAnswer(answer), correct,
+                                   System.currentTimeMillis() - attempt.getStartTime());
+        recorded.record(attempt, questionId, correct);
+    }
+    
+    /**
+     * Whether the attempt's time limit (including the grace period) has passed
+     */
+    public boolean isTimeUp(QuizAttempt attempt) {
+        return attemptDeadlines.isTimeUp(attempt, System.currentTimeMillis());
+    }
+    
+    /**
+     * Grade an attempt against the current answer key without saving it.
+     * Questions that no longer exist count as incorrect.
+     */
+    @Timed("quiz.service")
+    public GradingEngine.Grade gradeAttempt(QuizAttempt attempt) {
+        List<QuestionSnapshot> questions = questionService.getCatalogQuestions(attempt.getQuestionIds());
+        byte[] key = new byte[questions.size()];
+        for (int i = 0; i < key.length; i++) {
+            QuestionSnapshot question = questions.get(i);
+            key[i] = question != null ? question.getCorrectAnswerCode() : QuizAttempt.NO_ANSWER;
+        }
+        return GradingEngine.grade(GradingEngine.PackedChoices.fromCodes(key),
+                                   GradingEngine.PackedChoices.fromCodes(attempt.getAnswers()));
+    }
+    
+    /**
+     * Score, add feedback to and save a graded attempt, keeping its questions and answers for regrading,
+     * and add it to the item analysis
+     */
+    private QuizResult saveResult(String studentName, String studentEmail, int totalQuestions,
+                                  GradingEngine.Grade grade, long timeTaken, String category,
+                                  long[] questionIds, byte[] answerCodes, Long attemptId) {
+        int correctAnswers = grade.getCorrect();
+        int incorrectAnswers = totalQuestions - correctAnswers;
         
         // Calculate percentage score
         double score = (totalQuestions > 0) ? (double) correctAnswers / totalQuestions * 100 : 0.0;
         
         // Generate feedback
+        FeedbackGeneratedEvent feedbackGenerated = new FeedbackGeneratedEvent();
+        feedbackGenerated.begin();
         String feedback = generateFeedback(score, correctAnswers, totalQuestions, timeTaken);
+        feedbackGenerated.record(attemptId, totalQuestions, score);
         
         // Create and save quiz result
         QuizResult result = new QuizResult(studentName, studentEmail, totalQuestions, 
                                          correctAnswers, incorrectAnswers, score, 
                                          timeTaken, category, feedback);
+        result.setQuestionIds(AnswerSheetCodec.encodeQuestionIds(questionIds));
+        result.setAnswerCodes(AnswerSheetCodec.packAnswers(answerCodes));
+        result.setAttemptId(attemptId);
         
-        return quizResultRepository.save(result);
+        ResultPersistedEvent persisted = new ResultPersistedEvent();
+        persisted.begin();
+        // The item analysis rebuild waits for the sheet as well as the saved event
+        Object change = resultChangeTracker.begin();
+        try {
+            QuizResult saved = quizResultWriter.write(result);
+            persisted.record(attemptId, totalQuestions, saved);
+            itemAnalysisEngine.record(saved.getId(), questionIds, answerCodes, grade);
+            return saved;
+        } finally {
+            resultChangeTracker.end(change);
+        }
     }
     
     /**
      * Generate personalized feedback based on performance
      */
-    private String generateFeedback(double score, int correctAnswers, int totalQuestions, long timeTaken) {
+    String generateFeedback(double score, int correctAnswers, int totalQuestions, long timeTaken) {
         StringBuilder feedback = new StringBuilder();
         
         // Performance feedback
@@ -110,7 +308,8 @@ public class QuizService {
      * Get quiz result by ID
      */
     public Optional<QuizResult> getResultById(Long id) {
-        return quizResultRepository.findById(id);
+        Optional<QuizResult> pending = quizResultWriter.findPending(id);
+        return pending.isPresent() ? pending : quizResultRepository.findById(id);
     }
     
     /**
@@ -120,6 +319,16 @@ public class QuizService {
         return quizResultRepository.findByStudentEmail(studentEmail);
     }
     
+    /**
+     * A student's most recent results, oldest of them first
+     */
+    public List<QuizResult> getRecentResultsByStudentEmail(String studentEmail, int limit) {
+        List<QuizResult> results = new ArrayList<>(quizResultRepository.findByStudentEmailOrderByAttemptDateDescIdDesc(
+                studentEmail, PageRequest.of(0, limit)));
+        Collections.reverse(results);
+        return results;
+    }
+    
     /**
      * Get results by category
      */
@@ -128,64 +337,57 @@ public class QuizService {
     }
     
     /**
-     * Get top scoring results
+     * Get top scoring results (bounded, served from the in-memory leaderboard)
      */
     public List<QuizResult> getTopScores() {
-        return quizResultRepository.findTopScores();
+        return leaderboardService.getTopScores();
     }
     
     /**
-     * Get recent quiz attempts
+     * Get top scoring results in a category (bounded, served from the in-memory leaderboard)
+     */
+    public List<QuizResult> getTopScores(String category) {
+        return leaderboardService.getTopScores(category);
+    }
+    
+    /**
+     * Get recent quiz attempts (bounded, served from the in-memory leaderboard)
      */
     public List<QuizResult> getRecentAttempts() {
-        return quizResultRepository.findRecentAttempts();
+        return leaderboardService.getRecentAttempts();
     }
     
     /**
-     * Get quiz statistics
+     * Get quiz statistics from the incrementally maintained aggregate (no database access).
+     * totalStudents is an estimate (HyperLogLog, ~1% error).
      */
+    @Timed("quiz.service")
     public Map<String, Object> getQuizStatistics() {
+        StatisticsComputedEvent computed = new StatisticsComputedEvent();
+        computed.begin();
         Map<String, Object> stats = new HashMap<>();
+        QuizStatisticsAggregator.Snapshot snapshot = statisticsAggregator.getSnapshot();
         
-        stats.put("totalAttempts", quizResultRepository.getTotalAttempts());
-        stats.put("averageScore", quizResultRepository.getAverageScore());
-        stats.put("highestScore", quizResultRepository.getHighestScore());
-        stats.put("lowestScore", quizResultRepository.getLowestScore());
+        stats.put("totalAttempts", snapshot.getCount());
+        stats.put("averageScore", snapshot.getAverage());
+        stats.put("highestScore", snapshot.getMax());
+        stats.put("lowestScore", snapshot.getMin());
         stats.put("totalQuestions", questionService.getTotalQuestions());
-        stats.put("totalStudents", quizResultRepository.findAllStudentEmails().size());
+        stats.put("totalStudents", snapshot.getDistinctStudents());
         
+        computed.record("quiz", stats);
         return stats;
     }
     
     /**
-     * Get student statistics
+     * Get student statistics from the cached per-student summary
      */
+    @Timed("quiz.service")
     public Map<String, Object> getStudentStatistics(String studentEmail) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        List<QuizResult> studentResults = getResultsByStudentEmail(studentEmail);
-        stats.put("totalAttempts", studentResults.size());
-        
-        if (!studentResults.isEmpty()) {
-            double avgScore = studentResults.stream()
-                    .mapToDouble(QuizResult::getScore)
-                    .average()
-                    .orElse(0.0);
-            
-            double bestScore = studentResults.stream()
-                    .mapToDouble(QuizResult::getScore)
-                    .max()
-                    .orElse(0.0);
-            
-            stats.put("averageScore", avgScore);
-            stats.put("bestScore", bestScore);
-            stats.put("latestAttempt", studentResults.get(0).getAttemptDate());
-        } else {
-            stats.put("averageScore", 0.0);
-            stats.put("bestScore", 0.0);
-            stats.put("latestAttempt", null);
-        }
-        
+        StatisticsComputedEvent computed = new StatisticsComputedEvent();
+        computed.begin();
+        Map<String, Object> stats = studentSummaryService.getStudentStatistics(studentEmail);
+        computed.record("student", stats);
         return stats;
     }
     
@@ -200,7 +402,18 @@ public class QuizService {
      * Delete quiz result
      */
     public void deleteResult(Long id) {
-        quizResultRepository.deleteById(id);
+        // It has to be in the table before it can be deleted
+        if (quizResultWriter.findPending(id).isPresent() && !quizResultWriter.flushPending(id)) {
+            throw new IllegalStateException("Quiz result " + id + " has not been saved yet");
+        }
+        Object change = resultChangeTracker.begin();
+        try {
+            Optional<QuizResult> result = quizResultRepository.findById(id);
+            quizResultRepository.deleteById(id);
+            result.ifPresent(deleted -> eventPublisher.publishEvent(new QuizResultDeletedEvent(deleted)));
+        } finally {
+            resultChangeTracker.end(change);
+        }
     }
     
     /**
@@ -218,26 +431,83 @@ public class QuizService {
     }
     
     /**
-     * Generate quiz questions based on preferences
+     * Generate quiz questions based on preferences.
+     * Any combination of filters is sampled at random from the question index,
+     * so only the selected questions are loaded from the database.
      */
+    @Timed("quiz.service")
     public List<Question> generateQuiz(String category, String difficulty, int questionCount) {
-        List<Question> questions;
-        
-        if (category != null && !category.equals("All") && difficulty != null && !difficulty.equals("All")) {
-            questions = questionService.getQuestionsByCategoryAndDifficulty(category, difficulty);
-        } else if (category != null && !category.equals("All")) {
-            questions = questionService.getRandomQuestionsByCategory(category, questionCount);
-        } else if (difficulty != null && !difficulty.equals("All")) {
-            questions = questionService.getRandomQuestionsByDifficulty(difficulty, questionCount);
-        } else {
-            questions = questionService.getRandomQuestions(questionCount);
+        return questionService.getRandomQuestions(filterValue(category), filterValue(difficulty), questionCount);
+    }
+    
+    /**
+     * Generate a quiz and wrap it in a new compact attempt with a deadline.
+     * Returns null when no questions match the criteria.
+     */
+    @Timed("quiz.service")
+    public QuizAttempt startAttempt(String studentName, String studentEmail, String category,
+                                    String difficulty, int questionCount) {
+        QuizGeneratedEvent generated = new QuizGeneratedEvent();
+        generated.begin();
+        List<Question> questions = generateQuiz(category, difficulty, questionCount);
+        if (questions.isEmpty()) {
+            return null;
         }
         
-        // Limit to requested number of questions
-        if (questions.size() > questionCount) {
-            return questions.subList(0, questionCount);
+        long[] questionIds = new long[questions.size()];
+        for (int i = 0; i < questionIds.length; i++) {
+            questionIds[i] = questions.get(i).getId();
         }
-        
-        return questions;
+        QuizAttempt attempt = newAttempt(studentName, studentEmail, category, questionIds);
+        generated.record(attempt, 0, difficulty);
+        return attempt;
+    }
+    
+    /**
+     * Start an attempt of a scheduled exam on one of its pre-generated decks.
+     * Before the decks exist or once they run out, the quiz is sampled on demand.
+     * Returns null when the exam does not exist or no questions match it.
+     */
+    @Timed("quiz.service")
+    public QuizAttempt startExamAttempt(String studentName, String studentEmail, long examId) {
+        QuizGeneratedEvent generated = new QuizGeneratedEvent();
+        generated.begin();
+        ScheduledExam exam = scheduledExamService.getExam(examId).orElse(null);
+        if (exam == null) {
+            return null;
+        }
+        long[] questionIds = scheduledExamService.claimDeck(examId);
+        if (questionIds == null) {
+            questionIds = questionService.sampleQuestionIds(filterValue(exam.getCategory()),
+                                                            filterValue(exam.getDifficulty()),
+                                                            exam.getQuestionCount());
+            if (questionIds.length == 0) {
+                return null;
+            }
+        }
+        QuizAttempt attempt = newAttempt(studentName, studentEmail,
+                                         exam.getCategory() != null ? exam.getCategory() : "All", questionIds);
+        generated.record(attempt, examId, exam.getDifficulty());
+        return attempt;
+    }
+    
+    /**
+     * Wrap question ids in a new compact attempt and start the clock on its deadline
+     */
+    private QuizAttempt newAttempt(String studentName, String studentEmail, String category, long[] questionIds) {
+        long startTime = System.currentTimeMillis();
+        long attemptId = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        QuizAttempt attempt = new QuizAttempt(attemptId, studentName, studentEmail, category, questionIds,
+                                              startTime, startTime + timeLimitMinutes * 60_000);
+        attemptDeadlines.register(attempt);
+        attemptsStarted.incrementAndGet();
+        return attempt;
+    }
+    
+    /**
+     * Map the "All" option from the setup form to "no filter"
+     */
+    private String filterValue(String value) {
+        return (value == null || value.equals("All")) ? null : value;
     }
 }
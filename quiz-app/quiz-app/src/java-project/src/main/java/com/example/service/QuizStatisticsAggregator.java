@@ -0,0 +1,278 @@
+package com.example.service;
+
+import com.example.event.QuizResultDeletedEvent;
+import com.example.event.QuizResultSavedEvent;
+import com.example.model.QuizResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incrementally maintained aggregate over all quiz results: count, sum, min, max and an
+ * estimate of distinct students. Reads are O(1) and never touch the database.
+ *
+ * Deletes cannot restore a min/max or un-count a student, so they mark the aggregate stale;
+ * the reconcile job then rebuilds it from the table. A full reconcile also runs periodically.
+ * The rebuild scans one repeatable-read snapshot of the table without holding the lock; saves and
+ * deletes that arrive meanwhile are replayed onto the rebuilt aggregate unless the snapshot already
+ * contains them, and the result is swapped in under the lock. Changes the snapshot contains but that were
+ * not announced yet are waited for first, so they cannot reach the rebuilt aggregate a second time.
+ */
+@Component
+public class QuizStatisticsAggregator {
+
+    private static final int ID_LOOKUP_BATCH = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ResultChangeTracker resultChangeTracker;
+
+    private volatile Snapshot snapshot;
+
+    // Guarded by this
+    private HyperLogLog students = new HyperLogLog();
+
+    // Guarded by this
+    private boolean stale;
+
+    // Saves and deletes seen while a rebuild scans the table, null otherwise; guarded by this
+    private List<Change> changesDuringRebuild;
+
+    // One rebuild at a time
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Current aggregate, built from the table on first use
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reconcile();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    @EventListener
+    public synchronized void onResultSaved(QuizResultSavedEvent event) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(new Change(event.getResult(), true));
+        }
+        if (snapshot == null) {
+            return; // the first reconcile will read it from the table
+        }
+        snapshot = added(snapshot, students, event.getResult());
+    }
+
+    @EventListener
+    public synchronized void onResultDeleted(QuizResultDeletedEvent event) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(new Change(event.getResult(), false));
+        }
+        if (snapshot == null) {
+            return;
+        }
+        snapshot = removed(snapshot, event.getResult());
+        // Min, max and the student estimate may now be wrong
+        stale = true;
+    }
+
+    /**
+     * Reconcile soon after a delete made the aggregate stale
+     */
+    @Scheduled(fixedDelayString = "${quiz.statistics.stale-check-ms:5000}")
+    public void reconcileIfStale() {
+        boolean needed;
+        synchronized (this) {
+            needed = stale;
+        }
+        if (needed) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Rebuild the aggregate from the results table without blocking updates and reads
+     */
+    @Scheduled(fixedDelayString = "${quiz.statistics.reconcile-interval-ms:600000}",
+               initialDelayString = "${quiz.statistics.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            TransactionTemplate snapshotRead = new TransactionTemplate(transactionManager);
+            snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            snapshotRead.setReadOnly(true);
+            try {
+                snapshotRead.executeWithoutResult(status -> rebuild());
+            } finally {
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs in one repeatable-read transaction, so every query sees the same table contents
+     */
+    private void rebuild() {
+        Map<String, Object> row = jdbcTemplate.queryForList(
+                "SELECT COUNT(*) AS cnt, SUM(score) AS total, MIN(score) AS low, MAX(score) AS high FROM quiz_results")
+                .get(0);
+        long count = ((Number) row.get("cnt")).longValue();
+        // The snapshot is taken; let changes it already contains be announced while they are still buffered
+        awaitChangesInFlight();
+
+        HyperLogLog rebuiltStudents = new HyperLogLog();
+        jdbcTemplate.query("SELECT DISTINCT student_email FROM quiz_results",
+                           (RowCallbackHandler) rs -> rebuiltStudents.add(rs.getString(1)));
+        Snapshot rebuilt = new Snapshot(count,
+                                        count == 0 ? 0 : ((Number) row.get("total")).doubleValue(),
+                                        count == 0 ? 0 : ((Number) row.get("low")).doubleValue(),
+                                        count == 0 ? 0 : ((Number) row.get("high")).doubleValue(),
+                                        rebuiltStudents.estimate());
+
+        // Replay what arrived during the scan off the lock; swap once nothing new came in meanwhile
+        boolean removedAny = false;
+        Set<Long> replayed = new HashSet<>();
+        List<Change> changes = takeChanges();
+        while (true) {
+            Set<Long> inSnapshot = idsInSnapshot(changes);
+            for (Change change : changes) {
+                Long id = change.result().getId();
+                if (change.saved() && !inSnapshot.contains(id)) {
+                    rebuilt = added(rebuilt, rebuiltStudents, change.result());
+                    replayed.add(id);
+                } else if (!change.saved() && (inSnapshot.contains(id) || replayed.remove(id))) {
+                    rebuilt = removed(rebuilt, change.result());
+                    removedAny = true; // min and max may be off again
+                }
+            }
+            synchronized (this) {
+                if (changesDuringRebuild.isEmpty()) {
+                    students = rebuiltStudents;
+                    snapshot = rebuilt;
+                    stale = removedAny;
+                    return;
+                }
+                changes = takeChanges();
+            }
+        }
+    }
+
+    private void awaitChangesInFlight() {
+        try {
+            resultChangeTracker.awaitInFlight();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding the quiz statistics", e);
+        }
+    }
+
+    private synchronized List<Change> takeChanges() {
+        List<Change> changes = changesDuringRebuild;
+        changesDuringRebuild = new ArrayList<>();
+        return changes;
+    }
+
+    /**
+     * Which of the changed results the rebuild's snapshot of the table contains
+     */
+    private Set<Long> idsInSnapshot(List<Change> changes) {
+        List<Long> ids = changes.stream().map(change -> change.result().getId()).distinct().toList();
+        Set<Long> found = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += ID_LOOKUP_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + ID_LOOKUP_BATCH));
+            String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+            found.addAll(jdbcTemplate.queryForList("SELECT id FROM quiz_results WHERE id IN (" + placeholders + ")",
+                                                   Long.class, batch.toArray()));
+        }
+        return found;
+    }
+
+    private static Snapshot added(Snapshot current, HyperLogLog students, QuizResult result) {
+        // Only re-estimate when a register changed; most saves are by returning students
+        long distinctStudents = students.add(result.getStudentEmail()) ? students.estimate() : current.distinctStudents;
+        double score = result.getScore();
+        return new Snapshot(current.count + 1, current.sum + score,
+                            current.count == 0 ? score : Math.min(current.min, score),
+                            current.count == 0 ? score : Math.max(current.max, score),
+                            distinctStudents);
+    }
+
+    private static Snapshot removed(Snapshot current, QuizResult result) {
+        long count = current.count - 1;
+        return new Snapshot(count, count == 0 ? 0 : current.sum - result.getScore(),
+                            current.min, current.max, current.distinctStudents);
+    }
+
+    private record Change(QuizResult result, boolean saved) {
+    }
+
+    /**
+     * Immutable view of the aggregate
+     */
+    public static final class Snapshot {
+
+        private final long count;
+
+        private final double sum;
+
+        private final double min;
+
+        private final double max;
+
+        private final long distinctStudents;
+
+        Snapshot(long count, double sum, double min, double max, long distinctStudents) {
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+            this.distinctStudents = distinctStudents;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /** Average score, or null when there are no results (like SQL AVG) */
+        public Double getAverage() {
+            return count == 0 ? null : sum / count;
+        }
+
+        /** Lowest score, or null when there are no results */
+        public Double getMin() {
+            return count == 0 ? null : min;
+        }
+
+        /** Highest score, or null when there are no results */
+        public Double getMax() {
+            return count == 0 ? null : max;
+        }
+
+        public long getDistinctStudents() {
+            return distinctStudents;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.service;
+
+import com.example.model.QuizAttempt;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encodes a quiz attempt into a compact HMAC-signed token and back.
+ * Layout: version, attempt id, start time, deadline, cursor, question ids (varints),
+ * answers (two per byte), student name, email and category, followed by a truncated HMAC-SHA256.
+ */
+public class QuizTokenCodec {
+
+    private static final byte VERSION = 1;
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final int MAC_LENGTH = 16;
+
+    public static final int MAX_QUESTIONS = 1_000;
+
+    private final SecretKeySpec key;
+
+    private final ThreadLocal<Mac> macs;
+
+    public QuizTokenCodec(byte[] secret) {
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Serialize and sign an attempt as a URL- and cookie-safe string
+     * @throws IllegalArgumentException if the attempt has more questions than a token may carry
+     */
+    public String encode(QuizAttempt attempt) {
+        if (attempt.getTotalQuestions() > MAX_QUESTIONS) {
+            throw new IllegalArgumentException("A quiz token holds at most " + MAX_QUESTIONS + " questions, not "
+                                               + attempt.getTotalQuestions());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + attempt.getTotalQuestions() * 4);
+        out.write(VERSION);
+        writeVarLong(out, attempt.getAttemptId());
+        writeVarLong(out, attempt.getStartTime());
+        writeVarLong(out, attempt.getDeadline());
+        writeVarLong(out, attempt.getCurrentIndex());
+
+        long[] questionIds = attempt.getQuestionIds();
+        writeVarLong(out, questionIds.length);
+        for (long id : questionIds) {
+            writeVarLong(out, id);
+        }
+        byte[] answers = attempt.getAnswers();
+        for (int i = 0; i < answers.length; i += 2) {
+            int high = answers[i] & 0x0F;
+            int low = (i + 1 < answers.length) ? answers[i + 1] & 0x0F : 0;
+            out.write((high << 4) | low);
+        }
+        writeString(out, attempt.getStudentName());
+        writeString(out, attempt.getStudentEmail());
+        writeString(out, attempt.getCategory());
+
+        byte[] payload = out.toByteArray();
+        byte[] token = Arrays.copyOf(payload, payload.length + MAC_LENGTH);
+        System.arraycopy(sign(payload, payload.length), 0, token, payload.length, MAC_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * Verify the signature and deserialize an attempt
+     * @throws InvalidQuizTokenException if the token is malformed or was not signed with our key
+     */
+    public QuizAttempt decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQuizTokenException("Malformed quiz token");
+        }
+        if (bytes.length <= MAC_LENGTH) {
+            throw new InvalidQuizTokenException("Malformed quiz token");
+        }
+        int payloadLength = bytes.length - MAC_LENGTH;
+        byte[] expected = sign(bytes, payloadLength);
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(bytes, payloadLength, bytes.length))) {
+            throw new InvalidQuizTokenException("Quiz token signature mismatch");
+        }
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes, 0, payloadLength);
+            if (in.get() != VERSION) {
+                throw new InvalidQuizTokenException("Unsupported quiz token version");
+            }
+            long attemptId = readVarLong(in);
+            long startTime = readVarLong(in);
+            long deadline = readVarLong(in);
+            int currentIndex = (int) readVarLong(in);
+            int count = (int) readVarLong(in);
+            if (count < 0 || count > MAX_QUESTIONS || currentIndex < 0 || currentIndex > count) {
+                throw new InvalidQuizTokenException("Malformed quiz token");
+            }
+            long[] questionIds = new long[count];
+            for (int i = 0; i < count; i++) {
+                questionIds[i] = readVarLong(in);
+            }
+            byte[] answers = new byte[count];
+            for (int i = 0; i < count; i += 2) {
+                int packed = in.get() & 0xFF;
+                answers[i] = (byte) (packed >>> 4);
+                if (i + 1 < count) {
+                    answers[i + 1] = (byte) (packed & 0x0F);
+                }
+            }
+            String studentName = readString(in);
+            String studentEmail = readString(in);
+            String category = readString(in);
+            return new QuizAttempt(attemptId, studentName, studentEmail, category,
+                                   questionIds, answers, currentIndex, startTime, deadline);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new InvalidQuizTokenException("Malformed quiz token");
+        }
+    }
+
+    private byte[] sign(byte[] data, int length) {
+        Mac mac = macs.get();
+        mac.update(data, 0, length);
+        return Arrays.copyOf(mac.doFinal(), MAC_LENGTH);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new InvalidQuizTokenException("Malformed quiz token");
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new InvalidQuizTokenException("Malformed quiz token");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Thrown when a quiz token is malformed, tampered with or replayed
+     */
+    public static class InvalidQuizTokenException extends RuntimeException {
+
+        public InvalidQuizTokenException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks saves and deletes of quiz results from before they are written until their event is published.
+ *
+ * A rebuild that reads a snapshot of quiz_results waits for the changes in flight once its snapshot is taken.
+ * A change the snapshot already contains is then announced while the rebuild still buffers changes, instead
+ * of after the rebuilt state was swapped in, where it would be applied a second time.
+ */
+@Component
+public class ResultChangeTracker {
+
+    // Ticket -> thread making the change
+    private final Map<Object, Thread> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Start tracking a change; pass the returned ticket to end once its event has been published
+     */
+    public Object begin() {
+        Object ticket = new Object();
+        inFlight.put(ticket, Thread.currentThread());
+        return ticket;
+    }
+
+    public void end(Object ticket) {
+        inFlight.remove(ticket);
+    }
+
+    /**
+     * Block until every change begun before this call has ended. Changes begun meanwhile are not waited for,
+     * and neither are changes of the calling thread, which could never end while it waits.
+     */
+    public void awaitInFlight() throws InterruptedException {
+        Thread self = Thread.currentThread();
+        List<Object> waiting = new ArrayList<>();
+        inFlight.forEach((ticket, thread) -> {
+            if (thread != self) {
+                waiting.add(ticket);
+            }
+        });
+        while (!waiting.isEmpty()) {
+            waiting.removeIf(ticket -> !inFlight.containsKey(ticket));
+            if (!waiting.isEmpty()) {
+                Thread.sleep(1);
+            }
+        }
+    }
+}
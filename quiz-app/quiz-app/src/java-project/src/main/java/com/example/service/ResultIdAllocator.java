@@ -0,0 +1,31 @@
+package com.example.service;
+
+import com.example.model.QuizResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out quiz result ids from the same sequence Hibernate uses, with the same
+ * pooled-lo semantics: each sequence value v reserves the block [v, v + allocationSize).
+ * One database round trip per block instead of one per result.
+ */
+@Component
+public class ResultIdAllocator {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long next;
+
+    private long limit;
+
+    public synchronized long nextId() {
+        if (next >= limit) {
+            Long blockStart = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR quiz_results_seq", Long.class);
+            next = blockStart;
+            limit = blockStart + QuizResult.ID_ALLOCATION_SIZE;
+        }
+        return next++;
+    }
+}
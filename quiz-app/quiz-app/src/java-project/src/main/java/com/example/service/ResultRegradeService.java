@@ -0,0 +1,359 @@
+package com.example.service;
+
+import com.example.dto.RegradeReport;
+import com.example.event.QuestionAnswerChangedEvent;
+import com.example.model.QuestionSnapshot;
+import com.example.model.QuizAttempt;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Recomputes stored quiz results after an answer key changed.
+ *
+ * Results are streamed from the table in id-ordered chunks (keyset pagination, no OFFSET).
+ * Each chunk is decoded, filtered to the results that contain a changed question, and graded
+ * in parallel on a dedicated fork-join pool with the same GradingEngine as live grading.
+ * Results whose count of correct answers changed are written back in one JDBC batch per chunk.
+ *
+ * Only the count of correct answers is stored, so a result that contains a question deleted
+ * since it was graded cannot be graded from scratch. Such results keep their stored count,
+ * adjusted only for the changed questions whose previous key is known (answer key change events
+ * carry it; an admin regrade does not). This assumes the result was graded before the change.
+ * Jobs run one at a time in the background; the in-memory leaderboards and statistics are
+ * refreshed when a job changed anything.
+ */
+@Service
+public class ResultRegradeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultRegradeService.class);
+
+    private static final String SELECT_CHUNK = "SELECT id, total_questions, correct_answers, time_taken, " +
+            "question_ids, answer_codes FROM quiz_results " +
+            "WHERE id > ? AND question_ids IS NOT NULL AND total_questions > 0 ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_RESULT = "UPDATE quiz_results SET correct_answers = ?, " +
+            "incorrect_answers = ?, score = ?, feedback = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuestionCatalog questionCatalog;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizResultWriter quizResultWriter;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private QuizStatisticsAggregator statisticsAggregator;
+
+    @Autowired
+    private StudentSummaryService studentSummaryService;
+
+    @Value("${quiz.regrade.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${quiz.regrade.parallelism:0}")
+    private int parallelism;
+
+    @Value("${quiz.regrade.progress-interval:100000}")
+    private long progressInterval;
+
+    private final ExecutorService jobs = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "result-regrade");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ForkJoinPool pool;
+
+    private volatile Progress current;
+
+    @PostConstruct
+    void start() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void stop() {
+        jobs.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @EventListener
+    public void onAnswerKeyChanged(QuestionAnswerChangedEvent event) {
+        submit(Set.of(event.getQuestionId()),
+               Map.of(event.getQuestionId(), QuizAttempt.encodeAnswer(event.getPreviousAnswer())));
+    }
+
+    /**
+     * Queue a regrade of every result containing one of the questions (all results if empty)
+     */
+    public Future<RegradeReport> submit(Collection<Long> questionIds) {
+        return submit(questionIds, Map.of());
+    }
+
+    private Future<RegradeReport> submit(Collection<Long> questionIds, Map<Long, Byte> previousKey) {
+        Set<Long> changed = Set.copyOf(questionIds);
+        return jobs.submit(() -> {
+            try {
+                return regrade(changed, previousKey);
+            } catch (RuntimeException e) {
+                log.error("Regrade for questions {} failed", changed, e);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Progress of the running regrade, or the outcome of the last one (null if none has run)
+     */
+    public RegradeReport getProgress() {
+        Progress progress = current;
+        return progress == null ? null : progress.report();
+    }
+
+    /**
+     * Wait for every queued regrade to finish (used by tests and benchmarks)
+     */
+    public void awaitIdle() throws InterruptedException, ExecutionException {
+        jobs.submit(() -> { }).get();
+    }
+
+    /**
+     * Regrade on the calling thread. Every result containing one of the questions is regraded,
+     * or every result with stored answers if the collection is empty.
+     */
+    public RegradeReport regrade(Collection<Long> questionIds) {
+        return regrade(questionIds, Map.of());
+    }
+
+    /**
+     * Regrade with the keys the changed questions had before (used for results with deleted questions)
+     */
+    private synchronized RegradeReport regrade(Collection<Long> questionIds, Map<Long, Byte> previousKey) {
+        Set<Long> changed = new HashSet<>(questionIds);
+        try {
+            // Results still queued for insert were graded with the old key too; later ones already use the new key
+            quizResultWriter.awaitFlushedSoFar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted before regrading", e);
+        }
+
+        Progress progress = new Progress(changed);
+        current = progress;
+        long lastId = 0;
+        while (true) {
+            List<StoredSheet> chunk = jdbcTemplate.query(SELECT_CHUNK, (rs, row) -> new StoredSheet(
+                    rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getLong(4), rs.getBytes(5), rs.getBytes(6)),
+                    lastId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            lastId = chunk.get(chunk.size() - 1).id();
+
+            List<Object[]> updates;
+            try {
+                // parallelStream inside a task of our own pool runs on that pool, not the common one
+                updates = pool.submit(() -> regradeChunk(chunk, changed, previousKey, progress)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Regrade interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Regrade failed", e.getCause());
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_RESULT, updates);
+            }
+
+            long before = progress.scanned;
+            progress.scanned += chunk.size();
+            progress.updated += updates.size();
+            if (before / progressInterval != progress.scanned / progressInterval) {
+                log.info("Regrade: {} results scanned, {} affected, {} updated ({} results/s)",
+                         progress.scanned, progress.affected, progress.updated, Math.round(progress.resultsPerSecond()));
+            }
+        }
+        progress.finish();
+
+        if (progress.updated > 0) {
+            leaderboardService.rebuild();
+            statisticsAggregator.reconcile();
+            studentSummaryService.evictAll();
+        }
+        log.info("Regrade for questions {} finished: {} scanned, {} affected, {} updated in {} ms",
+                 changed.isEmpty() ? "(all)" : changed, progress.scanned, progress.affected, progress.updated,
+                 progress.elapsedMs());
+        return progress.report();
+    }
+
+    /**
+     * Grade the affected results of one chunk; returns the UPDATE arguments of results whose grade changed
+     */
+    private List<Object[]> regradeChunk(List<StoredSheet> chunk, Set<Long> changed, Map<Long, Byte> previousKey,
+                                        Progress progress) {
+        List<DecodedSheet> affected = chunk.parallelStream()
+                .map(sheet -> new DecodedSheet(sheet, AnswerSheetCodec.decodeQuestionIds(sheet.questionIds())))
+                .filter(decoded -> changed.isEmpty() || containsAny(decoded.questionIds(), changed))
+                .toList();
+        progress.affected += affected.size();
+        if (affected.isEmpty()) {
+            return List.of();
+        }
+
+        // One catalog lookup per distinct question in the chunk, shared read-only by the workers
+        Set<Long> distinct = new HashSet<>();
+        for (DecodedSheet decoded : affected) {
+            for (long id : decoded.questionIds()) {
+                distinct.add(id);
+            }
+        }
+        long[] ids = distinct.stream().mapToLong(Long::longValue).toArray();
+        List<QuestionSnapshot> questions = questionCatalog.getAll(ids);
+        // Deleted questions are left out of the key
+        Map<Long, Byte> answerKey = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            QuestionSnapshot question = questions.get(i);
+            if (question != null) {
+                answerKey.put(ids[i], question.getCorrectAnswerCode());
+            }
+        }
+
+        return affected.parallelStream()
+                .map(decoded -> regradeSheet(decoded, answerKey, previousKey))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private Object[] regradeSheet(DecodedSheet decoded, Map<Long, Byte> answerKey, Map<Long, Byte> previousKey) {
+        StoredSheet sheet = decoded.sheet();
+        long[] questionIds = decoded.questionIds();
+        byte[] answers = AnswerSheetCodec.unpackAnswers(sheet.answerCodes(), questionIds.length);
+        byte[] key = new byte[questionIds.length];
+        boolean complete = true;
+        for (int i = 0; i < key.length; i++) {
+            Byte code = answerKey.get(questionIds[i]);
+            complete &= code != null;
+            key[i] = code != null ? code : QuizAttempt.NO_ANSWER;
+        }
+        int correct;
+        if (complete) {
+            correct = GradingEngine.countCorrect(GradingEngine.PackedChoices.fromCodes(key),
+                                                 GradingEngine.PackedChoices.fromCodes(answers));
+        } else {
+            correct = adjustForChangedKeys(sheet.correctAnswers(), questionIds, answers, key, previousKey);
+        }
+        if (correct == sheet.correctAnswers()) {
+            return null;
+        }
+        int total = sheet.totalQuestions();
+        double score = (double) correct / total * 100;
+        String feedback = quizService.generateFeedback(score, correct, total, sheet.timeTaken());
+        return new Object[] {correct, total - correct, score, feedback, sheet.id()};
+    }
+
+    /**
+     * The stored count, moved by each changed question that still exists and whose previous key is known
+     */
+    private static int adjustForChangedKeys(int storedCorrect, long[] questionIds, byte[] answers, byte[] key,
+                                            Map<Long, Byte> previousKey) {
+        int correct = storedCorrect;
+        for (int i = 0; i < questionIds.length; i++) {
+            Byte previous = previousKey.get(questionIds[i]);
+            if (previous != null && previous != QuizAttempt.NO_ANSWER && key[i] != QuizAttempt.NO_ANSWER) {
+                correct += (answers[i] == key[i] ? 1 : 0) - (answers[i] == previous ? 1 : 0);
+            }
+        }
+        return Math.max(0, Math.min(questionIds.length, correct));
+    }
+
+    private static boolean containsAny(long[] ids, Set<Long> changed) {
+        for (long id : ids) {
+            if (changed.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A stored result row as read from the table
+     */
+    private record StoredSheet(long id, int totalQuestions, int correctAnswers, long timeTaken,
+                               byte[] questionIds, byte[] answerCodes) {
+    }
+
+    private record DecodedSheet(StoredSheet sheet, long[] questionIds) {
+    }
+
+    /**
+     * Counters of one regrade job; written by one thread at a time
+     */
+    private static final class Progress {
+
+        private final List<Long> questionIds;
+
+        private final long startNanos = System.nanoTime();
+
+        private volatile long scanned;
+
+        private volatile long affected;
+
+        private volatile long updated;
+
+        private volatile long finishNanos;
+
+        Progress(Set<Long> questionIds) {
+            this.questionIds = questionIds.stream().sorted().toList();
+        }
+
+        void finish() {
+            finishNanos = System.nanoTime();
+        }
+
+        long elapsedNanos() {
+            long end = finishNanos;
+            return (end == 0 ? System.nanoTime() : end) - startNanos;
+        }
+
+        long elapsedMs() {
+            return elapsedNanos() / 1_000_000;
+        }
+
+        double resultsPerSecond() {
+            long nanos = elapsedNanos();
+            return nanos == 0 ? 0.0 : scanned * 1e9 / nanos;
+        }
+
+        RegradeReport report() {
+            return new RegradeReport(questionIds, finishNanos != 0, scanned, affected, updated,
+                                     elapsedMs(), resultsPerSecond());
+        }
+    }
+}
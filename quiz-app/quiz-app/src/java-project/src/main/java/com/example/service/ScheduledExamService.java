@@ -0,0 +1,266 @@
+package com.example.service;
+
+import com.example.dto.ExamDeckStatus;
+import com.example.model.ScheduledExam;
+import com.example.repository.ScheduledExamRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scheduled exams and their pre-generated question decks.
+ *
+ * For an exam the category, difficulty, question count and roster size are known in advance, so
+ * quiz.scheduled-exams.pregenerate-lead-minutes before the start a background job samples one deck
+ * per expected student (plus quiz.scheduled-exams.spare-decks-percent spares), stores them in a flat
+ * ExamDeckPool and loads every question they use into the question catalog. Starting the exam then
+ * claims a ready deck without sampling or touching the database. Exams can be joined for
+ * quiz.scheduled-exams.join-window-minutes after their start; afterwards their decks are dropped.
+ * The roster size and the total number of question ids in an exam's decks are bounded, so one exam
+ * cannot make the pool allocate an arbitrarily large array.
+ */
+@Service
+public class ScheduledExamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledExamService.class);
+
+    private static final int WARM_BATCH_SIZE = 1000;
+
+    @Autowired
+    private ScheduledExamRepository scheduledExamRepository;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Value("${quiz.scheduled-exams.pregenerate-lead-minutes:10}")
+    private long leadMinutes;
+
+    @Value("${quiz.scheduled-exams.join-window-minutes:15}")
+    private long joinWindowMinutes;
+
+    @Value("${quiz.scheduled-exams.spare-decks-percent:10}")
+    private int spareDecksPercent;
+
+    @Value("${quiz.scheduled-exams.max-roster-size:5000}")
+    private int maxRosterSize;
+
+    @Value("${quiz.scheduled-exams.max-deck-questions:1000000}")
+    private long maxDeckQuestions;
+
+    // Exams starting within the lead time or still open, refreshed by the background job
+    private volatile Map<Long, ScheduledExam> dueExams = Map.of();
+
+    private final Map<Long, ExamDeckPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Schedule an exam. Its decks are generated right away if it starts within the lead time.
+     */
+    public ScheduledExam createExam(ScheduledExam exam) {
+        if (exam.getTitle() == null || exam.getTitle().isBlank()) {
+            throw new IllegalArgumentException("title is required.");
+        }
+        if (exam.getStartTime() == null) {
+            throw new IllegalArgumentException("startTime is required.");
+        }
+        if (exam.getQuestionCount() <= 0 || exam.getRosterSize() <= 0) {
+            throw new IllegalArgumentException("questionCount and rosterSize must be positive.");
+        }
+        if (exam.getQuestionCount() > QuizTokenCodec.MAX_QUESTIONS) {
+            throw new IllegalArgumentException("questionCount must be at most " + QuizTokenCodec.MAX_QUESTIONS + ".");
+        }
+        if (exam.getRosterSize() > maxRosterSize) {
+            throw new IllegalArgumentException("rosterSize must be at most " + maxRosterSize + ".");
+        }
+        if (deckCount(exam) * exam.getQuestionCount() > maxDeckQuestions) {
+            throw new IllegalArgumentException("The decks of this exam would hold more than " + maxDeckQuestions
+                                               + " questions; lower questionCount or rosterSize.");
+        }
+        exam.setId(null);
+        ScheduledExam saved = scheduledExamRepository.save(exam);
+        pregenerateDueExams();
+        return saved;
+    }
+
+    /**
+     * Remove an exam together with its decks
+     */
+    public void deleteExam(long id) {
+        scheduledExamRepository.deleteById(id);
+        pregenerateDueExams();
+    }
+
+    public Optional<ScheduledExam> getExam(long id) {
+        ScheduledExam due = dueExams.get(id);
+        return due != null ? Optional.of(due) : scheduledExamRepository.findById(id);
+    }
+
+    /**
+     * Exams that have not started yet or can still be joined, earliest first
+     */
+    public List<ScheduledExam> getUpcomingExams() {
+        return scheduledExamRepository.findByStartTimeAfterOrderByStartTime(
+                LocalDateTime.now().minusMinutes(joinWindowMinutes));
+    }
+
+    /**
+     * Exams that can be joined right now, served from memory
+     */
+    public List<ScheduledExam> getOpenExams() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduledExam> open = new ArrayList<>();
+        for (ScheduledExam exam : dueExams.values()) {
+            if (isOpen(exam, now)) {
+                open.add(exam);
+            }
+        }
+        return open;
+    }
+
+    /**
+     * The exam if it can be joined right now, served from memory
+     */
+    public Optional<ScheduledExam> getOpenExam(long id) {
+        ScheduledExam exam = dueExams.get(id);
+        return exam != null && isOpen(exam, LocalDateTime.now()) ? Optional.of(exam) : Optional.empty();
+    }
+
+    /**
+     * Claim one pre-generated deck of question ids. Returns null if the decks are not generated
+     * yet or have run out; the caller then generates the quiz on demand.
+     */
+    public long[] claimDeck(long examId) {
+        ExamDeckPool pool = pools.get(examId);
+        return pool == null ? null : pool.claim();
+    }
+
+    public Optional<ExamDeckStatus> getDeckStatus(long examId) {
+        ExamDeckPool pool = pools.get(examId);
+        return Optional.ofNullable(pool).map(p -> status(examId, p));
+    }
+
+    /**
+     * Generate the decks of an exam now, replacing any unclaimed ones.
+     * Returns null if no questions match the exam.
+     */
+    public synchronized ExamDeckStatus pregenerate(ScheduledExam exam) {
+        ExamDeckPool pool = generate(exam);
+        if (pool == null) {
+            pools.remove(exam.getId());
+            return null;
+        }
+        pools.put(exam.getId(), pool);
+        return status(exam.getId(), pool);
+    }
+
+    /**
+     * Generate decks for exams entering the lead time and drop those of closed or deleted exams
+     */
+    @Scheduled(fixedDelayString = "${quiz.scheduled-exams.check-interval-ms:30000}")
+    public synchronized void pregenerateDueExams() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ScheduledExam> due = new LinkedHashMap<>();
+        for (ScheduledExam exam : scheduledExamRepository.findByStartTimeBetweenOrderByStartTime(
+                now.minusMinutes(joinWindowMinutes), now.plusMinutes(leadMinutes))) {
+            due.put(exam.getId(), exam);
+        }
+        dueExams = due;
+        pools.keySet().retainAll(due.keySet());
+        for (ScheduledExam exam : due.values()) {
+            if (!pools.containsKey(exam.getId())) {
+                pregenerate(exam);
+            }
+        }
+    }
+
+    private ExamDeckPool generate(ScheduledExam exam) {
+        long begin = System.nanoTime();
+        String category = filterValue(exam.getCategory());
+        String difficulty = filterValue(exam.getDifficulty());
+        long deckCount = deckCount(exam);
+        if (deckCount * exam.getQuestionCount() > maxDeckQuestions) {
+            // Stored before the limits applied, or the spare percentage grew since
+            log.warn("Decks of scheduled exam {} would hold more than {} questions; "
+                     + "its quizzes will be generated on demand", exam.getId(), maxDeckQuestions);
+            return null;
+        }
+        int decks = (int) deckCount;
+
+        long[] first = questionService.sampleQuestionIds(category, difficulty, exam.getQuestionCount());
+        int deckSize = first.length;
+        if (deckSize == 0) {
+            log.warn("No questions match scheduled exam {} ({}); its quizzes will be generated on demand",
+                     exam.getId(), exam.getTitle());
+            return null;
+        }
+        long[] questionIds = new long[decks * deckSize];
+        System.arraycopy(first, 0, questionIds, 0, deckSize);
+        for (int deck = 1; deck < decks; deck++) {
+            long[] sample = questionService.sampleQuestionIds(category, difficulty, deckSize);
+            if (sample.length != deckSize) {
+                // Questions were removed while generating; the next run starts over
+                log.warn("Question bank changed while generating decks of scheduled exam {}", exam.getId());
+                return null;
+            }
+            System.arraycopy(sample, 0, questionIds, deck * deckSize, deckSize);
+        }
+
+        long[] distinct = distinct(questionIds);
+        for (int from = 0; from < distinct.length; from += WARM_BATCH_SIZE) {
+            questionService.getCatalogQuestions(
+                    Arrays.copyOfRange(distinct, from, Math.min(distinct.length, from + WARM_BATCH_SIZE)));
+        }
+
+        long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+        log.info("Generated {} decks of {} questions ({} distinct) for scheduled exam {} in {} ms",
+                 decks, deckSize, distinct.length, exam.getId(), elapsedMs);
+        return new ExamDeckPool(questionIds, deckSize, distinct.length, System.currentTimeMillis(), elapsedMs);
+    }
+
+    /**
+     * Roster size plus spares, in long so an oversized roster cannot overflow
+     */
+    private long deckCount(ScheduledExam exam) {
+        long roster = exam.getRosterSize();
+        return roster + (long) Math.ceil(roster * spareDecksPercent / 100.0);
+    }
+
+    private boolean isOpen(ScheduledExam exam, LocalDateTime now) {
+        return !now.isBefore(exam.getStartTime()) && now.isBefore(exam.getStartTime().plusMinutes(joinWindowMinutes));
+    }
+
+    private static ExamDeckStatus status(long examId, ExamDeckPool pool) {
+        return new ExamDeckStatus(examId, pool.getDecks(), pool.getClaimed(), pool.getDeckSize(),
+                                  pool.getDistinctQuestions(), pool.getGeneratedAt(), pool.getGenerationMs());
+    }
+
+    private static long[] distinct(long[] ids) {
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    /**
+     * Map the "All" option to "no filter"
+     */
+    private static String filterValue(String value) {
+        return (value == null || value.equals("All")) ? null : value;
+    }
+}
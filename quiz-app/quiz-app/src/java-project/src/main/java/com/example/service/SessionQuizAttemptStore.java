@@ -0,0 +1,43 @@
+package com.example.service;
+
+import com.example.jfr.AttemptLoadedEvent;
+import com.example.model.QuizAttempt;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default store: keeps the attempt in the HTTP session (requires sticky sessions when clustered)
+ */
+@Component
+@ConditionalOnProperty(name = "quiz.state.mode", havingValue = "session", matchIfMissing = true)
+public class SessionQuizAttemptStore implements QuizAttemptStore {
+
+    private static final String QUIZ_ATTEMPT = "quizAttempt";
+
+    @Override
+    public QuizAttempt load(HttpServletRequest request) {
+        AttemptLoadedEvent loaded = new AttemptLoadedEvent();
+        loaded.begin();
+        HttpSession session = request.getSession(false);
+        QuizAttempt attempt = session == null ? null : (QuizAttempt) session.getAttribute(QUIZ_ATTEMPT);
+        loaded.record("session", attempt);
+        return attempt;
+    }
+
+    @Override
+    public void save(QuizAttempt attempt, HttpServletRequest request, HttpServletResponse response) {
+        // Re-set the attribute so replicated session managers see the change
+        request.getSession().setAttribute(QUIZ_ATTEMPT, attempt);
+    }
+
+    @Override
+    public void complete(QuizAttempt attempt, HttpServletRequest request, HttpServletResponse response) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.service;
+
+import com.example.event.QuizResultDeletedEvent;
+import com.example.event.QuizResultSavedEvent;
+import com.example.model.QuizResult;
+import com.example.model.StudentSummary;
+import com.example.repository.QuizResultRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-student performance summaries served from a bounded LRU cache.
+ * Cached summaries are updated on every saved result; a missing summary is rebuilt
+ * with one grouped aggregate query instead of scanning the student's history. The rebuild
+ * also reads the student's result ids in the same repeatable-read snapshot, so save events
+ * for results it already counted are skipped.
+ */
+@Service
+public class StudentSummaryService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, StudentSummary> cache;
+
+    // Orders rebuilds against concurrent writes for the same student
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public StudentSummaryService(@Value("${quiz.student-summary.cache-size:10000}") int cacheSize) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StudentSummary> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Statistics for one student: totalAttempts, averageScore, bestScore, latestAttempt
+     * and categoryBreakdown (category name to StudentSummary.CategorySummary)
+     */
+    public Map<String, Object> getStudentStatistics(String studentEmail) {
+        synchronized (lockFor(studentEmail)) {
+            StudentSummary summary = cached(studentEmail);
+            if (summary == null) {
+                summary = rebuild(studentEmail);
+                synchronized (cache) {
+                    cache.put(studentEmail, summary);
+                }
+            }
+
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalAttempts", summary.getAttemptCount());
+            stats.put("averageScore", summary.getAverageScore());
+            stats.put("bestScore", summary.getBestScore());
+            stats.put("latestAttempt", summary.getLatestAttempt());
+            Map<String, StudentSummary.CategorySummary> breakdown = new LinkedHashMap<>();
+            summary.getCategories().forEach((category, values) -> breakdown.put(category, values.copy()));
+            stats.put("categoryBreakdown", breakdown);
+            return stats;
+        }
+    }
+
+    @EventListener
+    public void onResultSaved(QuizResultSavedEvent event) {
+        QuizResult result = event.getResult();
+        synchronized (lockFor(result.getStudentEmail())) {
+            StudentSummary summary = cached(result.getStudentEmail());
+            if (summary != null) {
+                summary.apply(result);
+            }
+        }
+    }
+
+    @EventListener
+    public void onResultDeleted(QuizResultDeletedEvent event) {
+        String studentEmail = event.getResult().getStudentEmail();
+        synchronized (lockFor(studentEmail)) {
+            // Best score and latest attempt cannot be rolled back; rebuild on next read
+            synchronized (cache) {
+                cache.remove(studentEmail);
+            }
+        }
+    }
+
+    /**
+     * Drop every cached summary, e.g. after stored results were regraded
+     */
+    public void evictAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private StudentSummary cached(String studentEmail) {
+        synchronized (cache) {
+            return cache.get(studentEmail);
+        }
+    }
+
+    private StudentSummary rebuild(String studentEmail) {
+        TransactionTemplate snapshotRead = new TransactionTemplate(transactionManager);
+        snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshotRead.setReadOnly(true);
+        return snapshotRead.execute(status -> {
+            StudentSummary summary = new StudentSummary();
+            for (Object[] row : quizResultRepository.getSummaryByStudent(studentEmail)) {
+                summary.add((String) row[0],
+                            ((Number) row[1]).longValue(),
+                            ((Number) row[2]).doubleValue(),
+                            ((Number) row[3]).doubleValue(),
+                            (LocalDateTime) row[4]);
+            }
+            summary.setRebuiltIds(quizResultRepository.findIdsByStudentEmail(studentEmail).stream()
+                                          .mapToLong(Long::longValue).toArray());
+            return summary;
+        });
+    }
+
+    private Object lockFor(String studentEmail) {
+        return locks[(studentEmail.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.service;
+
+/**
+ * Token bucket rate limiter: refills at a fixed rate up to a burst capacity.
+ * Not thread-safe; callers hold their own lock.
+ */
+final class TokenBucket {
+
+    private final double tokensPerNano;
+
+    private final double capacity;
+
+    private double tokens;
+
+    private long lastRefill;
+
+    TokenBucket(double tokensPerSecond, int burst, long nowNanos) {
+        this.tokensPerNano = tokensPerSecond / 1e9;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefill = nowNanos;
+    }
+
+    boolean tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Nanoseconds until {@code count} more tokens will have been added (0 if already available)
+     */
+    long nanosUntil(double count, long nowNanos) {
+        refill(nowNanos);
+        double missing = count - tokens;
+        return missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerNano);
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefill = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.service;
+
+import com.example.jfr.AttemptLoadedEvent;
+import com.example.model.QuizAttempt;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stateless store: the attempt travels with the client as an HMAC-signed cookie,
+ * so any node sharing quiz.token.secret can serve any step of the quiz.
+ *
+ * Tampered and malformed tokens are rejected, and so are tokens whose deadline passed more than
+ * quiz.deadlines.grace-ms ago: within the grace period, the same window QuizService.isTimeUp allows,
+ * a submit that arrives just after the deadline is still graded with the answers the token recorded.
+ * No node auto-submits in token mode, so that late submit is the attempt's only chance to be graded.
+ * Every save advances the cursor, which is
+ * part of the signed payload, so a node rejects replays of an older step or of an already
+ * submitted attempt by comparing it with a small per-attempt high-water mark (attempt id, cursor,
+ * deadline) that is swept once deadlines and their grace period pass.
+ *
+ * The high-water mark is local to the node: a node that did not issue the newer token accepts the
+ * older one until the attempt's deadline, so a student can replay an earlier step, or resubmit,
+ * against another node. Route an attempt's requests to one node when that matters, or use
+ * session mode.
+ */
+@Component
+@ConditionalOnProperty(name = "quiz.state.mode", havingValue = "token")
+public class TokenQuizAttemptStore implements QuizAttemptStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenQuizAttemptStore.class);
+
+    static final String COOKIE_NAME = "QUIZ_TOKEN";
+
+    private static final int COMPLETED = Integer.MAX_VALUE;
+
+    private static final int SWEEP_INTERVAL = 1024;
+
+    private final QuizTokenCodec codec;
+
+    private final long graceMs;
+
+    private final Map<Long, Issued> issued = new ConcurrentHashMap<>();
+
+    private final AtomicInteger writesSinceSweep = new AtomicInteger();
+
+    public TokenQuizAttemptStore(@Value("${quiz.token.secret:}") String secret,
+                                 @Value("${quiz.deadlines.grace-ms:2000}") long graceMs) {
+        byte[] key;
+        if (secret.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.warn("quiz.token.secret is not set; using a random per-node key (tokens will not work across nodes)");
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.codec = new QuizTokenCodec(key);
+        this.graceMs = graceMs;
+    }
+
+    @Override
+    public QuizAttempt load(HttpServletRequest request) {
+        AttemptLoadedEvent loaded = new AttemptLoadedEvent();
+        loaded.begin();
+        QuizAttempt attempt = decode(request);
+        loaded.record("token", attempt);
+        return attempt;
+    }
+
+    /**
+     * The attempt in the request's token cookie, unless it is missing, forged, past its grace period or replayed
+     */
+    private QuizAttempt decode(HttpServletRequest request) {
+        String token = readCookie(request);
+        if (token == null) {
+            return null;
+        }
+        QuizAttempt attempt;
+        try {
+            attempt = codec.decode(token);
+        } catch (QuizTokenCodec.InvalidQuizTokenException e) {
+            return null;
+        }
+        if (attempt.getDeadline() == 0 || attempt.isExpired(System.currentTimeMillis() - graceMs)) {
+            return null;
+        }
+        Issued latest = issued.get(attempt.getAttemptId());
+        if (latest != null && attempt.getCurrentIndex() < latest.cursor) {
+            return null; // replay of an earlier step or of a submitted attempt
+        }
+        return attempt;
+    }
+
+    @Override
+    public void save(QuizAttempt attempt, HttpServletRequest request, HttpServletResponse response) {
+        issued.put(attempt.getAttemptId(), new Issued(attempt.getCurrentIndex(), attempt.getDeadline()));
+        long maxAgeSeconds = Math.max(0, (attempt.getDeadline() + graceMs - System.currentTimeMillis()) / 1000) + 60;
+        response.addCookie(cookie(codec.encode(attempt), (int) maxAgeSeconds, request.isSecure()));
+        sweepIfDue();
+    }
+
+    @Override
+    public void complete(QuizAttempt attempt, HttpServletRequest request, HttpServletResponse response) {
+        issued.put(attempt.getAttemptId(), new Issued(COMPLETED, attempt.getDeadline()));
+        response.addCookie(cookie("", 0, request.isSecure()));
+        sweepIfDue();
+    }
+
+    /**
+     * Exposed for benchmarks and tests
+     */
+    QuizTokenCodec getCodec() {
+        return codec;
+    }
+
+    private static String readCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Cookie cookie(String value, int maxAge, boolean secure) {
+        Cookie cookie = new Cookie(COOKIE_NAME, value);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setSecure(secure);
+        cookie.setMaxAge(maxAge);
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
+
+    private void sweepIfDue() {
+        if (writesSinceSweep.incrementAndGet() < SWEEP_INTERVAL) {
+            return;
+        }
+        writesSinceSweep.set(0);
+        long now = System.currentTimeMillis();
+        // Kept through the grace period, while the token is still accepted
+        issued.values().removeIf(entry -> entry.deadline + graceMs < now);
+    }
+
+    /**
+     * Highest cursor handed out for an attempt, and when the entry can be forgotten
+     */
+    private static final class Issued {
+
+        private final int cursor;
+
+        private final long deadline;
+
+        Issued(int cursor, long deadline) {
+            this.cursor = cursor;
+            this.deadline = deadline;
+        }
+    }
+}
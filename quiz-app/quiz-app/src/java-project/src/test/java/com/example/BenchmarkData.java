@@ -0,0 +1,106 @@
+package com.example;
+
+import com.example.service.AnswerSheetCodec;
+import com.example.service.QuestionService;
+import com.example.service.ResultIdAllocator;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds synthetic data sets for the opt-in benchmark tests and the JMH benchmarks module
+ */
+public final class BenchmarkData {
+
+    public static final String[] CATEGORIES = {
+        "Programming", "Data Structures", "Algorithms", "Database Systems",
+        "Operating Systems", "Computer Networks", "Software Engineering", "Computer Architecture"
+    };
+
+    public static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+
+    public static final int QUESTIONS_PER_ATTEMPT = 20;
+
+    private static final int BATCH_SIZE = 5_000;
+
+    private BenchmarkData() {}
+
+    /**
+     * Replace the question bank with the given number of synthetic questions
+     */
+    public static void seedQuestions(JdbcTemplate jdbcTemplate, int count) {
+        jdbcTemplate.update("DELETE FROM questions");
+        String sql = "INSERT INTO questions (question_text, optiona, optionb, optionc, optiond, " +
+                     "correct_answer, category, difficulty, explanation) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            batch.add(new Object[] {
+                "Synthetic question " + i + " about " + CATEGORIES[i % CATEGORIES.length] + "?",
+                "Option A" + i, "Option B" + i, "Option C" + i, "Option D" + i,
+                String.valueOf((char) ('A' + i % 4)),
+                CATEGORIES[i % CATEGORIES.length],
+                DIFFICULTIES[(i / CATEGORIES.length) % DIFFICULTIES.length],
+                "Explanation for synthetic question " + i + "."
+            });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    /**
+     * Insert the given number of graded results spread over the given number of students
+     * (student{n}@example.com), each sampled from the current question index
+     */
+    public static void seedResults(JdbcTemplate jdbcTemplate, QuestionService questionService,
+                                   ResultIdAllocator resultIdAllocator, int count, int students) {
+        String sql = "INSERT INTO quiz_results (id, student_name, student_email, total_questions, correct_answers, " +
+                     "incorrect_answers, score, attempt_date, time_taken, category, feedback, question_ids, answer_codes) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        SplittableRandom random = new SplittableRandom(42);
+        long now = System.currentTimeMillis();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            int student = i % students;
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            long[] ids = questionService.sampleQuestionIds(category, null, QUESTIONS_PER_ATTEMPT);
+            byte[] answers = randomAnswers(random, ids.length);
+            int correct = random.nextInt(ids.length + 1);
+            double score = ids.length > 0 ? (double) correct / ids.length * 100 : 0.0;
+            batch.add(new Object[] {resultIdAllocator.nextId(), "Student " + student, studentEmail(student),
+                                    ids.length, correct, ids.length - correct, score,
+                                    new Timestamp(now - random.nextLong(30L * 24 * 3_600_000)),
+                                    60L + random.nextInt(1_200), category, "",
+                                    AnswerSheetCodec.encodeQuestionIds(ids), AnswerSheetCodec.packAnswers(answers)});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    public static String studentEmail(int student) {
+        return "student" + student + "@example.com";
+    }
+
+    /**
+     * Answer codes 1-4 (A-D) for every question
+     */
+    public static byte[] randomAnswers(SplittableRandom random, int count) {
+        byte[] answers = new byte[count];
+        for (int i = 0; i < count; i++) {
+            answers[i] = (byte) (1 + random.nextInt(4));
+        }
+        return answers;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Who may call the /admin endpoints, and how large a question bank upload may be
+ */
+class AdminAccessInterceptorTest {
+
+    private static final RequestPostProcessor REMOTE = request -> {
+        request.setRemoteAddr("10.1.2.3");
+        return request;
+    };
+
+    @Nested
+    @SpringBootTest
+    @AutoConfigureMockMvc
+    class WithoutToken {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void servesLoopbackClientsOnly() throws Exception {
+            mockMvc.perform(get("/admin/admission/stats")).andExpect(status().isOk());
+            mockMvc.perform(get("/admin/questions/cache-stats")).andExpect(status().isOk());
+
+            mockMvc.perform(get("/admin/admission/stats").with(REMOTE)).andExpect(status().isForbidden());
+            mockMvc.perform(get("/admin/exams").with(REMOTE)).andExpect(status().isForbidden());
+            mockMvc.perform(post("/admin/questions/regrade").with(REMOTE)).andExpect(status().isForbidden());
+            mockMvc.perform(post("/admin/questions/item-analysis/recompute").with(REMOTE))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(post("/admin/questions/import").with(REMOTE).contentType("text/csv")
+                    .content("questionText,optionA\n")).andExpect(status().isForbidden());
+        }
+
+        @Test
+        void importRejectsEmptyBodiesAndUnknownFormats() throws Exception {
+            mockMvc.perform(post("/admin/questions/import").contentType("text/csv").content(""))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(post("/admin/questions/import").param("format", "xml").content("<questions/>"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = {"quiz.admin.token=s3cret", "quiz.import.max-upload-size=64B"})
+    @AutoConfigureMockMvc
+    class WithToken {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void requiresTheTokenFromEveryClient() throws Exception {
+            mockMvc.perform(get("/admin/admission/stats")).andExpect(status().isForbidden());
+            mockMvc.perform(get("/admin/admission/stats").header("X-Admin-Token", "wrong"))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(get("/admin/admission/stats").header("X-Admin-Token", "s3cret").with(REMOTE))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        void refusesQuestionBanksOverTheUploadLimit() throws Exception {
+            mockMvc.perform(post("/admin/questions/import").header("X-Admin-Token", "s3cret")
+                    .contentType("text/csv").content("x".repeat(65)))
+                    .andExpect(status().isPayloadTooLarge());
+        }
+    }
+}
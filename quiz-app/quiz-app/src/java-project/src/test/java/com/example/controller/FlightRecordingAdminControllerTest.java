@@ -0,0 +1,57 @@
+package com.example.controller;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Who may read the flight recording
+ */
+class FlightRecordingAdminControllerTest {
+
+    @Nested
+    @SpringBootTest
+    @AutoConfigureMockMvc
+    class WithoutToken {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void servesLoopbackClientsOnly() throws Exception {
+            mockMvc.perform(get("/admin/jfr").with(request -> {
+                request.setRemoteAddr("127.0.0.1");
+                return request;
+            })).andExpect(status().isOk());
+            mockMvc.perform(get("/admin/jfr/dump").with(request -> {
+                request.setRemoteAddr("10.1.2.3");
+                return request;
+            })).andExpect(status().isForbidden());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = "quiz.admin.token=s3cret")
+    @AutoConfigureMockMvc
+    class WithToken {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void requiresTheTokenFromEveryClient() throws Exception {
+            mockMvc.perform(get("/admin/jfr")).andExpect(status().isForbidden());
+            mockMvc.perform(get("/admin/jfr").header("X-Admin-Token", "wrong")).andExpect(status().isForbidden());
+            mockMvc.perform(get("/admin/jfr").header("X-Admin-Token", "s3cret").with(request -> {
+                request.setRemoteAddr("10.1.2.3");
+                return request;
+            })).andExpect(status().isOk());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.controller;
+
+import com.example.service.QuestionPageRenderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Server CPU per GET /quiz/question with the development settings (templates re-parsed,
+ * full render per request) versus the prod profile (template cache and pre-rendered question pages).
+ * CPU is summed over the Tomcat request threads only, so the load-generating clients do not count.
+ * Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=QuestionPageRenderingBenchmarkTest
+ */
+@Tag("benchmark")
+class QuestionPageRenderingBenchmarkTest {
+
+    private static final int STUDENTS = 64;
+    private static final int THREADS = 16;
+    private static final int VIEWS_PER_STUDENT = 200;
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                    properties = {"logging.level.org.springframework.web=INFO", "quiz.admission.enabled=false"})
+    class Development extends Scenario {
+
+        @Test
+        void renderCpuPerRequest() throws Exception {
+            measure("development");
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                    properties = {"spring.profiles.active=prod", "logging.level.org.springframework.web=INFO",
+                                  "quiz.admission.enabled=false"})
+    class Production extends Scenario {
+
+        @Test
+        void renderCpuPerRequest() throws Exception {
+            measure("prod");
+        }
+    }
+
+    abstract class Scenario {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private QuestionPageRenderer questionPageRenderer;
+
+        void measure(String label) throws Exception {
+            run(8, 50); // warm up
+            long hitsBefore = questionPageRenderer.getHitCount();
+            long rendersBefore = questionPageRenderer.getRenderCount();
+            long cpuBefore = requestThreadCpuNanos();
+            long start = System.nanoTime();
+            long[] latencies = run(STUDENTS, VIEWS_PER_STUDENT);
+            long elapsed = System.nanoTime() - start;
+            long cpu = requestThreadCpuNanos() - cpuBefore;
+
+            Arrays.sort(latencies);
+            System.out.printf("%s: requests=%d requests/sec=%.0f server cpu/request=%.1fus p50=%.2fms p99=%.2fms "
+                              + "prerendered hits=%d renders=%d%n",
+                              label, latencies.length, latencies.length / (elapsed / 1e9), cpu / 1e3 / latencies.length,
+                              latencies[latencies.length / 2] / 1e6,
+                              latencies[(int) (latencies.length * 0.99)] / 1e6,
+                              questionPageRenderer.getHitCount() - hitsBefore,
+                              questionPageRenderer.getRenderCount() - rendersBefore);
+        }
+
+        /**
+         * Every student starts a quiz and then reloads its first question page
+         */
+        private long[] run(int students, int views) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<long[]>> futures = new ArrayList<>();
+                for (int i = 0; i < students; i++) {
+                    int student = i;
+                    futures.add(executor.submit(() -> viewQuestion(student, views)));
+                }
+                List<long[]> all = new ArrayList<>();
+                for (Future<long[]> future : futures) {
+                    all.add(future.get());
+                }
+                return all.stream().flatMapToLong(Arrays::stream).toArray();
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private long[] viewQuestion(int student, int views) throws Exception {
+            HttpClient client = HttpClient.newBuilder()
+                    .cookieHandler(new CookieManager())
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+            HttpResponse<String> started = client.send(HttpRequest.newBuilder(uri("/quiz/start"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("studentName=Render" + student
+                            + "&studentEmail=render" + student + "%40example.com&questionCount=20"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(302, started.statusCode());
+
+            HttpRequest view = HttpRequest.newBuilder(uri("/quiz/question")).GET().build();
+            long[] latencies = new long[views];
+            for (int i = 0; i < views; i++) {
+                long begin = System.nanoTime();
+                HttpResponse<String> page = client.send(view, HttpResponse.BodyHandlers.ofString());
+                latencies[i] = System.nanoTime() - begin;
+                assertEquals(200, page.statusCode());
+                assertTrue(page.body().contains("Question 1 of 20"));
+            }
+            return latencies;
+        }
+
+        private URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+    }
+
+    /**
+     * CPU time consumed so far by the embedded Tomcat's request threads
+     */
+    private static long requestThreadCpuNanos() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && info.getThreadName().contains("-exec-")) {
+                long cpu = threads.getThreadCpuTime(info.getThreadId());
+                if (cpu > 0) {
+                    total += cpu;
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.controller;
+
+import com.example.model.QuizAttempt;
+import com.example.service.QuestionService;
+import com.example.service.QuizTokenCodec;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The batch JSON API end to end, with the quiz kept in the session and in a signed token cookie
+ */
+class QuizApiControllerTest {
+
+    @Nested
+    @SpringBootTest
+    @AutoConfigureMockMvc
+    class SessionMode extends Scenario {
+    }
+
+    @Nested
+    @SpringBootTest(properties = {"quiz.state.mode=token", "quiz.token.secret=api-test-secret"})
+    @AutoConfigureMockMvc
+    class TokenMode extends Scenario {
+
+        private final QuizTokenCodec codec = new QuizTokenCodec("api-test-secret".getBytes(StandardCharsets.UTF_8));
+
+        @Test
+        void gradesASubmitJustAfterTheDeadlineWithTheRecordedAnswers() throws Exception {
+            MvcResult started = mockMvc.perform(start(3)).andExpect(status().isOk()).andReturn();
+            Cookie late = lateToken(started, 500); // grace-ms is 2000
+
+            // Answers sent with the late submit still count, like the one the token recorded
+            QuizAttempt attempt = codec.decode(late.getValue());
+            long second = attempt.getQuestionIds()[1];
+            String correct = questionService.getQuestionById(second).orElseThrow().getCorrectAnswer();
+            mockMvc.perform(submit("{\"answers\":{\"" + second + "\":\"" + correct + "\"}}").cookie(late))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalQuestions").value(3))
+                    .andExpect(jsonPath("$.correctAnswers").value(2));
+
+            // The page flow submit as well
+            started = mockMvc.perform(start(3)).andExpect(status().isOk()).andReturn();
+            mockMvc.perform(get("/quiz/submit").cookie(lateToken(started, 500)))
+                    .andExpect(redirectedUrlPattern("/quiz/result?resultId=*"));
+        }
+
+        @Test
+        void refusesATokenPastTheGracePeriod() throws Exception {
+            MvcResult started = mockMvc.perform(start(3)).andExpect(status().isOk()).andReturn();
+            mockMvc.perform(submit("{\"answers\":{}}").cookie(lateToken(started, 60_000)))
+                    .andExpect(status().isGone());
+            mockMvc.perform(get("/quiz/submit").cookie(lateToken(started, 60_000)))
+                    .andExpect(redirectedUrl("/quiz/setup"));
+        }
+
+        /**
+         * The started attempt with its first question answered correctly and a deadline lateByMs ago
+         */
+        private Cookie lateToken(MvcResult started, long lateByMs) {
+            QuizAttempt attempt = codec.decode(started.getResponse().getCookie("QUIZ_TOKEN").getValue());
+            long now = System.currentTimeMillis();
+            QuizAttempt late = new QuizAttempt(attempt.getAttemptId(), attempt.getStudentName(),
+                                               attempt.getStudentEmail(), attempt.getCategory(),
+                                               attempt.getQuestionIds(), attempt.getAnswers(),
+                                               attempt.getCurrentIndex(), now - 60_000 - lateByMs, now - lateByMs);
+            long first = late.getQuestionIds()[0];
+            late.recordAnswer(first, questionService.getQuestionById(first).orElseThrow().getCorrectAnswer());
+            return new Cookie("QUIZ_TOKEN", codec.encode(late));
+        }
+    }
+
+    abstract class Scenario {
+
+        @Autowired
+        protected MockMvc mockMvc;
+
+        @Autowired
+        protected QuestionService questionService;
+
+        @Test
+        void startThenSubmitGradesEveryAnswer() throws Exception {
+            MvcResult started = mockMvc.perform(start(5))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.questions.length()").value(5))
+                    .andExpect(jsonPath("$.questions[0].questionText").isNotEmpty())
+                    .andExpect(jsonPath("$.questions[0].correctAnswer").doesNotExist())
+                    .andExpect(jsonPath("$.questions[0].explanation").doesNotExist())
+                    .andReturn();
+            String payload = started.getResponse().getContentAsString();
+            assertFalse(payload.contains("correctAnswer"));
+            assertFalse(payload.contains("explanation"));
+
+            // Answer every question correctly
+            List<Number> ids = JsonPath.read(payload, "$.questions[*].id");
+            StringBuilder answers = new StringBuilder("{\"answers\":{");
+            for (Number id : ids) {
+                String correct = questionService.getQuestionById(id.longValue()).orElseThrow().getCorrectAnswer();
+                answers.append(answers.length() > 12 ? "," : "").append('"').append(id).append("\":\"")
+                       .append(correct).append('"');
+            }
+            answers.append("}}");
+
+            mockMvc.perform(withQuizState(submit(answers.toString()), started))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.resultId").isNumber())
+                    .andExpect(jsonPath("$.totalQuestions").value(5))
+                    .andExpect(jsonPath("$.correctAnswers").value(5))
+                    .andExpect(jsonPath("$.score").value(100.0));
+        }
+
+        @Test
+        void submitWithoutQuizIsGone() throws Exception {
+            mockMvc.perform(submit("{\"answers\":{}}")).andExpect(status().isGone());
+        }
+
+        @Test
+        void rejectsQuestionCountsOutsideTheTokenLimit() throws Exception {
+            mockMvc.perform(start(0)).andExpect(status().isBadRequest());
+            mockMvc.perform(start(QuizTokenCodec.MAX_QUESTIONS + 1)).andExpect(status().isBadRequest());
+            mockMvc.perform(post("/quiz/start")
+                    .param("studentName", "Api")
+                    .param("studentEmail", "api@example.com")
+                    .param("questionCount", String.valueOf(QuizTokenCodec.MAX_QUESTIONS + 1)))
+                    .andExpect(status().isBadRequest());
+        }
+
+        protected MockHttpServletRequestBuilder start(int questionCount) {
+            return post("/api/quiz/start")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"studentName\":\"Api\",\"studentEmail\":\"api@example.com\",\"questionCount\":"
+                             + questionCount + "}");
+        }
+
+        protected MockHttpServletRequestBuilder submit(String answers) {
+            return post("/api/quiz/submit").contentType(MediaType.APPLICATION_JSON).content(answers);
+        }
+
+        /**
+         * Carry the session or the token cookie of the start response
+         */
+        private MockHttpServletRequestBuilder withQuizState(MockHttpServletRequestBuilder request, MvcResult started) {
+            MockHttpSession session = (MockHttpSession) started.getRequest().getSession(false);
+            if (session != null) {
+                request.session(session);
+            }
+            if (started.getResponse().getCookies().length > 0) {
+                request.cookie(started.getResponse().getCookies());
+            }
+            return request;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.load;
+
+import java.time.Duration;
+
+/**
+ * When simulated students arrive: spread evenly over the run, or mostly in a spike at exam start
+ * followed by a steady trickle for the rest of the run
+ */
+public final class ArrivalProfile {
+
+    private final String name;
+
+    private final int students;
+
+    private final Duration duration;
+
+    private final Duration spike;
+
+    private final int spikePercent;
+
+    private ArrivalProfile(String name, int students, Duration duration, Duration spike, int spikePercent) {
+        if (students < 1 || duration.isNegative() || spike.compareTo(duration) > 0
+                || spikePercent < 0 || spikePercent > 100) {
+            throw new IllegalArgumentException("Invalid arrival profile");
+        }
+        this.name = name;
+        this.students = students;
+        this.duration = duration;
+        this.spike = spike;
+        this.spikePercent = spikePercent;
+    }
+
+    public static ArrivalProfile steady(int students, Duration duration) {
+        return new ArrivalProfile("steady", students, duration, Duration.ZERO, 0);
+    }
+
+    /**
+     * spikePercent of the students arrive within the spike, the others evenly over the rest of the run
+     */
+    public static ArrivalProfile spike(int students, Duration duration, Duration spike, int spikePercent) {
+        return new ArrivalProfile("spike", students, duration, spike, spikePercent);
+    }
+
+    /**
+     * The profile selected with load.profile (steady or spike), load.students, load.duration-seconds,
+     * load.spike-seconds and load.spike-percent
+     */
+    public static ArrivalProfile fromSystemProperties() {
+        int students = Integer.getInteger("load.students", 200);
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 30));
+        String profile = System.getProperty("load.profile", "steady");
+        return switch (profile) {
+            case "steady" -> steady(students, duration);
+            case "spike" -> spike(students, duration, Duration.ofSeconds(Integer.getInteger("load.spike-seconds", 5)),
+                                  Integer.getInteger("load.spike-percent", 80));
+            default -> throw new IllegalArgumentException("Unknown load.profile: " + profile);
+        };
+    }
+
+    /**
+     * Arrival times of the students in nanoseconds from the start of the run, in ascending order
+     */
+    public long[] arrivalOffsets() {
+        long[] offsets = new long[students];
+        int spiking = students * spikePercent / 100;
+        long spikeNanos = spike.toNanos();
+        for (int i = 0; i < spiking; i++) {
+            offsets[i] = spikeNanos * i / spiking;
+        }
+        int remaining = students - spiking;
+        long start = spiking > 0 ? spikeNanos : 0;
+        long span = duration.toNanos() - start;
+        for (int i = 0; i < remaining; i++) {
+            offsets[spiking + i] = start + span * i / remaining;
+        }
+        return offsets;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    @Override
+    public String toString() {
+        if (spikePercent == 0) {
+            return String.format("%s: %d students over %ds", name, students, duration.toSeconds());
+        }
+        return String.format("%s: %d%% of %d students in %ds, the rest over %ds", name, spikePercent, students,
+                             spike.toSeconds(), duration.toSeconds());
+    }
+}
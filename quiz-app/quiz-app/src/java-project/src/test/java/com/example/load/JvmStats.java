@@ -0,0 +1,92 @@
+package com.example.load;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Heap usage and garbage collection counters of this JVM, which runs both the embedded
+ * application and the load generator
+ */
+public final class JvmStats {
+
+    private final long heapUsed;
+
+    private final long heapCommitted;
+
+    private final long heapMax;
+
+    private final long peakHeapUsed;
+
+    private final Map<String, Collector> collectors;
+
+    private JvmStats(long heapUsed, long heapCommitted, long heapMax, long peakHeapUsed,
+                     Map<String, Collector> collectors) {
+        this.heapUsed = heapUsed;
+        this.heapCommitted = heapCommitted;
+        this.heapMax = heapMax;
+        this.peakHeapUsed = peakHeapUsed;
+        this.collectors = collectors;
+    }
+
+    public static JvmStats capture() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        Map<String, Collector> collectors = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.put(collector.getName(), new Collector(collector.getCollectionCount(),
+                                                              collector.getCollectionTime()));
+        }
+        return new JvmStats(heap.getUsed(), heap.getCommitted(), heap.getMax(), peak, collectors);
+    }
+
+    /**
+     * Start measuring peak heap usage from now on
+     */
+    public static void resetPeakUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    public long getHeapUsed() {
+        return heapUsed;
+    }
+
+    public long getHeapCommitted() {
+        return heapCommitted;
+    }
+
+    public long getHeapMax() {
+        return heapMax;
+    }
+
+    /**
+     * Sum of the peak usage of every heap pool since the last reset; pools peak at different times,
+     * so this is an upper bound
+     */
+    public long getPeakHeapUsed() {
+        return peakHeapUsed;
+    }
+
+    /**
+     * Collections and accumulated collection time in milliseconds, by collector name
+     */
+    public Map<String, Collector> getCollectors() {
+        return collectors;
+    }
+
+    public record Collector(long count, long timeMillis) {
+    }
+}
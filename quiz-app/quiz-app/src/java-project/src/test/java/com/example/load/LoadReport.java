@@ -0,0 +1,163 @@
+package com.example.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Outcome of one load run: throughput, latency histograms per endpoint (in nanoseconds)
+ * and the heap and GC activity during the run
+ */
+public final class LoadReport {
+
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private final QuizFlowLoadGenerator.Flow flow;
+
+    private final ArrivalProfile profile;
+
+    private final long elapsedNanos;
+
+    private final int completed;
+
+    private final int rejected;
+
+    private final int failed;
+
+    private final Map<String, Histogram> latencies;
+
+    private final Histogram flowLatency;
+
+    private final Map<String, Long> errors;
+
+    private final JvmStats before;
+
+    private final JvmStats after;
+
+    LoadReport(QuizFlowLoadGenerator.Flow flow, ArrivalProfile profile, long elapsedNanos, int completed, int rejected, int failed,
+               Map<String, Histogram> latencies, Histogram flowLatency, Map<String, Long> errors,
+               JvmStats before, JvmStats after) {
+        this.flow = flow;
+        this.profile = profile;
+        this.elapsedNanos = elapsedNanos;
+        this.completed = completed;
+        this.rejected = rejected;
+        this.failed = failed;
+        this.latencies = latencies;
+        this.flowLatency = flowLatency;
+        this.errors = errors;
+        this.before = before;
+        this.after = after;
+    }
+
+    /**
+     * Students that reached their result page
+     */
+    public int getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Students sent back to the setup page, e.g. because the waiting line was full
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Students that gave up after an error response, a connection failure or an unexpected page
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Error responses and connection failures by endpoint
+     */
+    public Map<String, Long> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Latency of each request by endpoint ("GET /quiz/question"), in nanoseconds
+     */
+    public Map<String, Histogram> getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Time from each completed student's scheduled arrival to their result page, in nanoseconds.
+     * Measured from the schedule, so it includes any time the student waited for a free thread.
+     */
+    public Histogram getFlowLatency() {
+        return flowLatency;
+    }
+
+    public long getRequests() {
+        return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public void print(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("Load run (%s) %s%n", flow, profile);
+        out.printf("students: completed=%d rejected=%d failed=%d wall=%.1fs quizzes/sec=%.1f requests/sec=%.0f%n",
+                   completed, rejected, failed, seconds, completed / seconds, getRequests() / seconds);
+        out.printf("%-22s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+                   "endpoint (ms)", "count", "req/sec", "p50", "p95", "p99", "p99.9", "max", "errors");
+        latencies.forEach((endpoint, histogram) -> printRow(out, endpoint, histogram, seconds,
+                                                            errors.getOrDefault(endpoint, 0L)));
+        printRow(out, "quiz (arrival-result)", flowLatency, seconds, failed);
+
+        out.printf("heap: used %d MB -> %d MB, peak %d MB, committed %d MB, max %d MB%n",
+                   before.getHeapUsed() / MEGABYTE, after.getHeapUsed() / MEGABYTE,
+                   after.getPeakHeapUsed() / MEGABYTE, after.getHeapCommitted() / MEGABYTE,
+                   after.getHeapMax() / MEGABYTE);
+        after.getCollectors().forEach((name, collector) -> {
+            JvmStats.Collector start = before.getCollectors().getOrDefault(name, new JvmStats.Collector(0, 0));
+            out.printf("gc %s: %d collections, %d ms%n", name, collector.count() - start.count(),
+                       collector.timeMillis() - start.timeMillis());
+        });
+    }
+
+    /**
+     * Write the full percentile distribution of every endpoint (in milliseconds) as .hgrm files,
+     * which the HdrHistogram plotter reads
+     */
+    public void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+            write(directory.resolve(fileName(entry.getKey())), entry.getValue());
+        }
+        write(directory.resolve("quiz.hgrm"), flowLatency);
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, double seconds, long errors) {
+        out.printf("%-22s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                   name, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                   millis(histogram, 50), millis(histogram, 95), millis(histogram, 99), millis(histogram, 99.9),
+                   histogram.getMaxValue() / NANOS_PER_MILLI, errors);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    private static void write(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+    /**
+     * "GET /quiz/question" becomes "get-quiz-question.hgrm"
+     */
+    private static String fileName(String endpoint) {
+        return endpoint.toLowerCase().replaceAll("[^a-z0-9]+", "-") + ".hgrm";
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Simulated students taking a quiz against a running instance, either through the QuizController page flow
+ * (start, wait in line if asked to, question and answer until the quiz is done, submit and result) or through
+ * the batch JSON API (one start and one submit, retried while admission control answers 503).
+ * Every student keeps its own session cookies and follows the redirects itself, so each round trip
+ * is measured. Students arrive on the schedule of an ArrivalProfile whether or not earlier ones
+ * are done (an open workload), and at most maxConcurrentStudents walk the flow at once.
+ */
+public class QuizFlowLoadGenerator {
+
+    private static final Pattern QUESTION_ID = Pattern.compile("name=\"questionId\" value=\"(\\d+)\"");
+
+    private static final Pattern JSON_QUESTION_ID = Pattern.compile("\\{\"id\":(\\d+)");
+
+    private static final String FORM = "application/x-www-form-urlencoded";
+
+    private static final String JSON = "application/json";
+
+    private static final String[] ANSWERS = {"A", "B", "C", "D"};
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    // Start, queue polls and two requests per question stay far below this
+    private static final int MAX_STEPS = 10_000;
+
+    private final URI baseUri;
+
+    private final int questionCount;
+
+    private final int maxConcurrentStudents;
+
+    private final long queuePollMillis;
+
+    private final HttpClient client;
+
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private final Histogram flowLatency = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+    /**
+     * @param queuePollMillis how long a student in the waiting line waits before asking again,
+     *                        as the queue page's refresh does
+     */
+    public QuizFlowLoadGenerator(URI baseUri, int questionCount, int maxConcurrentStudents, long queuePollMillis) {
+        this.baseUri = baseUri;
+        this.questionCount = questionCount;
+        this.maxConcurrentStudents = maxConcurrentStudents;
+        this.queuePollMillis = queuePollMillis;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * Run one load profile through the page flow to completion
+     */
+    public LoadReport run(ArrivalProfile profile) throws InterruptedException {
+        return run(profile, Flow.PAGE);
+    }
+
+    /**
+     * Run one load profile to completion; histograms start empty for every run
+     */
+    public LoadReport run(ArrivalProfile profile, Flow flow) throws InterruptedException {
+        latencies.clear();
+        errors.clear();
+        flowLatency.reset();
+        long[] arrivals = profile.arrivalOffsets();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        ExecutorService students = Executors.newFixedThreadPool(maxConcurrentStudents);
+        JvmStats.resetPeakUsage();
+        JvmStats before = JvmStats.capture();
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < arrivals.length; i++) {
+                long arrival = start + arrivals[i];
+                long wait;
+                while ((wait = arrival - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                int student = i;
+                students.execute(() -> {
+                    Outcome outcome = flow == Flow.PAGE ? walkPageFlow(student, arrival)
+                                                        : walkBatchApi(student, arrival);
+                    switch (outcome) {
+                        case COMPLETED -> completed.incrementAndGet();
+                        case REJECTED -> rejected.incrementAndGet();
+                        default -> failed.incrementAndGet();
+                    }
+                });
+            }
+            students.shutdown();
+            students.awaitTermination(1, TimeUnit.HOURS);
+        } finally {
+            students.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        JvmStats after = JvmStats.capture();
+
+        Map<String, Histogram> latencyCopies = new TreeMap<>();
+        latencies.forEach((endpoint, histogram) -> latencyCopies.put(endpoint, histogram.copy()));
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((endpoint, count) -> errorCounts.put(endpoint, count.sum()));
+        return new LoadReport(flow, profile, elapsed, completed.get(), rejected.get(), failed.get(),
+                              latencyCopies, flowLatency.copy(), errorCounts, before, after);
+    }
+
+    /**
+     * One student's quiz through the pages, from arrival to result page
+     */
+    private Outcome walkPageFlow(int student, long arrival) {
+        CookieManager cookies = new CookieManager();
+        try {
+            String form = "studentName=" + encode("Load Student " + student)
+                          + "&studentEmail=" + encode("load" + student + "@example.com")
+                          + "&questionCount=" + questionCount;
+            HttpResponse<String> response = send(cookies, baseUri.resolve("/quiz/start"), FORM, form);
+            for (int step = 0; step < MAX_STEPS && response.statusCode() < 400; step++) {
+                URI uri = response.uri();
+                String path = path(uri);
+                if (response.statusCode() / 100 == 3) {
+                    URI next = uri.resolve(response.headers().firstValue("Location").orElseThrow());
+                    if (path(next).equals("/quiz/setup") || path(next).equals("/")) {
+                        return Outcome.REJECTED; // waiting line full, or the session was lost
+                    }
+                    response = send(cookies, next, null, null);
+                } else if (path.equals("/quiz/result")) {
+                    flowLatency.recordValue(System.nanoTime() - arrival);
+                    return Outcome.COMPLETED;
+                } else if (path.equals("/quiz/queue")) {
+                    Thread.sleep(queuePollMillis);
+                    response = send(cookies, uri, null, null);
+                } else if (path.equals("/quiz/question")) {
+                    Matcher matcher = QUESTION_ID.matcher(response.body());
+                    if (!matcher.find()) {
+                        break;
+                    }
+                    response = send(cookies, baseUri.resolve("/quiz/answer"), FORM,
+                                    "questionId=" + matcher.group(1) + "&answer=" + randomAnswer());
+                } else {
+                    break;
+                }
+            }
+            return Outcome.FAILED;
+        } catch (IOException e) {
+            return Outcome.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.FAILED;
+        }
+    }
+
+    /**
+     * One student's quiz through the batch API: every question in the start response, every answer in one submit
+     */
+    private Outcome walkBatchApi(int student, long arrival) {
+        CookieManager cookies = new CookieManager();
+        try {
+            String start = "{\"studentName\":\"Load Student " + student + "\",\"studentEmail\":\"load" + student
+                           + "@example.com\",\"questionCount\":" + questionCount + "}";
+            HttpResponse<String> response = send(cookies, baseUri.resolve("/api/quiz/start"), JSON, start);
+            for (int step = 0; step < MAX_STEPS && response.statusCode() == 503; step++) {
+                Thread.sleep(response.headers().firstValue("Retry-After")
+                                     .map(seconds -> Long.parseLong(seconds) * 1000).orElse(queuePollMillis));
+                response = send(cookies, baseUri.resolve("/api/quiz/start"), JSON, start);
+            }
+            if (response.statusCode() == 503) {
+                return Outcome.REJECTED;
+            }
+            if (response.statusCode() != 200) {
+                return Outcome.FAILED;
+            }
+
+            StringJoiner answers = new StringJoiner(",", "{\"answers\":{", "}}");
+            Matcher matcher = JSON_QUESTION_ID.matcher(response.body());
+            while (matcher.find()) {
+                answers.add("\"" + matcher.group(1) + "\":\"" + randomAnswer() + "\"");
+            }
+            response = send(cookies, baseUri.resolve("/api/quiz/submit"), JSON, answers.toString());
+            if (response.statusCode() != 200) {
+                return Outcome.FAILED;
+            }
+            flowLatency.recordValue(System.nanoTime() - arrival);
+            return Outcome.COMPLETED;
+        } catch (IOException e) {
+            return Outcome.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.FAILED;
+        }
+    }
+
+    /**
+     * Send a GET, or a POST of the body when there is one, with the student's cookies, and time it.
+     * Error responses and connection failures are counted against the endpoint; a 503 with Retry-After
+     * is admission control asking the student to come back, not an error.
+     */
+    private HttpResponse<String> send(CookieManager cookies, URI uri, String contentType, String body)
+            throws IOException, InterruptedException {
+        String endpoint = (body == null ? "GET " : "POST ") + path(uri);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri);
+        if (body != null) {
+            request.header("Content-Type", contentType)
+                   .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+        for (Map.Entry<String, List<String>> header : cookies.get(uri, Map.of()).entrySet()) {
+            for (String value : header.getValue()) {
+                request.header(header.getKey(), value);
+            }
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+            throw e;
+        }
+        latencies.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS))
+                 .recordValue(System.nanoTime() - start);
+        if (response.statusCode() >= 400 && response.headers().firstValue("Retry-After").isEmpty()) {
+            errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+        }
+        cookies.put(uri, response.headers().map());
+        return response;
+    }
+
+    /**
+     * The path without parameters; redirects carry ";QUIZ_SESSION=..." until the server has seen the session cookie
+     */
+    private static String path(URI uri) {
+        String path = uri.getPath();
+        int parameters = path.indexOf(';');
+        return parameters < 0 ? path : path.substring(0, parameters);
+    }
+
+    private static String randomAnswer() {
+        return ANSWERS[ThreadLocalRandom.current().nextInt(ANSWERS.length)];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * How the students take their quiz
+     */
+    public enum Flow {
+        PAGE("page flow"), BATCH_API("batch api");
+
+        private final String description;
+
+        Flow(String description) {
+            this.description = description;
+        }
+
+        /**
+         * The flow selected with load.flow (page or batch-api)
+         */
+        public static Flow fromSystemProperties() {
+            String flow = System.getProperty("load.flow", "page");
+            return switch (flow) {
+                case "page" -> PAGE;
+                case "batch-api" -> BATCH_API;
+                default -> throw new IllegalArgumentException("Unknown load.flow: " + flow);
+            };
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    private enum Outcome {
+        COMPLETED, REJECTED, FAILED
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simulated exam takers taking quizzes against the embedded server, reporting throughput,
+ * p50/p95/p99/p99.9 latency per endpoint and heap and GC activity. Percentile distributions are
+ * written to target/load-reports/{profile}-{timestamp}/*.hgrm.
+ * Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=QuizFlowLoadTest
+ *               -Dload.profile=spike -Dload.students=2000 -Dload.duration-seconds=60
+ * Other settings: load.spike-seconds, load.spike-percent, load.questions, load.max-concurrent-students, and
+ * load.flow=batch-api to take each quiz through the JSON API in two requests instead of the page flow
+ * (run once with each flow to compare them)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "logging.level.org.springframework.web=INFO")
+@Tag("benchmark")
+class QuizFlowLoadTest {
+
+    // The waiting line page refreshes every 2 seconds
+    private static final long QUEUE_POLL_MILLIS = 2_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void quizFlowUnderLoad() throws Exception {
+        ArrivalProfile profile = ArrivalProfile.fromSystemProperties();
+        QuizFlowLoadGenerator.Flow flow = QuizFlowLoadGenerator.Flow.fromSystemProperties();
+        QuizFlowLoadGenerator generator = new QuizFlowLoadGenerator(
+                URI.create("http://localhost:" + port), Integer.getInteger("load.questions", 20),
+                Integer.getInteger("load.max-concurrent-students", 500), QUEUE_POLL_MILLIS);
+
+        // Warm up the server before measuring
+        generator.run(ArrivalProfile.steady(50, Duration.ofSeconds(5)), flow);
+
+        LoadReport report = generator.run(profile, flow);
+        report.print(System.out);
+        report.writeHistograms(Path.of("target", "load-reports",
+                                       flow.name().toLowerCase() + "-" + profile.getName() + "-" + System.currentTimeMillis()));
+
+        assertTrue(report.getErrors().isEmpty(), "error responses: " + report.getErrors());
+        assertEquals(profile.getStudents(), report.getCompleted() + report.getRejected() + report.getFailed());
+        assertTrue(report.getCompleted() > 0);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reports retained heap bytes per active quiz session for the old session layout
+ * (question entities plus boxed answer map) and for the compact QuizAttempt.
+ * Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=QuizAttemptFootprintBenchmarkTest
+ */
+@Tag("benchmark")
+class QuizAttemptFootprintBenchmarkTest {
+
+    private static final int SESSIONS = 5_000;
+    private static final int QUESTIONS_PER_QUIZ = 20;
+
+    @Test
+    void reportRetainedBytesPerSession() {
+        long legacy = retainedBytesPerSession(QuizAttemptFootprintBenchmarkTest::legacySession);
+        long compact = retainedBytesPerSession(QuizAttemptFootprintBenchmarkTest::compactSession);
+
+        System.out.printf("sessions=%,d questions=%d legacy=%,d B/session compact=%,d B/session%n",
+                          SESSIONS, QUESTIONS_PER_QUIZ, legacy, compact);
+        assertTrue(compact < legacy);
+    }
+
+    private static long retainedBytesPerSession(IntFunction<Object> sessionFactory) {
+        Object[] sessions = new Object[SESSIONS];
+        long before = usedHeap();
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions[i] = sessionFactory.apply(i);
+        }
+        long after = usedHeap();
+        if (sessions[SESSIONS - 1] == null) {
+            throw new IllegalStateException();
+        }
+        return (after - before) / SESSIONS;
+    }
+
+    /**
+     * Attributes the controller used to keep per session: hydrated questions, boxed answers and counters
+     */
+    private static Object legacySession(int session) {
+        List<Question> questions = new ArrayList<>();
+        Map<Long, String> answers = new HashMap<>();
+        for (int i = 0; i < QUESTIONS_PER_QUIZ; i++) {
+            long id = session * 7L + i;
+            Question question = new Question(
+                new String("Which of the following best describes the behaviour of question " + id + " in a typical system?"),
+                new String("First option " + id), new String("Second option " + id),
+                new String("Third option " + id), new String("Fourth option " + id),
+                "B", "Algorithms", "Medium",
+                new String("Explanation of why option B is correct for question " + id + " with some supporting detail."));
+            question.setId(id);
+            questions.add(question);
+            answers.put(id, "A");
+        }
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("studentName", "Student " + session);
+        attributes.put("studentEmail", "student" + session + "@example.com");
+        attributes.put("questions", questions);
+        attributes.put("category", "Algorithms");
+        attributes.put("currentQuestionIndex", Integer.valueOf(QUESTIONS_PER_QUIZ));
+        attributes.put("answers", answers);
+        attributes.put("startTime", Long.valueOf(System.currentTimeMillis()));
+        return attributes;
+    }
+
+    private static Object compactSession(int session) {
+        long[] ids = new long[QUESTIONS_PER_QUIZ];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = session * 7L + i;
+        }
+        long now = System.currentTimeMillis();
+        QuizAttempt attempt = new QuizAttempt(session, "Student " + session, "student" + session + "@example.com",
+                                              "Algorithms", ids, now, now + 1_800_000);
+        for (long id : ids) {
+            attempt.recordAnswer(id, "A");
+            attempt.advance();
+        }
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("quizAttempt", attempt);
+        return attributes;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that every result is counted exactly once, whatever order the ids arrive in
+ */
+class StudentSummaryTest {
+
+    @Test
+    void countsEachResultOnce() {
+        StudentSummary summary = new StudentSummary();
+        summary.apply(result(3, "Algorithms", 80));
+        summary.apply(result(3, "Algorithms", 80));
+        summary.apply(result(1, "Networks", 40)); // lower id written later
+
+        assertEquals(2, summary.getAttemptCount());
+        assertEquals(60.0, summary.getAverageScore(), 1e-9);
+        assertEquals(80.0, summary.getBestScore(), 1e-9);
+        assertEquals(1, summary.getCategories().get("Networks").getAttempts());
+    }
+
+    @Test
+    void skipsOnlyResultsTheRebuildCounted() {
+        StudentSummary summary = new StudentSummary();
+        LocalDateTime latest = LocalDateTime.of(2026, 1, 5, 10, 0);
+        summary.add("Algorithms", 2, 150, 90, latest);
+        summary.setRebuiltIds(new long[] {9, 5});
+
+        summary.apply(result(9, "Algorithms", 90)); // already in the rebuild
+        summary.apply(result(7, "Algorithms", 30)); // still queued for insert when the rebuild ran
+
+        assertEquals(3, summary.getAttemptCount());
+        assertEquals(60.0, summary.getAverageScore(), 1e-9);
+        assertEquals(3, summary.getCategories().get("Algorithms").getAttempts());
+    }
+
+    private static QuizResult result(long id, String category, double score) {
+        QuizResult result = new QuizResult("Student", "student@example.com", 10, (int) (score / 10),
+                                           10 - (int) (score / 10), score, 60, category, "");
+        result.setId(id);
+        return result;
+    }
+}
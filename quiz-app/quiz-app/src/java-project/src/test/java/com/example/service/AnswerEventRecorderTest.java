@@ -0,0 +1,100 @@
+package com.example.service;
+
+import com.example.model.QuestionSnapshot;
+import com.example.model.QuizAttempt;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class AnswerEventRecorderTest {
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private AnswerEventRecorder answerEventRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recordsOneEventPerAnswer() throws Exception {
+        QuizAttempt attempt = quizService.startAttempt("Event Student", "events@example.com", "All", "All", 10);
+        List<QuestionSnapshot> questions = questionService.getCatalogQuestions(attempt.getQuestionIds());
+        for (int i = 0; i < questions.size(); i++) {
+            QuestionSnapshot question = questions.get(i);
+            // Even positions answered correctly, odd positions left blank
+            quizService.recordAnswer(attempt, question.getId(), i % 2 == 0 ? question.getCorrectAnswer() : null);
+        }
+        answerEventRecorder.awaitFlushed();
+
+        int events = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM answer_events WHERE attempt_id = ?", Integer.class, attempt.getAttemptId());
+        int correct = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM answer_events WHERE attempt_id = ? AND correct = TRUE", Integer.class,
+                attempt.getAttemptId());
+        assertEquals(questions.size(), events);
+        assertEquals((questions.size() + 1) / 2, correct);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void recordLatencyAndInsertRate() throws Exception {
+        int threads = Integer.getInteger("answer-events.threads", 8);
+        int perThread = Integer.getInteger("answer-events.per-thread", 200_000);
+        long droppedBefore = answerEventRecorder.getDroppedCount();
+        long writtenBefore = answerEventRecorder.getWrittenCount();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long attemptBase = (long) t * perThread;
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long[] latencies = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    long begin = System.nanoTime();
+                    answerEventRecorder.record(attemptBase + i / 20, random.nextLong(1, 1000),
+                                               (byte) random.nextInt(0, 5), random.nextBoolean(), i * 1000L);
+                    latencies[i] = System.nanoTime() - begin;
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[threads * perThread];
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(futures.get(t).get(), 0, all, t * perThread, perThread);
+        }
+        long recordNanos = System.nanoTime() - start;
+        answerEventRecorder.awaitFlushed();
+        long totalNanos = System.nanoTime() - start;
+        pool.shutdown();
+
+        Arrays.sort(all);
+        long written = answerEventRecorder.getWrittenCount() - writtenBefore;
+        long dropped = answerEventRecorder.getDroppedCount() - droppedBefore;
+        System.out.printf("Answer events: %d recorded by %d threads in %d ms, record() p50=%d ns p99=%d ns max=%d ns%n",
+                all.length, threads, recordNanos / 1_000_000, all[all.length / 2],
+                all[(int) (all.length * 0.99)], all[all.length - 1]);
+        System.out.printf("Answer events: %d written (%.0f rows/s), %d dropped%n",
+                written, written * 1e9 / totalNanos, dropped);
+        assertEquals(all.length, written + dropped);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.service;
+
+import com.example.model.QuizAttempt;
+import com.example.model.QuizResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.NestedTestConfiguration;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that an abandoned attempt is submitted at its deadline with the answers given so far,
+ * and that an attempt submitted in time is graded once. In token mode nothing is timed, so the
+ * active attempts gauge is not registered.
+ */
+@SpringBootTest(properties = {"quiz.deadlines.grace-ms=0", "quiz.deadlines.tick-ms=10"})
+class AttemptDeadlineServiceTest {
+
+    @Autowired
+    private AttemptDeadlineService attemptDeadlines;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Test
+    void autoSubmitsAbandonedAttemptAtItsDeadline() throws InterruptedException {
+        long autoSubmittedBefore = attemptDeadlines.getAutoSubmittedCount();
+        QuizAttempt attempt = timedAttempt(300);
+        long first = attempt.getQuestionIds()[0];
+        quizService.recordAnswer(attempt, first, questionService.getCatalogQuestion(first).get().getCorrectAnswer());
+
+        awaitAutoSubmissions(autoSubmittedBefore + 1);
+
+        // Answers after the deadline are ignored, and a late submit gets the saved result
+        long second = attempt.getQuestionIds()[1];
+        quizService.recordAnswer(attempt, second, "A");
+        assertNull(attempt.getAnswer(1));
+        QuizResult result = quizService.calculateAndSaveResult(attempt, 999);
+        assertEquals(1, result.getCorrectAnswers());
+        assertEquals(0, result.getTimeTaken()); // the time limit, not the late submit
+        assertEquals(result.getId(), quizService.calculateAndSaveResult(attempt, 999).getId());
+    }
+
+    @Test
+    void attemptSubmittedInTimeIsNotAutoSubmitted() throws InterruptedException {
+        long autoSubmittedBefore = attemptDeadlines.getAutoSubmittedCount();
+        QuizAttempt attempt = timedAttempt(200);
+        QuizResult result = quizService.calculateAndSaveResult(attempt, 0);
+
+        Thread.sleep(500);
+        assertEquals(autoSubmittedBefore, attemptDeadlines.getAutoSubmittedCount());
+        assertTrue(quizService.getResultById(result.getId()).isPresent());
+    }
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(properties = {"quiz.state.mode=token", "quiz.deadlines.grace-ms=0", "quiz.deadlines.tick-ms=10"})
+    class TokenMode {
+
+        @Autowired
+        private AttemptDeadlineService attemptDeadlines;
+
+        @Autowired
+        private QuizService quizService;
+
+        @Autowired
+        private QuestionService questionService;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Test
+        void abandonedAttemptIsNotAutoSubmitted() throws InterruptedException {
+            long[] questionIds = questionService.sampleQuestionIds(null, null, 3);
+            long now = System.currentTimeMillis();
+            QuizAttempt attempt = new QuizAttempt(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE),
+                                                  "Token Student", "token@example.com", "All", questionIds,
+                                                  now, now + 100);
+            attemptDeadlines.register(attempt);
+
+            Thread.sleep(400);
+            assertEquals(0, attemptDeadlines.getPendingCount());
+            assertEquals(0, attemptDeadlines.getAutoSubmittedCount());
+            assertTrue(quizService.isTimeUp(attempt));
+            assertNotNull(quizService.calculateAndSaveResult(attempt, 1));
+        }
+
+        @Test
+        void activeAttemptsAreNotReported() {
+            assertFalse(attemptDeadlines.isTracking());
+            assertNull(meterRegistry.find("quiz.attempts.active").gauge());
+            assertNotNull(meterRegistry.find("quiz.attempts.started").functionCounter());
+        }
+    }
+
+    private QuizAttempt timedAttempt(long timeLimitMs) {
+        long[] questionIds = questionService.sampleQuestionIds(null, null, 3);
+        long now = System.currentTimeMillis();
+        QuizAttempt attempt = new QuizAttempt(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE),
+                                              "Timed Student", "timed@example.com", "All", questionIds,
+                                              now, now + timeLimitMs);
+        attemptDeadlines.register(attempt);
+        return attempt;
+    }
+
+    private void awaitAutoSubmissions(long expected) throws InterruptedException {
+        long giveUp = System.currentTimeMillis() + 5000;
+        while (attemptDeadlines.getAutoSubmittedCount() < expected && System.currentTimeMillis() < giveUp) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, attemptDeadlines.getAutoSubmittedCount());
+    }
+}
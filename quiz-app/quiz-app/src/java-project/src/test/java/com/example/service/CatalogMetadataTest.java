@@ -0,0 +1,48 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the facet counts follow the question index through rebuilds, moves and deletes.
+ */
+class CatalogMetadataTest {
+
+    @Test
+    void countsFollowIndexChanges() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, "Java", "Easy"});
+        rows.add(new Object[] {2L, "Java", "Hard"});
+        rows.add(new Object[] {3L, "SQL", "Easy"});
+        rows.add(new Object[] {4L, "SQL", "Easy"});
+        rows.add(new Object[] {5L, null, "Easy"});
+
+        QuestionIndex index = new QuestionIndex();
+        index.rebuild(rows);
+        CatalogMetadata before = index.getMetadata();
+        assertEquals(5, before.getTotal());
+        assertEquals(List.of("Java", "SQL"), before.getCategories());
+        assertEquals(List.of("Easy", "Hard"), before.getDifficulties());
+        assertEquals(2, before.count("SQL", "Easy"));
+        assertEquals(3, before.count(null, "Easy"));
+        assertEquals(5, before.count(null, null));
+
+        index.put(2L, "SQL", "Medium");
+        index.remove(1L);
+        CatalogMetadata after = index.getMetadata();
+        assertEquals(4, after.getTotal());
+        assertEquals(List.of("SQL"), after.getCategories());
+        assertEquals(3, after.getCategoryCount("SQL"));
+        assertEquals(1, after.count("SQL", "Medium"));
+        assertEquals(0, after.count("Java", null));
+
+        // Earlier snapshots are never modified
+        assertEquals(5, before.getTotal());
+        assertTrue(before.getPairCounts().containsKey("Java"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.service;
+
+import com.example.model.QuizAttempt;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the quiz flow events end up in a dump of the continuous recording
+ */
+@SpringBootTest(properties = "quiz.jfr.enabled=true")
+class FlightRecordingServiceTest {
+
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Test
+    void dumpContainsQuizFlowEvents() throws Exception {
+        assertTrue(flightRecordingService.isRecording());
+        QuizAttempt attempt = quizService.startAttempt("Recorded Student", "recorded@example.com", "All", "All", 5);
+        quizService.recordAnswer(attempt, attempt.getQuestionIds()[0], "A");
+        quizService.calculateAndSaveResult(attempt, 60);
+
+        Path file = Files.createTempFile("quiz", ".jfr");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                flightRecordingService.dump(Duration.ofMinutes(1), out);
+            }
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            for (String name : List.of("com.example.QuizGenerated", "com.example.AnswerRecorded",
+                                       "com.example.QuizGraded", "com.example.FeedbackGenerated",
+                                       "com.example.ResultPersisted")) {
+                List<RecordedEvent> matching = events.stream()
+                        .filter(event -> event.getEventType().getName().equals(name))
+                        .filter(event -> event.getLong("attemptId") == attempt.getAttemptId())
+                        .toList();
+                assertEquals(1, matching.size(), name);
+            }
+            // System properties and environment variables can carry credentials
+            assertTrue(events.stream().map(event -> event.getEventType().getName())
+                    .noneMatch(name -> name.equals("jdk.InitialSystemProperty")
+                                       || name.equals("jdk.InitialEnvironmentVariable")));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GradingEngineTest {
+
+    private static final String[] LETTERS = {"A", "B", "C", "D", "a", "x", null};
+
+    @Test
+    void matchesLetterComparisonForEverySize() {
+        Random random = new Random(42);
+        for (int count : new int[] {0, 1, 20, 31, 32, 33, 63, 64, 65, 100, 1000}) {
+            String[] key = randomSheet(random, count);
+            String[] answers = randomSheet(random, count);
+
+            GradingEngine.Grade grade = GradingEngine.grade(GradingEngine.PackedChoices.fromLetters(key),
+                                                            GradingEngine.PackedChoices.fromLetters(answers));
+
+            int expected = 0;
+            for (int i = 0; i < count; i++) {
+                boolean correct = isValid(key[i]) && key[i].equalsIgnoreCase(answers[i]);
+                assertEquals(correct, grade.isCorrect(i), "question " + i + " of " + count);
+                expected += correct ? 1 : 0;
+            }
+            assertEquals(expected, grade.getCorrect());
+            assertEquals(expected, GradingEngine.countCorrect(GradingEngine.PackedChoices.fromLetters(key),
+                                                              GradingEngine.PackedChoices.fromLetters(answers)));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {20, 100, 1000})
+    @Tag("benchmark")
+    void gradeThroughput(int questions) {
+        Random random = new Random(7);
+        int sheets = 1_000;
+        String[] key = new String[questions];
+        Long[] ids = new Long[questions];
+        for (int i = 0; i < questions; i++) {
+            key[i] = LETTERS[random.nextInt(4)];
+            ids[i] = (long) i + 1;
+        }
+        String[][] letterSheets = new String[sheets][];
+        Map<Long, String>[] mapSheets = new Map[sheets];
+        GradingEngine.PackedChoices[] packedSheets = new GradingEngine.PackedChoices[sheets];
+        for (int s = 0; s < sheets; s++) {
+            letterSheets[s] = randomSheet(random, questions);
+            mapSheets[s] = new HashMap<>();
+            for (int i = 0; i < questions; i++) {
+                mapSheets[s].put(ids[i], letterSheets[s][i]);
+            }
+            packedSheets[s] = GradingEngine.PackedChoices.fromLetters(letterSheets[s]);
+        }
+        GradingEngine.PackedChoices packedKey = GradingEngine.PackedChoices.fromLetters(key);
+
+        long loop = 0;
+        long packed = 0;
+        long packAndGrade = 0;
+        for (int round = 0; round < 20; round++) { // the first rounds are warm-up
+            long start = System.nanoTime();
+            int loopCorrect = 0;
+            for (int s = 0; s < sheets; s++) {
+                // The previous grading loop: boxed map lookup and equalsIgnoreCase per question
+                for (int i = 0; i < questions; i++) {
+                    String provided = mapSheets[s].get(ids[i]);
+                    if (provided != null && provided.equalsIgnoreCase(key[i])) {
+                        loopCorrect++;
+                    }
+                }
+            }
+            long afterLoop = System.nanoTime();
+            int packedCorrect = 0;
+            for (int s = 0; s < sheets; s++) {
+                packedCorrect += GradingEngine.grade(packedKey, packedSheets[s]).getCorrect();
+            }
+            long afterPacked = System.nanoTime();
+            int packAndGradeCorrect = 0;
+            for (int s = 0; s < sheets; s++) {
+                packAndGradeCorrect += GradingEngine.grade(packedKey,
+                        GradingEngine.PackedChoices.fromLetters(letterSheets[s])).getCorrect();
+            }
+            long afterPackAndGrade = System.nanoTime();
+            assertEquals(loopCorrect, packedCorrect);
+            assertEquals(loopCorrect, packAndGradeCorrect);
+            if (round >= 10) {
+                loop += afterLoop - start;
+                packed += afterPacked - afterLoop;
+                packAndGrade += afterPackAndGrade - afterPacked;
+            }
+        }
+        long gradings = 10L * sheets;
+        System.out.printf("%,5d questions: loop %,8d ns/sheet  packed %,6d ns/sheet  pack+grade %,7d ns/sheet%n",
+                          questions, loop / gradings, packed / gradings, packAndGrade / gradings);
+    }
+
+    private static String[] randomSheet(Random random, int count) {
+        String[] sheet = new String[count];
+        for (int i = 0; i < count; i++) {
+            sheet[i] = LETTERS[random.nextInt(LETTERS.length)];
+        }
+        return sheet;
+    }
+
+    private static boolean isValid(String letter) {
+        return letter != null && "ABCD".contains(letter.toUpperCase());
+    }
+}
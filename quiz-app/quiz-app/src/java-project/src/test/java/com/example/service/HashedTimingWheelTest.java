@@ -0,0 +1,59 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires 50,000 timers spread over several rounds of a small wheel, checking that none fires early,
+ * none is lost and cancelled ones never fire.
+ */
+class HashedTimingWheelTest {
+
+    @Test
+    void firesEveryTimerOnceAndNeverEarly() throws InterruptedException {
+        int timers = 50_000;
+        AtomicInteger fired = new AtomicInteger();
+        AtomicInteger early = new AtomicInteger();
+        AtomicInteger firedAfterCancel = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(timers - timers / 10);
+
+        // 64 buckets of 5 ms: delays up to 800 ms need more than two rounds
+        try (HashedTimingWheel wheel = new HashedTimingWheel("test-wheel", 5, TimeUnit.MILLISECONDS, 64)) {
+            for (int i = 0; i < timers; i++) {
+                long delayMs = ThreadLocalRandom.current().nextLong(800);
+                long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+                boolean cancel = i % 10 == 0;
+                HashedTimingWheel.Timeout timeout = wheel.schedule(() -> {
+                    if (cancel) {
+                        firedAfterCancel.incrementAndGet();
+                        return;
+                    }
+                    if (System.nanoTime() < due) {
+                        early.incrementAndGet();
+                    }
+                    fired.incrementAndGet();
+                    done.countDown();
+                }, delayMs, TimeUnit.MILLISECONDS);
+                if (cancel) {
+                    assertTrue(timeout.cancel());
+                    assertFalse(timeout.cancel());
+                }
+            }
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            assertEquals(timers - timers / 10, fired.get());
+            assertEquals(0, early.get());
+            assertEquals(0, firedAfterCancel.get());
+            assertEquals(0, wheel.getPendingCount());
+        }
+    }
+}
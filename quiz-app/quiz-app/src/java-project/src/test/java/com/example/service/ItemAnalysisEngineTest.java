@@ -0,0 +1,266 @@
+package com.example.service;
+
+import com.example.dto.ItemAnalysisReport;
+import com.example.dto.ItemStatistics;
+import com.example.model.Question;
+import com.example.model.QuestionSnapshot;
+import com.example.model.QuizAttempt;
+import com.example.model.QuizResult;
+import com.example.repository.QuizResultRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the incremental item statistics against a direct computation and against a full rebuild
+ * from the stored results after concurrent submissions.
+ */
+@SpringBootTest
+class ItemAnalysisEngineTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private QuizResultWriter quizResultWriter;
+
+    @Autowired
+    private ItemAnalysisEngine itemAnalysisEngine;
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @Autowired
+    private ResultChangeTracker resultChangeTracker;
+
+    @Test
+    void discriminationMatchesPearsonCorrelationWithRestScore() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int questions = 8;
+        int sheets = 500;
+        long[] questionIds = new long[questions];
+        byte[] key = new byte[questions];
+        for (int q = 0; q < questions; q++) {
+            questionIds[q] = q + 1;
+            key[q] = (byte) random.nextInt(1, 5);
+        }
+
+        ItemAnalysisEngine.ItemTable table = new ItemAnalysisEngine.ItemTable();
+        double[][] itemScores = new double[questions][sheets];
+        double[][] restScores = new double[questions][sheets];
+        int[] choiceA = new int[questions];
+        for (int s = 0; s < sheets; s++) {
+            double ability = random.nextDouble();
+            byte[] answers = new byte[questions];
+            for (int q = 0; q < questions; q++) {
+                answers[q] = random.nextDouble() < ability ? key[q] : (byte) random.nextInt(0, 5);
+                if (answers[q] == 1) {
+                    choiceA[q]++;
+                }
+            }
+            GradingEngine.Grade grade = GradingEngine.grade(GradingEngine.PackedChoices.fromCodes(key),
+                                                            GradingEngine.PackedChoices.fromCodes(answers));
+            table.add(questionIds, answers, grade);
+            for (int q = 0; q < questions; q++) {
+                itemScores[q][s] = grade.isCorrect(q) ? 1 : 0;
+                restScores[q][s] = (double) (grade.getCorrect() - (grade.isCorrect(q) ? 1 : 0)) / (questions - 1);
+            }
+        }
+
+        for (int q = 0; q < questions; q++) {
+            ItemStatistics statistics = table.statistics(questionIds[q], "Medium", 30);
+            assertEquals(sheets, statistics.attempts());
+            assertEquals(mean(itemScores[q]), statistics.pValue(), EPSILON);
+            assertEquals(choiceA[q], statistics.choices().get("A").longValue());
+            assertNotNull(statistics.suggestedDifficulty());
+            assertEquals(pearson(itemScores[q], restScores[q]), statistics.discrimination(), 1e-6);
+        }
+    }
+
+    @Test
+    void incrementalStateMatchesFullRecompute() throws Exception {
+        questionService.recomputeItemStatistics(); // start from a state rebuilt from the table
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<QuizAttempt>> submissions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int student = i;
+            submissions.add(executor.submit(() -> {
+                QuizAttempt attempt = quizService.startAttempt("Item Student " + student,
+                        "item" + student + "@example.com", "All", "All", 10);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (QuestionSnapshot question : questionService.getCatalogQuestions(attempt.getQuestionIds())) {
+                    String answer = random.nextBoolean() ? question.getCorrectAnswer()
+                            : String.valueOf((char) ('A' + random.nextInt(4)));
+                    attempt.recordAnswer(question.getId(), answer);
+                }
+                quizService.calculateAndSaveResult(attempt, 60);
+                return attempt;
+            }));
+        }
+        QuizAttempt last = null;
+        for (Future<QuizAttempt> submission : submissions) {
+            last = submission.get();
+        }
+        executor.shutdown();
+        quizResultWriter.awaitFlushed();
+
+        long questionId = last.getQuestionIds()[0];
+        long attemptsBefore = questionService.getItemStatistics(questionId).orElseThrow().attempts();
+
+        ItemAnalysisReport report = questionService.recomputeItemStatistics();
+        assertEquals(0, report.mismatchedQuestions().intValue());
+        assertEquals(attemptsBefore, questionService.getItemStatistics(questionId).orElseThrow().attempts());
+    }
+
+    @Test
+    void recomputeRunningDuringSubmissionsLosesAndDoublesNothing() throws Exception {
+        questionService.recomputeItemStatistics();
+
+        AtomicBoolean submitting = new AtomicBoolean(true);
+        Thread recomputer = new Thread(() -> {
+            while (submitting.get()) {
+                questionService.recomputeItemStatistics();
+            }
+        });
+        recomputer.start();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<QuizAttempt>> submissions = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int student = i;
+            submissions.add(executor.submit(() -> {
+                QuizAttempt attempt = quizService.startAttempt("Rebuild Student " + student,
+                        "rebuild" + student + "@example.com", "All", "All", 10);
+                for (long questionId : attempt.getQuestionIds()) {
+                    attempt.recordAnswer(questionId, String.valueOf((char) ('A' + ThreadLocalRandom.current().nextInt(4))));
+                }
+                quizService.calculateAndSaveResult(attempt, 60);
+                return attempt;
+            }));
+        }
+        for (Future<QuizAttempt> submission : submissions) {
+            submission.get();
+        }
+        executor.shutdown();
+        submitting.set(false);
+        recomputer.join();
+        quizResultWriter.awaitFlushed();
+
+        ItemAnalysisReport report = questionService.recomputeItemStatistics();
+        assertEquals(0, report.mismatchedQuestions().intValue());
+    }
+
+    @Test
+    void recomputeKeepsRestScoresOfSheetsWithDeletedQuestions() {
+        Question kept = questionService.saveQuestion(new Question("Kept?", "a", "b", "c", "d", "A",
+                                                                  "Programming", "Easy", ""));
+        Question removed = questionService.saveQuestion(new Question("Removed?", "a", "b", "c", "d", "B",
+                                                                     "Programming", "Easy", ""));
+        // Answers to (kept, removed); the rest score of kept is whether removed was answered correctly
+        String[][] sheets = {{"A", "B"}, {"A", "B"}, {"C", "B"}, {"A", "D"}, {"C", "D"}, {"C", "D"}};
+        long[] questionIds = {kept.getId(), removed.getId()};
+        for (int i = 0; i < sheets.length; i++) {
+            long now = System.currentTimeMillis();
+            QuizAttempt attempt = new QuizAttempt(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE),
+                                                  "Deleted Item Student", "deleted-item@example.com", "All",
+                                                  questionIds, now, now + 600_000);
+            attempt.recordAnswer(kept.getId(), sheets[i][0]);
+            attempt.recordAnswer(removed.getId(), sheets[i][1]);
+            quizService.calculateAndSaveResult(attempt, 60);
+        }
+        ItemStatistics before = questionService.getItemStatistics(kept.getId()).orElseThrow();
+        assertNotNull(before.discrimination());
+
+        questionService.deleteQuestion(removed.getId());
+        try {
+            questionService.recomputeItemStatistics();
+            ItemStatistics after = questionService.getItemStatistics(kept.getId()).orElseThrow();
+            assertEquals(before.attempts(), after.attempts());
+            assertEquals(before.correct(), after.correct());
+            assertEquals(before.discrimination(), after.discrimination(), EPSILON);
+            assertFalse(contains(itemAnalysisEngine.getAttemptedQuestionIds(), removed.getId()));
+            assertTrue(contains(itemAnalysisEngine.getAttemptedQuestionIds(), kept.getId()));
+        } finally {
+            questionService.deleteQuestion(kept.getId());
+        }
+    }
+
+    @Test
+    void sheetRecordedAfterTheRecomputeSnapshotIsCountedOnce() throws Exception {
+        Question question = questionService.saveQuestion(new Question("Late sheet?", "a", "b", "c", "d", "A",
+                                                                      "Programming", "Easy", ""));
+        long[] questionIds = {question.getId()};
+        byte[] answers = {QuizAttempt.encodeAnswer("A")};
+        GradingEngine.Grade grade = GradingEngine.grade(GradingEngine.PackedChoices.fromCodes(answers),
+                                                        GradingEngine.PackedChoices.fromCodes(answers));
+        try {
+            // In the table before the recompute's snapshot, recorded only once the recompute is under way
+            Object change = resultChangeTracker.begin();
+            QuizResult result = new QuizResult("Late Sheet Student", "late-sheet@example.com", 1, 1, 0, 100.0,
+                                               60, "Programming", "");
+            result.setQuestionIds(AnswerSheetCodec.encodeQuestionIds(questionIds));
+            result.setAnswerCodes(AnswerSheetCodec.packAnswers(answers));
+            QuizResult saved = quizResultRepository.save(result);
+            Thread recomputer = new Thread(questionService::recomputeItemStatistics);
+            recomputer.start();
+            recomputer.join(200);
+            assertTrue(recomputer.isAlive(), "recompute waits for the change in flight");
+
+            itemAnalysisEngine.record(saved.getId(), questionIds, answers, grade);
+            resultChangeTracker.end(change);
+            recomputer.join();
+            assertEquals(1, questionService.getItemStatistics(question.getId()).orElseThrow().attempts());
+        } finally {
+            questionService.deleteQuestion(question.getId());
+        }
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        for (long candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static double pearson(double[] x, double[] y) {
+        double meanX = mean(x);
+        double meanY = mean(y);
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for (int i = 0; i < x.length; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            varianceX += (x[i] - meanX) * (x[i] - meanX);
+            varianceY += (y[i] - meanY) * (y[i] - meanY);
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+}
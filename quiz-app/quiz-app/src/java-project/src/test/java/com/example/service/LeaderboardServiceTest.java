@@ -0,0 +1,119 @@
+package com.example.service;
+
+import com.example.event.QuizResultSavedEvent;
+import com.example.model.QuizResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the order and bound of the leaderboards, and that deletes only refill the boards they touch
+ */
+@SpringBootTest
+class LeaderboardServiceTest {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizResultWriter quizResultWriter;
+
+    @Value("${quiz.leaderboard.size}")
+    private int size;
+
+    @AfterEach
+    void reload() {
+        leaderboardService.rebuild();
+    }
+
+    @Test
+    void keepsTheBestScoresInOrderAndEvictsTheRest() {
+        String category = "Leaderboard Order";
+        leaderboardService.getTopScores(); // loaded, so the saves below go through the boards
+        List<QuizResult> saved = new ArrayList<>();
+        for (int i = 0; i < size + 5; i++) {
+            saved.add(save(category, (i * 37) % 100)); // distinct scores in no particular order
+        }
+        QuizResult tie = save(category, saved.stream().mapToDouble(QuizResult::getScore).max().orElseThrow());
+        saved.add(tie);
+
+        // Best first; equal scores by attempt date, then id; only the best size entries are kept
+        List<Long> expected = saved.stream()
+                .sorted((a, b) -> a.getScore() != b.getScore() ? Double.compare(b.getScore(), a.getScore())
+                                                                 : Long.compare(a.getId(), b.getId()))
+                .limit(size).map(QuizResult::getId).toList();
+        assertEquals(expected, ids(leaderboardService.getTopScores(category)));
+        assertEquals(tie.getId(), leaderboardService.getTopScores(category).get(1).getId());
+
+        List<Long> newestFirst = new ArrayList<>();
+        for (int i = saved.size() - 1; i >= saved.size() - size; i--) {
+            newestFirst.add(saved.get(i).getId());
+        }
+        assertEquals(newestFirst, ids(leaderboardService.getRecentAttempts()));
+
+        List<QuizResult> top = leaderboardService.getTopScores();
+        assertEquals(size, top.size());
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).getScore() >= top.get(i).getScore());
+        }
+
+        // A rebuild from the table agrees with the incrementally maintained boards
+        leaderboardService.rebuild();
+        assertEquals(expected, ids(leaderboardService.getTopScores(category)));
+        assertEquals(newestFirst, ids(leaderboardService.getRecentAttempts()));
+    }
+
+    @Test
+    void deleteRefillsOnlyTheBoardsItTouched() {
+        String category = "Leaderboard Delete";
+        leaderboardService.getTopScores();
+        List<QuizResult> saved = new ArrayList<>();
+        for (int i = 0; i <= size; i++) {
+            saved.add(save(category, 50 + i)); // the first one is evicted from the category board
+        }
+        for (int i = 0; i < size; i++) {
+            save("Leaderboard Other", 0); // pushes the category's results off the recent attempts
+        }
+
+        // Offered to the boards but never stored, so any full rebuild drops it
+        QuizResult marker = new QuizResult("Marker", "marker@example.com", 10, 0, 10, 0.0, 60, "Leaderboard Marker", "");
+        marker.setId(Long.MAX_VALUE);
+        marker.setAttemptDate(LocalDateTime.now().minusYears(1));
+        leaderboardService.onResultSaved(new QuizResultSavedEvent(marker));
+
+        // Not on any board
+        quizService.deleteResult(saved.get(0).getId());
+        assertEquals(List.of(marker.getId()), ids(leaderboardService.getTopScores("Leaderboard Marker")));
+
+        // On the category board: refilled from the table with the next best entry
+        QuizResult best = saved.get(size);
+        quizService.deleteResult(best.getId());
+        List<Long> expected = new ArrayList<>();
+        for (int i = size - 1; i >= 1; i--) {
+            expected.add(saved.get(i).getId());
+        }
+        assertEquals(expected, ids(leaderboardService.getTopScores(category)));
+        assertEquals(List.of(marker.getId()), ids(leaderboardService.getTopScores("Leaderboard Marker")));
+    }
+
+    private QuizResult save(String category, double score) {
+        return quizResultWriter.write(new QuizResult("Student", "leaderboard@example.com", 100, (int) score,
+                                                     100 - (int) score, score, 60, category, ""));
+    }
+
+    private static List<Long> ids(List<QuizResult> results) {
+        return results.stream().map(QuizResult::getId).toList();
+    }
+}
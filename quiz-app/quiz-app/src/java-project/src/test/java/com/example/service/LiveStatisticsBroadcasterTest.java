@@ -0,0 +1,127 @@
+package com.example.service;
+
+import com.example.dto.LiveStatistics;
+import com.example.event.QuizResultSavedEvent;
+import com.example.model.QuizResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the shared snapshot is reused until results change, that a burst of changes
+ * is coalesced into at most one snapshot per update interval, and that a stalled subscriber
+ * does not hold a sender thread or leave it interrupted.
+ */
+@SpringBootTest(properties = {"quiz.live.max-updates-per-second=20", "quiz.live.sender-threads=1",
+                              "quiz.live.send-timeout-ms=200"})
+class LiveStatisticsBroadcasterTest {
+
+    @Autowired
+    private LiveStatisticsBroadcaster broadcaster;
+
+    @Test
+    void reusesSnapshotUntilResultsChange() throws InterruptedException {
+        LiveStatistics first = broadcaster.getSnapshot();
+        assertSame(first, broadcaster.getSnapshot());
+
+        broadcaster.onResultSaved(new QuizResultSavedEvent(new QuizResult()));
+        Thread.sleep(60);
+        LiveStatistics second = broadcaster.getSnapshot();
+        assertNotSame(first, second);
+        assertTrue(second.version() > first.version());
+        assertSame(second, broadcaster.getSnapshot());
+    }
+
+    @Test
+    void coalescesBurstsOfChanges() {
+        long firstVersion = broadcaster.getSnapshot().version();
+        long start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            broadcaster.onResultSaved(new QuizResultSavedEvent(new QuizResult()));
+            broadcaster.getSnapshot();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long snapshots = broadcaster.getSnapshot().version() - firstVersion;
+        // One snapshot per 50 ms interval at most
+        assertTrue(snapshots <= elapsedMs / 50 + 2, snapshots + " snapshots in " + elapsedMs + " ms");
+    }
+
+    @Test
+    void dropsSubscriberWhoseSendStalls() throws InterruptedException {
+        int subscribers = broadcaster.getStats().subscribers();
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+        broadcaster.subscribe(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                stalled.countDown();
+                try {
+                    Thread.sleep(Long.MAX_VALUE); // a client that stopped reading
+                } catch (InterruptedException e) {
+                    aborted.countDown();
+                    throw new IOException(e); // as the container's blocking write does
+                }
+            }
+        });
+        broadcaster.onResultSaved(new QuizResultSavedEvent(new QuizResult()));
+        assertTrue(stalled.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch received = new CountDownLatch(1);
+        broadcaster.subscribe(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                received.countDown();
+            }
+        });
+        broadcaster.onResultSaved(new QuizResultSavedEvent(new QuizResult()));
+        assertTrue(aborted.await(5, TimeUnit.SECONDS));
+        // The only sender thread is free again
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(subscribers + 1, broadcaster.getStats().subscribers());
+    }
+
+    @Test
+    void keepsServingHealthySubscribersAfterAnAbortedSendCompleted() throws InterruptedException {
+        CountDownLatch slowSendDone = new CountDownLatch(1);
+        broadcaster.subscribe(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                // Interrupted by the send timeout, but finishes its write anyway
+                long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(600);
+                while (System.nanoTime() < until) {
+                    Thread.onSpinWait();
+                }
+                slowSendDone.countDown();
+            }
+        });
+        broadcaster.onResultSaved(new QuizResultSavedEvent(new QuizResult()));
+        assertTrue(slowSendDone.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        int subscribers = broadcaster.getStats().subscribers(); // the slow one was dropped
+
+        // Served by the same, only sender thread
+        CountDownLatch received = new CountDownLatch(1);
+        broadcaster.subscribe(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IOException("interrupted"); // as the container's blocking write does
+                }
+                received.countDown();
+            }
+        });
+        broadcaster.onResultSaved(new QuizResultSavedEvent(new QuizResult()));
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(subscribers + 1, broadcaster.getStats().subscribers());
+    }
+}
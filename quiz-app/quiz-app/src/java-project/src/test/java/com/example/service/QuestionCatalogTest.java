@@ -0,0 +1,105 @@
+package com.example.service;
+
+import com.example.BenchmarkData;
+import com.example.model.Question;
+import com.example.repository.QuestionRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class QuestionCatalogTest {
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private QuestionCatalog questionCatalog;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void servesRepeatedLookupsFromCacheAndReloadsAfterUpdate() {
+        Question question = questionService.getRandomQuestions(1).get(0);
+        String correct = question.getCorrectAnswer();
+        String wrong = "A".equals(correct) ? "B" : "A";
+        questionCatalog.invalidate(question.getId());
+
+        QuestionCatalog.Stats before = questionCatalog.getStats();
+        assertTrue(questionService.isCorrectAnswer(question.getId(), correct.toLowerCase()));
+        assertFalse(questionService.isCorrectAnswer(question.getId(), wrong));
+        QuestionCatalog.Stats after = questionCatalog.getStats();
+        assertEquals(1, after.getMisses() - before.getMisses());
+        assertEquals(1, after.getHits() - before.getHits());
+
+        question.setCorrectAnswer(wrong);
+        questionService.updateQuestion(question);
+        try {
+            assertTrue(questionService.isCorrectAnswer(question.getId(), wrong));
+        } finally {
+            question.setCorrectAnswer(correct);
+            questionService.updateQuestion(question);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void lookupLatencyWithAndWithoutCache() {
+        int questions = 100_000;
+        int lookups = 200_000;
+        BenchmarkData.seedQuestions(jdbcTemplate, questions);
+        questionService.rebuildIndex();
+        long[] ids = jdbcTemplate.queryForList("SELECT id FROM questions", Long.class)
+                                 .stream().mapToLong(Long::longValue).toArray();
+
+        // Without the cache: what isCorrectAnswer cost before, one repository round trip per lookup
+        measure("repository", ids, lookups / 10, id -> questionRepository.findById(id).isPresent());
+        long[] uncached = measure("repository", ids, lookups, id -> questionRepository.findById(id).isPresent());
+
+        questionCatalog.getAll(ids); // warm the cache with the whole bank
+        measure("cache", ids, lookups / 10, id -> questionService.isCorrectAnswer(id, "A"));
+        long[] cached = measure("cache", ids, lookups, id -> questionService.isCorrectAnswer(id, "A"));
+
+        assertTrue(percentile(cached, 0.5) < percentile(uncached, 0.5));
+        QuestionCatalog.Stats stats = questionCatalog.getStats();
+        System.out.printf("cache: size=%,d hits=%,d misses=%,d evictions=%,d hitRate=%.3f%n",
+                          stats.getSize(), stats.getHits(), stats.getMisses(), stats.getEvictions(),
+                          stats.getHitRate());
+    }
+
+    private static long[] measure(String label, long[] ids, int lookups, LongPredicate lookup) {
+        long[] nanos = new long[lookups];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int matched = 0;
+        for (int i = 0; i < lookups; i++) {
+            long id = ids[random.nextInt(ids.length)];
+            long start = System.nanoTime();
+            if (lookup.test(id)) {
+                matched++;
+            }
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-10s %,9d lookups  p50=%,8d ns  p99=%,9d ns  max=%,11d ns  (%d matched)%n",
+                          label, lookups, percentile(nanos, 0.5), percentile(nanos, 0.99), nanos[lookups - 1], matched);
+        return nanos;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))];
+    }
+}
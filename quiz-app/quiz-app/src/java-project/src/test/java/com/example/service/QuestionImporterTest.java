@@ -0,0 +1,110 @@
+package com.example.service;
+
+import com.example.BenchmarkData;
+import com.example.dto.QuestionImportReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class QuestionImporterTest {
+
+    private static final String PREFIX = "Import test ";
+
+    @Autowired
+    private QuestionImporter questionImporter;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeImportedQuestions() {
+        jdbcTemplate.update("DELETE FROM questions WHERE question_text LIKE ?", PREFIX + "%");
+        questionService.rebuildIndex();
+    }
+
+    @Test
+    void importsValidCsvRowsAndReportsInvalidOnes() throws Exception {
+        String csv = "question_text,option_a,option_b,option_c,option_d,correct_answer,category,difficulty,explanation\r\n"
+                   + "\"Import test one, with a comma?\",A1,B1,C1,D1,b,Programming,Easy,\"Quoted \"\"explanation\"\"\"\r\n"
+                   + "Import test two?,A2,B2,C2,D2,E,Programming,Easy,Bad answer\r\n"
+                   + "Import test three?,A3,,C3,D3,A,Programming,Easy,Missing option\r\n"
+                   + "Import test four?,A4,B4,C4,D4,D,Algorithms,Hard,\r\n";
+        long before = questionService.getTotalQuestions();
+
+        QuestionImportReport report = importBytes(csv, QuestionImporter.Format.CSV);
+
+        assertTrue(report.finished());
+        assertEquals(4, report.rowsRead());
+        assertEquals(2, report.rowsImported());
+        assertEquals(2, report.rowsRejected());
+        assertTrue(report.errors().get(0).startsWith("line 3: correctAnswer"));
+        assertTrue(report.errors().get(1).startsWith("line 4: optionB"));
+        assertEquals(before + 2, questionService.getTotalQuestions());
+        assertEquals("B", jdbcTemplate.queryForObject(
+                "SELECT correct_answer FROM questions WHERE question_text = ?", String.class,
+                PREFIX + "one, with a comma?"));
+    }
+
+    @Test
+    void importsJsonArray() throws Exception {
+        String json = "[{\"questionText\":\"Import test json?\",\"optionA\":\"A\",\"optionB\":\"B\",\"optionC\":\"C\","
+                    + "\"optionD\":\"D\",\"correctAnswer\":\"C\",\"category\":\"Programming\",\"tags\":[\"x\"]},"
+                    + "{\"questionText\":\"Import test bad json?\",\"correctAnswer\":\"A\"}]";
+
+        QuestionImportReport report = importBytes(json, QuestionImporter.Format.JSON);
+
+        assertEquals(2, report.rowsRead());
+        assertEquals(1, report.rowsImported());
+        assertEquals(1, report.rowsRejected());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void importThroughput() throws Exception {
+        int rows = 200_000;
+        Path file = Files.createTempFile("question-bank", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("question_text,option_a,option_b,option_c,option_d,correct_answer,category,difficulty,explanation\n");
+                for (int i = 0; i < rows; i++) {
+                    writer.write("\"" + PREFIX + i + ", generated?\",Option A,Option B,Option C,Option D,"
+                                 + (char) ('A' + i % 4) + "," + BenchmarkData.CATEGORIES[i % BenchmarkData.CATEGORIES.length]
+                                 + "," + BenchmarkData.DIFFICULTIES[i % BenchmarkData.DIFFICULTIES.length]
+                                 + ",Generated explanation\n");
+                }
+            }
+            try (InputStream input = Files.newInputStream(file)) {
+                QuestionImportReport report = questionImporter.importQuestions(input, QuestionImporter.Format.CSV,
+                                                                               file.toString());
+                assertEquals(rows, report.rowsImported());
+                System.out.printf("Imported %,d rows (%,d KB) in %,d ms: %,.0f rows/s%n",
+                                  report.rowsImported(), Files.size(file) / 1024, report.elapsedMs(),
+                                  report.rowsPerSecond());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private QuestionImportReport importBytes(String content, QuestionImporter.Format format) throws Exception {
+        return questionImporter.importQuestions(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                                                format, "test");
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks sampling from the question index: distinct ids, filters, short buckets, and changes made
+ * before, during and after a rebuild.
+ */
+class QuestionIndexTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    void samplesDistinctIdsMatchingTheFilters() {
+        QuestionIndex index = new QuestionIndex();
+        index.rebuild(rows(100));
+
+        for (int round = 0; round < 200; round++) {
+            long[] sample = index.sample("Java", "Easy", 10, random);
+            assertEquals(10, sample.length);
+            assertEquals(10, Arrays.stream(sample).distinct().count());
+            for (long id : sample) {
+                assertEquals("Java", category(id));
+                assertEquals("Easy", difficulty(id));
+            }
+        }
+
+        long[] anyDifficulty = index.sample("SQL", null, 30, random);
+        assertEquals(30, Arrays.stream(anyDifficulty).distinct().count());
+        assertTrue(Arrays.stream(anyDifficulty).allMatch(id -> category(id).equals("SQL")));
+
+        assertEquals(0, index.sample("Networks", null, 5, random).length);
+        assertEquals(0, index.sample(null, null, 0, random).length);
+    }
+
+    @Test
+    void returnsTheWholeBucketWhenAskedForMore() {
+        QuestionIndex index = new QuestionIndex();
+        index.rebuild(rows(100));
+
+        long[] sample = index.sample("Java", "Easy", 1000, random);
+        assertEquals(ids(rows(100), "Java", "Easy"), toSet(sample));
+        assertEquals(100, index.sample(null, null, 1000, random).length);
+    }
+
+    @Test
+    void followsSavesUpdatesAndDeletes() {
+        QuestionIndex index = new QuestionIndex();
+        index.rebuild(rows(100));
+
+        index.put(1000L, "Networks", "Hard"); // saved
+        index.put(2L, "Networks", "Hard"); // moved from Java/Easy
+        index.remove(4L); // deleted
+
+        assertEquals(Set.of(2L, 1000L), toSet(index.sample("Networks", "Hard", 10, random)));
+        Set<Long> javaEasy = toSet(index.sample("Java", "Easy", 1000, random));
+        assertFalse(javaEasy.contains(2L));
+        assertFalse(javaEasy.contains(4L));
+        assertEquals(ids(rows(100), "Java", "Easy").size() - 2, javaEasy.size());
+        assertEquals(100, index.size());
+    }
+
+    @Test
+    void keepsChangesMadeWhileTheRebuildQueryRuns() {
+        QuestionIndex index = new QuestionIndex();
+
+        index.rebuild(() -> {
+            List<Object[]> rows = rows(100); // the table as the query saw it
+            // Committed after the query read its rows, but before the index is swapped in
+            index.put(1000L, "Networks", "Hard");
+            index.put(1L, "Networks", "Hard");
+            index.remove(2L);
+            return rows;
+        });
+
+        assertTrue(index.isLoaded());
+        assertEquals(Set.of(1L, 1000L), toSet(index.sample("Networks", "Hard", 10, random)));
+        assertFalse(toSet(index.sample(null, null, 1000, random)).contains(2L));
+        assertEquals(100, index.size());
+
+        // Later changes apply directly
+        index.remove(1000L);
+        assertEquals(Set.of(1L), toSet(index.sample("Networks", "Hard", 10, random)));
+    }
+
+    /**
+     * Ids 0..n-1; even ids are Java, odd ids SQL; every third id is Hard, the others Easy
+     */
+    private static List<Object[]> rows(int n) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 0; id < n; id++) {
+            rows.add(new Object[] {id, category(id), difficulty(id)});
+        }
+        return rows;
+    }
+
+    private static String category(long id) {
+        return id % 2 == 0 ? "Java" : "SQL";
+    }
+
+    private static String difficulty(long id) {
+        return id % 3 == 0 ? "Hard" : "Easy";
+    }
+
+    private static Set<Long> ids(List<Object[]> rows, String category, String difficulty) {
+        return rows.stream()
+                .filter(row -> row[1].equals(category) && row[2].equals(difficulty))
+                .map(row -> (Long) row[0])
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<Long> toSet(long[] ids) {
+        Set<Long> set = new HashSet<>();
+        for (long id : ids) {
+            set.add(id);
+        }
+        assertEquals(ids.length, set.size(), "duplicate ids in sample");
+        return set;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.service;
+
+import com.example.BenchmarkData;
+import com.example.model.Question;
+import com.example.repository.QuestionRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the native ORDER BY RANDOM() queries with sampling from the in-memory question index.
+ * Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=QuestionSamplingBenchmarkTest
+ */
+@SpringBootTest
+@Tag("benchmark")
+class QuestionSamplingBenchmarkTest {
+
+    private static final int QUIZ_SIZE = 20;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void compareNativeQueriesWithIndex(int bankSize) {
+        BenchmarkData.seedQuestions(jdbcTemplate, bankSize);
+        questionService.rebuildIndex();
+
+        report(bankSize, "all",
+               time(() -> questionRepository.findRandomQuestions(QUIZ_SIZE)),
+               time(() -> questionService.getRandomQuestions(QUIZ_SIZE)));
+        report(bankSize, "category",
+               time(() -> questionRepository.findRandomQuestionsByCategory("Algorithms", QUIZ_SIZE)),
+               time(() -> questionService.getRandomQuestionsByCategory("Algorithms", QUIZ_SIZE)));
+        report(bankSize, "difficulty",
+               time(() -> questionRepository.findRandomQuestionsByDifficulty("Hard", QUIZ_SIZE)),
+               time(() -> questionService.getRandomQuestionsByDifficulty("Hard", QUIZ_SIZE)));
+        report(bankSize, "category+difficulty",
+               time(() -> questionRepository.findByCategoryAndDifficulty("Algorithms", "Hard").subList(0, QUIZ_SIZE)),
+               time(() -> questionService.getRandomQuestions("Algorithms", "Hard", QUIZ_SIZE)));
+    }
+
+    private static void report(int bankSize, String filter, double nativeMicros, double indexMicros) {
+        System.out.printf("questions=%,d filter=%s native=%.1f us/quiz index=%.1f us/quiz speedup=%.1fx%n",
+                          bankSize, filter, nativeMicros, indexMicros, nativeMicros / indexMicros);
+    }
+
+    private static double time(Supplier<List<Question>> sampler) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            assertEquals(QUIZ_SIZE, sampler.get().size());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sampler.get();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / MEASURED_ROUNDS;
+    }
+}
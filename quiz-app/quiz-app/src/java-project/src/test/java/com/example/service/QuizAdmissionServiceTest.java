@@ -0,0 +1,114 @@
+package com.example.service;
+
+import com.example.dto.AdmissionStats;
+import com.example.dto.QuizStartRequest;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.NestedTestConfiguration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the per-exam limit, arrival-order admission and the bounded line.
+ * The bucket refills so slowly that only its burst of three tokens is available during the test.
+ */
+@SpringBootTest(properties = {
+        "quiz.admission.starts-per-second=0.0001",
+        "quiz.admission.burst=3",
+        "quiz.admission.max-concurrent-starts=5",
+        "quiz.admission.exam-limits=Limited:1",
+        "quiz.admission.queue-capacity=3"})
+class QuizAdmissionServiceTest {
+
+    @Autowired
+    private QuizAdmissionService admission;
+
+    @Test
+    void admitsWaitingStudentsInArrivalOrder() {
+        QuizAdmissionService.Permit first = admission.tryAdmit("Limited");
+        assertNotNull(first);
+        assertNull(admission.tryAdmit("Limited")); // exam limit of one concurrent start
+
+        QuizAdmissionService.Ticket early = admission.enqueue("Limited", start("early"));
+        QuizAdmissionService.Ticket late = admission.enqueue("Limited", start("late"));
+        assertEquals(1, admission.poll(early.getId()).getPosition());
+        assertEquals(2, admission.poll(late.getId()).getPosition());
+
+        first.close();
+        // The slot goes to the earliest ticket, even when the later one polls first
+        QuizAdmissionService.Admission lateCheck = admission.poll(late.getId());
+        assertFalse(lateCheck.isAdmitted());
+        assertEquals(1, lateCheck.getPosition());
+        QuizAdmissionService.Admission earlyCheck = admission.poll(early.getId());
+        assertTrue(earlyCheck.isAdmitted());
+        assertEquals("early", earlyCheck.getStart().studentName());
+        earlyCheck.getPermit().close();
+
+        // A newcomer of the same exam does not overtake the waiting ticket
+        assertNull(admission.tryAdmit("Limited"));
+        // The third and last token goes to the waiting ticket; other exams now have to wait as well
+        assertTrue(admission.poll(late.getId()).isAdmitted());
+        assertNull(admission.tryAdmit("Other"));
+
+        assertNotNull(admission.enqueue("Other", start("a")));
+        assertNotNull(admission.enqueue("Other", start("b")));
+        assertNotNull(admission.enqueue("Other", start("c")));
+        assertNull(admission.enqueue("Other", start("d"))); // line is full
+
+        AdmissionStats stats = admission.getStats();
+        assertEquals(3, stats.queueDepth());
+        assertEquals(1, stats.admittedImmediately());
+        assertEquals(2, stats.admittedFromQueue());
+        assertEquals(1, stats.rejected());
+        assertNull(admission.poll("unknown"));
+    }
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(properties = {
+            "quiz.admission.starts-per-second=0.0001",
+            "quiz.admission.burst=3",
+            "quiz.admission.max-concurrent-starts=1",
+            "quiz.admission.ticket-timeout-ms=200"})
+    class ScheduledExams {
+
+        @Autowired
+        private QuizAdmissionService admission;
+
+        @Test
+        void limitsEachExamSeparatelyAndExpiresAbandonedTickets() throws InterruptedException {
+            // A scheduled exam does not share its limit with practice quizzes of the same category
+            QuizAdmissionService.Permit exam = admission.tryAdmit(QuizAdmissionService.examKey("Algorithms", 7L));
+            assertNotNull(exam);
+            assertNotNull(admission.tryAdmit(QuizAdmissionService.examKey("Algorithms", null)));
+            assertNull(admission.tryAdmit("exam-7"));
+
+            QuizAdmissionService.Ticket abandoned = admission.enqueue("exam-7", start("abandoned"));
+            QuizAdmissionService.Ticket kept = admission.enqueue("exam-7", start("kept"));
+            assertTrue(kept.getId().matches("[0-9a-f]{32}"));
+            assertEquals(2, admission.poll(kept.getId()).getPosition());
+
+            // Only the second ticket keeps polling; the first one expires at the head of the line
+            for (int i = 0; i < 6; i++) {
+                Thread.sleep(60);
+                assertFalse(admission.poll(kept.getId()).isAdmitted());
+            }
+            assertEquals(1, admission.poll(kept.getId()).getPosition());
+            assertNull(admission.poll(abandoned.getId()));
+
+            exam.close();
+            assertTrue(admission.poll(kept.getId()).isAdmitted());
+            assertEquals(1, admission.getStats().abandoned());
+        }
+    }
+
+    private static QuizStartRequest start(String name) {
+        return new QuizStartRequest(name, name + "@example.com", "All", "All", 10);
+    }
+}
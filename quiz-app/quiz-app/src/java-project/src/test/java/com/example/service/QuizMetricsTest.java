@@ -0,0 +1,79 @@
+package com.example.service;
+
+import com.example.model.QuizAttempt;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Checks that @Timed service methods are timed and the service gauges follow the services
+ */
+@SpringBootTest
+class QuizMetricsTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private QuizAdmissionService quizAdmissionService;
+
+    @Test
+    void timesServiceMethods() {
+        long before = timerCount("quiz.service", "generateQuiz");
+        long sampledBefore = timerCount("quiz.questions", "getRandomQuestions");
+        quizService.generateQuiz("All", "All", 5);
+        quizService.generateQuiz("All", "All", 5);
+
+        assertEquals(before + 2, timerCount("quiz.service", "generateQuiz"));
+        assertEquals(sampledBefore + 2, timerCount("quiz.questions", "getRandomQuestions"));
+    }
+
+    @Test
+    void registersServiceGauges() {
+        assertEquals(questionService.getTotalQuestions(),
+                     (long) meterRegistry.get("quiz.questions.total").gauge().value());
+
+        double activeBefore = meterRegistry.get("quiz.attempts.active").gauge().value();
+        double startedBefore = attempts("started");
+        double submittedBefore = attempts("submitted");
+        QuizAttempt attempt = quizService.startAttempt("Metrics Student", "metrics@example.com", "All", "All", 5);
+        assertEquals(activeBefore + 1, meterRegistry.get("quiz.attempts.active").gauge().value());
+        assertEquals(startedBefore + 1, attempts("started"));
+        quizService.calculateAndSaveResult(attempt, 60);
+        assertEquals(activeBefore, meterRegistry.get("quiz.attempts.active").gauge().value());
+        assertEquals(submittedBefore + 1, attempts("submitted"));
+
+        double admittedBefore = admissions("immediate");
+        QuizAdmissionService.Permit permit = quizAdmissionService.tryAdmit("All");
+        assertNotNull(permit);
+        permit.close();
+        assertEquals(admittedBefore + 1, admissions("immediate"));
+    }
+
+    /**
+     * Invocations so far; the timer is only registered on the first call
+     */
+    private long timerCount(String name, String method) {
+        Timer timer = meterRegistry.find(name).tag("method", method).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double attempts(String state) {
+        return meterRegistry.get("quiz.attempts." + state).functionCounter().count();
+    }
+
+    private double admissions(String outcome) {
+        return meterRegistry.get("quiz.admission.starts").tag("outcome", outcome).functionCounter().count();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.service;
+
+import com.example.model.Question;
+import com.example.repository.QuizResultRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Submit throughput with synchronous saves versus write-behind batched inserts.
+ * Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=QuizResultWriterBenchmarkTest
+ */
+@Tag("benchmark")
+class QuizResultWriterBenchmarkTest {
+
+    private static final int SUBMISSIONS = 20_000;
+    private static final int THREADS = 32;
+
+    @Nested
+    @SpringBootTest(properties = "quiz.results.write-behind.enabled=false")
+    class Synchronous extends Scenario {
+
+        @Test
+        void submitThroughput() throws Exception {
+            measure("synchronous");
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = "quiz.results.write-behind.enabled=true")
+    class WriteBehind extends Scenario {
+
+        @Test
+        void submitThroughput() throws Exception {
+            measure("write-behind");
+        }
+    }
+
+    abstract class Scenario {
+
+        @Autowired
+        private QuizService quizService;
+
+        @Autowired
+        private QuestionService questionService;
+
+        @Autowired
+        private QuizResultWriter quizResultWriter;
+
+        @Autowired
+        private QuizResultRepository quizResultRepository;
+
+        void measure(String label) throws Exception {
+            List<Question> questions = questionService.getRandomQuestions(20);
+            Map<Long, String> answers = new HashMap<>();
+            for (Question question : questions) {
+                answers.put(question.getId(), "A");
+            }
+
+            submit(questions, answers, 1_000); // warm up
+            quizResultWriter.awaitFlushed();
+            long before = quizResultRepository.count();
+
+            long start = System.nanoTime();
+            submit(questions, answers, SUBMISSIONS);
+            long accepted = System.nanoTime();
+            quizResultWriter.awaitFlushed();
+            long flushed = System.nanoTime();
+
+            assertEquals(before + SUBMISSIONS, quizResultRepository.count());
+            System.out.printf("%-12s %,8d submits  accepted in %,6d ms (%,8.0f/s)  persisted in %,6d ms (%,8.0f/s)%n",
+                              label, SUBMISSIONS,
+                              (accepted - start) / 1_000_000, SUBMISSIONS * 1e9 / (accepted - start),
+                              (flushed - start) / 1_000_000, SUBMISSIONS * 1e9 / (flushed - start));
+        }
+
+        private void submit(List<Question> questions, Map<Long, String> answers, int count) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> submissions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int student = i % 500;
+                submissions.add(executor.submit(() -> quizService.calculateAndSaveResult(
+                        "Student " + student, "student" + student + "@example.com",
+                        questions, answers, 120, "All")));
+            }
+            for (Future<?> submission : submissions) {
+                submission.get();
+            }
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.service;
+
+import com.example.model.QuizResult;
+import com.example.repository.QuizResultRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "quiz.results.write-behind.enabled=true")
+class QuizResultWriterTest {
+
+    @Autowired
+    private QuizResultWriter quizResultWriter;
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @Test
+    void keepsResultsThatFailToInsertReadableAndSavesTheRest() throws Exception {
+        List<QuizResult> written = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            // student_name is NOT NULL, so this one fails both as a batch and on its own
+            String name = i == 7 ? null : "Writer Student " + i;
+            written.add(quizResultWriter.write(
+                    new QuizResult(name, "writer" + i + "@example.com", 10, 5, 5, 50.0, 60, "All", "")));
+        }
+        quizResultWriter.awaitFlushed();
+
+        QuizResult failed = written.get(7);
+        assertEquals(1, quizResultWriter.getUnwrittenCount());
+        assertTrue(quizResultWriter.findPending(failed.getId()).isPresent());
+        assertFalse(quizResultWriter.flushPending(failed.getId()));
+        for (QuizResult result : written) {
+            if (result != failed) {
+                assertTrue(quizResultRepository.existsById(result.getId()));
+                assertFalse(quizResultWriter.findPending(result.getId()).isPresent());
+            }
+        }
+    }
+}
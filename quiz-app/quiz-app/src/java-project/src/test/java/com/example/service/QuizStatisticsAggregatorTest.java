@@ -0,0 +1,153 @@
+package com.example.service;
+
+import com.example.event.QuizResultSavedEvent;
+import com.example.model.Question;
+import com.example.model.QuizResult;
+import com.example.repository.QuizResultRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the incremental statistics aggregate against the SQL aggregates
+ * after concurrent submissions and after a delete plus reconcile.
+ */
+@SpringBootTest
+class QuizStatisticsAggregatorTest {
+
+    private static final double EPSILON = 1e-6;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @Autowired
+    private QuizStatisticsAggregator aggregator;
+
+    @Autowired
+    private ResultChangeTracker resultChangeTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void matchesSqlAggregatesUnderConcurrentSubmissions() throws Exception {
+        aggregator.getSnapshot(); // start from an initialized aggregate
+        List<Question> questions = questionService.getRandomQuestions(10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<QuizResult>> submissions = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int student = i % 150;
+            submissions.add(executor.submit(() -> quizService.calculateAndSaveResult(
+                    "Student " + student, "student" + student + "@example.com",
+                    questions, randomAnswers(questions), 120, "All")));
+        }
+        List<QuizResult> saved = new ArrayList<>();
+        for (Future<QuizResult> submission : submissions) {
+            saved.add(submission.get());
+        }
+        executor.shutdown();
+
+        assertMatchesSql();
+
+        quizService.deleteResult(saved.get(0).getId());
+        aggregator.reconcileIfStale();
+        assertMatchesSql();
+    }
+
+    @Test
+    void reconcileRunningDuringSubmissionsLosesAndDoublesNothing() throws Exception {
+        aggregator.getSnapshot();
+        List<Question> questions = questionService.getRandomQuestions(10);
+
+        AtomicBoolean submitting = new AtomicBoolean(true);
+        Thread reconciler = new Thread(() -> {
+            while (submitting.get()) {
+                aggregator.reconcile();
+            }
+        });
+        reconciler.start();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<QuizResult>> submissions = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int student = i % 150;
+            submissions.add(executor.submit(() -> quizService.calculateAndSaveResult(
+                    "Student " + student, "student" + student + "@example.com",
+                    questions, randomAnswers(questions), 120, "All")));
+        }
+        for (int i = 0; i < submissions.size(); i++) {
+            QuizResult saved = submissions.get(i).get();
+            if (i % 40 == 0) {
+                quizService.deleteResult(saved.getId());
+            }
+        }
+        executor.shutdown();
+        submitting.set(false);
+        reconciler.join();
+
+        // Count and sum are exact even after deletes; min and max may wait for the stale check
+        QuizStatisticsAggregator.Snapshot snapshot = aggregator.getSnapshot();
+        assertEquals(quizResultRepository.getTotalAttempts().longValue(), snapshot.getCount());
+        assertEquals(quizResultRepository.getAverageScore(), snapshot.getAverage(), EPSILON);
+        aggregator.reconcileIfStale();
+        assertMatchesSql();
+    }
+
+    @Test
+    void saveAnnouncedAfterTheRebuildSnapshotIsCountedOnce() throws Exception {
+        aggregator.getSnapshot();
+
+        // In the table before the reconcile's snapshot, announced only once the reconcile is under way
+        Object change = resultChangeTracker.begin();
+        QuizResult saved = quizResultRepository.save(new QuizResult("Late Student", "late@example.com",
+                                                                    10, 7, 3, 70.0, 60, "All", ""));
+        Thread reconciler = new Thread(aggregator::reconcile);
+        reconciler.start();
+        reconciler.join(200);
+        assertTrue(reconciler.isAlive(), "reconcile waits for the change in flight");
+
+        eventPublisher.publishEvent(new QuizResultSavedEvent(saved));
+        resultChangeTracker.end(change);
+        reconciler.join();
+        assertMatchesSql();
+    }
+
+    private void assertMatchesSql() {
+        QuizStatisticsAggregator.Snapshot snapshot = aggregator.getSnapshot();
+        assertEquals(quizResultRepository.getTotalAttempts().longValue(), snapshot.getCount());
+        assertEquals(quizResultRepository.getAverageScore(), snapshot.getAverage(), EPSILON);
+        assertEquals(quizResultRepository.getHighestScore(), snapshot.getMax(), EPSILON);
+        assertEquals(quizResultRepository.getLowestScore(), snapshot.getMin(), EPSILON);
+        // Distinct students is an estimate; small cardinalities are within a couple of students
+        int students = quizResultRepository.findAllStudentEmails().size();
+        assertEquals(students, snapshot.getDistinctStudents(), Math.max(2, students * 0.02));
+    }
+
+    private static Map<Long, String> randomAnswers(List<Question> questions) {
+        Map<Long, String> answers = new HashMap<>();
+        for (Question question : questions) {
+            answers.put(question.getId(), String.valueOf((char) ('A' + ThreadLocalRandom.current().nextInt(4))));
+        }
+        return answers;
+    }
+}
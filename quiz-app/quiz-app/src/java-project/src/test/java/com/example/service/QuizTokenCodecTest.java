@@ -0,0 +1,87 @@
+package com.example.service;
+
+import com.example.model.QuizAttempt;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QuizTokenCodecTest {
+
+    private final QuizTokenCodec codec = new QuizTokenCodec("test-secret".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void roundTripsAttempt() {
+        QuizAttempt attempt = attempt(20);
+        attempt.recordAnswer(attempt.getQuestionIds()[0], "C");
+        attempt.advance();
+
+        QuizAttempt decoded = codec.decode(codec.encode(attempt));
+
+        assertEquals(attempt.getAttemptId(), decoded.getAttemptId());
+        assertArrayEquals(attempt.getQuestionIds(), decoded.getQuestionIds());
+        assertArrayEquals(attempt.getAnswers(), decoded.getAnswers());
+        assertEquals(1, decoded.getCurrentIndex());
+        assertEquals(attempt.getDeadline(), decoded.getDeadline());
+        assertEquals("student@example.com", decoded.getStudentEmail());
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        String token = codec.encode(attempt(20));
+        char[] chars = token.toCharArray();
+        chars[10] = chars[10] == 'A' ? 'B' : 'A';
+
+        assertThrows(QuizTokenCodec.InvalidQuizTokenException.class, () -> codec.decode(new String(chars)));
+        assertThrows(QuizTokenCodec.InvalidQuizTokenException.class,
+                     () -> new QuizTokenCodec("other".getBytes(StandardCharsets.UTF_8)).decode(token));
+        assertThrows(QuizTokenCodec.InvalidQuizTokenException.class, () -> codec.decode("not a token"));
+    }
+
+    @Test
+    void refusesToEncodeMoreQuestionsThanItDecodes() {
+        codec.decode(codec.encode(attempt(QuizTokenCodec.MAX_QUESTIONS)));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(attempt(QuizTokenCodec.MAX_QUESTIONS + 1)));
+    }
+
+    /**
+     * Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=QuizTokenCodecTest
+     */
+    @Test
+    @Tag("benchmark")
+    void reportEncodeAndVerifyCost() {
+        for (int questions : new int[] {20, 50, 100}) {
+            QuizAttempt attempt = attempt(questions);
+            String token = codec.encode(attempt);
+            int rounds = 200_000;
+            for (int i = 0; i < rounds; i++) {
+                codec.decode(codec.encode(attempt));
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                token = codec.encode(attempt);
+            }
+            long encodeNanos = (System.nanoTime() - start) / rounds;
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                attempt = codec.decode(token);
+            }
+            long verifyNanos = (System.nanoTime() - start) / rounds;
+            System.out.printf("questions=%d tokenBytes=%d encode=%d ns verify+decode=%d ns%n",
+                              questions, token.length(), encodeNanos, verifyNanos);
+        }
+    }
+
+    private static QuizAttempt attempt(int questions) {
+        long[] ids = new long[questions];
+        for (int i = 0; i < questions; i++) {
+            ids[i] = 100_000 + i * 37L;
+        }
+        long now = System.currentTimeMillis();
+        return new QuizAttempt(42L, "Student", "student@example.com", "Algorithms", ids, now, now + 1_800_000);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.service;
+
+import com.example.dto.RegradeReport;
+import com.example.model.Question;
+import com.example.model.QuestionSnapshot;
+import com.example.model.QuizAttempt;
+import com.example.model.QuizResult;
+import com.example.repository.QuizResultRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ResultRegradeServiceTest {
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private ResultRegradeService resultRegradeService;
+
+    @Autowired
+    private ResultIdAllocator resultIdAllocator;
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void regradesStoredResultsWhenAnswerKeyChanges() throws Exception {
+        QuizAttempt attempt = quizService.startAttempt("Regrade Student", "regrade@example.com", "All", "All", 10);
+        for (QuestionSnapshot question : questionService.getCatalogQuestions(attempt.getQuestionIds())) {
+            attempt.recordAnswer(question.getId(), question.getCorrectAnswer());
+        }
+        QuizResult saved = quizService.calculateAndSaveResult(attempt, 300);
+        assertEquals(100.0, saved.getScore(), 1e-9);
+
+        Question changed = questionService.getQuestionById(attempt.getQuestionIds()[0]).orElseThrow();
+        String originalAnswer = changed.getCorrectAnswer();
+        changed.setCorrectAnswer("A".equalsIgnoreCase(originalAnswer) ? "B" : "A");
+        try {
+            questionService.updateQuestion(changed);
+            resultRegradeService.awaitIdle();
+
+            QuizResult regraded = quizResultRepository.findById(saved.getId()).orElseThrow();
+            assertEquals(attempt.getTotalQuestions() - 1, regraded.getCorrectAnswers());
+            assertEquals(1, regraded.getIncorrectAnswers());
+            assertEquals(100.0 * (attempt.getTotalQuestions() - 1) / attempt.getTotalQuestions(), regraded.getScore(), 1e-9);
+            RegradeReport report = resultRegradeService.getProgress();
+            assertTrue(report.finished());
+            assertTrue(report.resultsUpdated() >= 1);
+        } finally {
+            changed.setCorrectAnswer(originalAnswer);
+            questionService.updateQuestion(changed);
+            resultRegradeService.awaitIdle();
+        }
+        assertEquals(100.0, quizResultRepository.findById(saved.getId()).orElseThrow().getScore(), 1e-9);
+    }
+
+    @Test
+    void keepsStoredCorrectnessOfDeletedQuestions() throws Exception {
+        long[] existing = questionService.sampleQuestionIds(null, null, 4);
+        Question removed = questionService.saveQuestion(new Question("Soon deleted?", "a", "b", "c", "d", "C",
+                                                                     "Programming", "Easy", ""));
+        long[] questionIds = new long[existing.length + 1];
+        System.arraycopy(existing, 0, questionIds, 0, existing.length);
+        questionIds[existing.length] = removed.getId();
+        long now = System.currentTimeMillis();
+        QuizAttempt attempt = new QuizAttempt(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE),
+                                              "Deleted Student", "deleted@example.com", "All", questionIds,
+                                              now, now + 600_000);
+        for (QuestionSnapshot question : questionService.getCatalogQuestions(existing)) {
+            attempt.recordAnswer(question.getId(), question.getCorrectAnswer());
+        }
+        attempt.recordAnswer(removed.getId(), "C");
+        QuizResult saved = quizService.calculateAndSaveResult(attempt, 300);
+        assertEquals(questionIds.length, saved.getCorrectAnswers());
+
+        questionService.deleteQuestion(removed.getId());
+        Question changed = questionService.getQuestionById(existing[0]).orElseThrow();
+        String originalAnswer = changed.getCorrectAnswer();
+        changed.setCorrectAnswer("A".equalsIgnoreCase(originalAnswer) ? "B" : "A");
+        try {
+            questionService.updateQuestion(changed);
+            resultRegradeService.awaitIdle();
+            // Only the changed question flips; the deleted one keeps counting as correct
+            assertEquals(questionIds.length - 1, quizResultRepository.findById(saved.getId()).orElseThrow().getCorrectAnswers());
+
+            // An admin regrade does not know the old key, so it leaves the result alone
+            resultRegradeService.regrade(Set.of());
+            assertEquals(questionIds.length - 1, quizResultRepository.findById(saved.getId()).orElseThrow().getCorrectAnswers());
+        } finally {
+            changed.setCorrectAnswer(originalAnswer);
+            questionService.updateQuestion(changed);
+            resultRegradeService.awaitIdle();
+        }
+        assertEquals(questionIds.length, quizResultRepository.findById(saved.getId()).orElseThrow().getCorrectAnswers());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void regradeThroughput() throws Exception {
+        int results = Integer.getInteger("regrade.results", 1_000_000);
+        int questionsPerAttempt = 20;
+        String sql = "INSERT INTO quiz_results (id, student_name, student_email, total_questions, correct_answers, " +
+                     "incorrect_answers, score, attempt_date, time_taken, category, feedback, question_ids, answer_codes) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < results; i++) {
+            long[] ids = questionService.sampleQuestionIds(null, null, questionsPerAttempt);
+            byte[] answers = new byte[ids.length];
+            for (int q = 0; q < answers.length; q++) {
+                answers[q] = (byte) (1 + random.nextInt(4));
+            }
+            batch.add(new Object[] {resultIdAllocator.nextId(), "Student " + i, "student" + (i % 50_000) + "@example.com",
+                                    ids.length, 0, ids.length, 0.0, now, 600L, "All", "",
+                                    AnswerSheetCodec.encodeQuestionIds(ids), AnswerSheetCodec.packAnswers(answers)});
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+
+        // Every seeded result was stored with 0 correct, so a full regrade rewrites nearly all of them
+        RegradeReport report = resultRegradeService.regrade(Set.of());
+        System.out.printf("Regraded %,d results (%,d updated) in %,d ms: %,.0f results/s%n",
+                          report.resultsScanned(), report.resultsUpdated(), report.elapsedMs(),
+                          report.resultsPerSecond());
+        assertTrue(report.resultsScanned() >= results);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.service;
+
+import com.example.dto.ExamDeckStatus;
+import com.example.model.QuestionSnapshot;
+import com.example.model.QuizAttempt;
+import com.example.model.ScheduledExam;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that a scheduled exam's decks are generated within the lead time, match the exam,
+ * are served from a warm question cache and fall back to on-demand generation once claimed,
+ * and that exams too large to pre-generate are refused.
+ */
+@SpringBootTest(properties = "quiz.scheduled-exams.spare-decks-percent=25")
+@AutoConfigureMockMvc
+class ScheduledExamServiceTest {
+
+    @Autowired
+    private ScheduledExamService scheduledExamService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void claimsPreGeneratedDecksFromAWarmCache() {
+        ScheduledExam exam = scheduledExamService.createExam(new ScheduledExam(
+                "Data Structures midterm", "Data Structures", "All", 3, 4, LocalDateTime.now().minusMinutes(1)));
+        try {
+            ExamDeckStatus status = scheduledExamService.getDeckStatus(exam.getId()).orElse(null);
+            assertNotNull(status);
+            assertEquals(5, status.decks()); // roster of four plus 25% spares
+            assertEquals(3, status.questionsPerDeck());
+            assertTrue(scheduledExamService.getOpenExam(exam.getId()).isPresent());
+
+            QuestionCatalog.Stats before = questionService.getCatalogStats();
+            for (int i = 0; i < status.decks(); i++) {
+                long[] deck = scheduledExamService.claimDeck(exam.getId());
+                assertNotNull(deck);
+                Set<Long> distinct = new HashSet<>();
+                for (QuestionSnapshot question : questionService.getCatalogQuestions(deck)) {
+                    assertEquals("Data Structures", question.getCategory());
+                    distinct.add(question.getId());
+                }
+                assertEquals(3, distinct.size());
+            }
+            assertEquals(before.getMisses(), questionService.getCatalogStats().getMisses());
+            assertNull(scheduledExamService.claimDeck(exam.getId()));
+            assertEquals(5, scheduledExamService.getDeckStatus(exam.getId()).get().claimed());
+
+            // Students beyond the roster and spares still get a quiz, sampled on demand
+            QuizAttempt late = quizService.startExamAttempt("Late Student", "late@example.com", exam.getId());
+            assertNotNull(late);
+            assertEquals(3, late.getTotalQuestions());
+            assertEquals("Data Structures", late.getCategory());
+        } finally {
+            scheduledExamService.deleteExam(exam.getId());
+        }
+        assertFalse(scheduledExamService.getDeckStatus(exam.getId()).isPresent());
+    }
+
+    @Test
+    void generatesNothingBeforeTheLeadTime() {
+        ScheduledExam exam = scheduledExamService.createExam(new ScheduledExam(
+                "Final", "All", "All", 10, 100, LocalDateTime.now().plusDays(1)));
+        try {
+            assertFalse(scheduledExamService.getDeckStatus(exam.getId()).isPresent());
+            assertFalse(scheduledExamService.getOpenExam(exam.getId()).isPresent());
+            assertNull(scheduledExamService.claimDeck(exam.getId()));
+        } finally {
+            scheduledExamService.deleteExam(exam.getId());
+        }
+    }
+
+    @Test
+    void refusesExamsTooLargeToPreGenerate() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        assertThrows(IllegalArgumentException.class, () -> scheduledExamService.createExam(new ScheduledExam(
+                "Too many questions", "All", "All", QuizTokenCodec.MAX_QUESTIONS + 1, 1, start)));
+        assertThrows(IllegalArgumentException.class, () -> scheduledExamService.createExam(new ScheduledExam(
+                "Too many students", "All", "All", 1, 5001, start)));
+        // Both within their own limit, but 5000 decks plus 25% spares of 1000 questions are too many
+        assertThrows(IllegalArgumentException.class, () -> scheduledExamService.createExam(new ScheduledExam(
+                "Too many decks", "All", "All", 1000, 5000, start)));
+
+        // decks * deckSize would overflow an int
+        mockMvc.perform(post("/admin/exams").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Overflow\",\"category\":\"All\",\"difficulty\":\"All\","
+                                 + "\"questionCount\":1000,\"rosterSize\":" + Integer.MAX_VALUE
+                                 + ",\"startTime\":\"" + start + "\"}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.service;
+
+import com.example.event.QuizResultSavedEvent;
+import com.example.model.QuizResult;
+import com.example.repository.QuizResultRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the cached student summaries against the stored results as results are saved and deleted
+ */
+@SpringBootTest
+class StudentSummaryServiceTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Autowired
+    private StudentSummaryService studentSummaryService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizResultWriter quizResultWriter;
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @Test
+    void cachedSummaryFollowsSavesAndDeletes() {
+        String email = "summary@example.com";
+        QuizResult first = save(email, "Algorithms", 7);
+        assertMatchesStoredResults(email); // rebuilt and cached
+
+        save(email, "Algorithms", 3);
+        QuizResult third = save(email, "Networks", 9);
+        assertMatchesStoredResults(email); // updated in the cache
+
+        quizService.deleteResult(first.getId());
+        assertMatchesStoredResults(email); // evicted and rebuilt
+        quizService.deleteResult(third.getId());
+        assertMatchesStoredResults(email);
+    }
+
+    @Test
+    void countsResultWithLowerIdSavedAfterRebuild() {
+        String email = "out-of-order@example.com";
+        QuizResult stored = save(email, "Algorithms", 8);
+        assertEquals(1L, studentSummaryService.getStudentStatistics(email).get("totalAttempts"));
+
+        // A write-behind result can get its id before a later one but reach the table after the rebuild
+        QuizResult late = new QuizResult("Student", email, 10, 4, 6, 40.0, 60, "Algorithms", "");
+        late.setId(stored.getId() - 1);
+        studentSummaryService.onResultSaved(new QuizResultSavedEvent(late));
+        studentSummaryService.onResultSaved(new QuizResultSavedEvent(stored));
+        studentSummaryService.onResultSaved(new QuizResultSavedEvent(late));
+
+        Map<String, Object> stats = studentSummaryService.getStudentStatistics(email);
+        assertEquals(2L, stats.get("totalAttempts"));
+        assertEquals(60.0, (Double) stats.get("averageScore"), EPSILON);
+    }
+
+    private QuizResult save(String email, String category, int correct) {
+        return quizResultWriter.write(new QuizResult("Student", email, 10, correct, 10 - correct,
+                                                     correct * 10.0, 60, category, ""));
+    }
+
+    private void assertMatchesStoredResults(String email) {
+        List<QuizResult> results = quizResultRepository.findByStudentEmail(email);
+        Map<String, Object> stats = studentSummaryService.getStudentStatistics(email);
+        assertEquals((long) results.size(), stats.get("totalAttempts"));
+        assertEquals(results.stream().mapToDouble(QuizResult::getScore).average().orElse(0.0),
+                     (Double) stats.get("averageScore"), EPSILON);
+        assertEquals(results.stream().mapToDouble(QuizResult::getScore).max().orElse(0.0),
+                     (Double) stats.get("bestScore"), EPSILON);
+    }
+}